@@ -1,5 +1,6 @@
   package com.stellarcolonizer.core;
 
+import com.stellarcolonizer.model.battle.CombatStage;
 import com.stellarcolonizer.model.colony.Colony;
 import com.stellarcolonizer.model.diplomacy.DiplomaticRelationship;
 import com.stellarcolonizer.model.diplomacy.DiplomacyManager;
@@ -7,6 +8,8 @@ import com.stellarcolonizer.model.economy.ResourceStockpile;
 import com.stellarcolonizer.model.faction.Faction;
 import com.stellarcolonizer.model.faction.PlayerFaction;
 import com.stellarcolonizer.model.fleet.Fleet;
+import com.stellarcolonizer.model.fleet.MovementSystem;
+import com.stellarcolonizer.model.fleet.ShipCatalog;
 import com.stellarcolonizer.model.galaxy.enums.ResourceType;
 import com.stellarcolonizer.model.galaxy.*;
 import com.stellarcolonizer.model.galaxy.enums.PlanetType;
@@ -45,6 +48,10 @@ public class GameEngine {
     private VictoryConditionManager victoryConditionManager;
 
     private UniversalResourceMarket universalResourceMarket;
+    private final MovementSystem movementSystem = new MovementSystem();
+    private final CombatStage combatStage = new CombatStage();
+    private final long battleSeed = new Random().nextLong(); // 每回合的战斗种子 = battleSeed + 回合数
+    private List<CombatStage.BattleReport> lastTurnBattles = new ArrayList<>();
     
     // 添加静态实例变量以支持单例模式
     private static GameEngine instance;
@@ -69,6 +76,9 @@ public class GameEngine {
     public void initialize() {
         System.out.println("初始化游戏引擎...");
 
+        // 启动时加载一次舰船数据目录，所有派系共享
+        ShipCatalog.get();
+
         // 创建新的星系
         GalaxyGenerator generator = new GalaxyGenerator();
         galaxy = generator.generateGalaxy(50);
@@ -529,24 +539,38 @@ public class GameEngine {
         eventBus.publish(new GameEvent("TURN_START", "回合 " + gameState.getCurrentTurn()));
 
         System.out.println("处理派系数量: " + factions.size());
+
+        // 先更新补给网络，舰队结算时按六边形查询补给状态
+        if (galaxy != null && galaxy.getHexGrid() != null) {
+            galaxy.getSupplyNetwork().update();
+        }
+
         for (Faction faction : factions) {
             // 处理派系外交回合
             faction.nextTurn();
 
-            // 处理派系所有殖民地的回合逻辑
-            for (Colony colony : faction.getColonies()) {
-                colony.processTurn();
-            }
-
             // 处理派系所有舰队的回合逻辑
             for (var fleet : faction.getFleets()) {
                 fleet.processTurn();
             }
 
-            // 处理派系整体回合逻辑（包括AI决策）
+            // 处理派系整体回合逻辑（殖民地每回合只在这里结算一次，之后是科研和AI决策）
             faction.processTurn();
         }
 
+        // 移动阶段：所有派系下达命令后统一推进舰队
+        if (galaxy != null && galaxy.getHexGrid() != null) {
+            for (MovementSystem.Interception interception : movementSystem.advanceFleets(galaxy)) {
+                eventBus.publish(new GameEvent("FLEET_INTERCEPTED", interception));
+            }
+
+            // 战斗阶段：并行结算所有有敌对舰队的六边形
+            lastTurnBattles = combatStage.resolveBattles(galaxy, battleSeed + gameState.getCurrentTurn());
+            for (CombatStage.BattleReport report : lastTurnBattles) {
+                eventBus.publish(new GameEvent("BATTLE_RESOLVED", report));
+            }
+        }
+
         gameState.nextTurn();
 
         // 检查胜利条件
@@ -601,10 +625,7 @@ public class GameEngine {
             // 移除该派系的所有舰队
             List<Fleet> factionFleets = faction.getFleets();
             for (Fleet fleet : factionFleets) {
-                Hex currentHex = fleet.getCurrentHex();
-                if (currentHex != null) {
-                    currentHex.removeEntity(fleet); // 从六边形中移除舰队
-                }
+                fleet.destroy(); // 从六边形和舰队登记中移除舰队
             }
             
             // 从星系中移除派系的关联
@@ -631,6 +652,13 @@ public class GameEngine {
         return gameState;
     }
 
+    /**
+     * 上一回合战斗阶段的战斗记录
+     */
+    public List<CombatStage.BattleReport> getLastTurnBattles() {
+        return lastTurnBattles;
+    }
+
     public Galaxy getGalaxy() {
         return galaxy;
     }
@@ -0,0 +1,472 @@
+package com.stellarcolonizer.model.battle;
+
+import com.stellarcolonizer.model.fleet.Fleet;
+import com.stellarcolonizer.model.fleet.ModuleDefinition;
+import com.stellarcolonizer.model.fleet.Ship;
+import com.stellarcolonizer.model.fleet.ShipDesign;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 战斗预测
+ * 按舰队组成（设计 → 数量、生命值/攻击力/装甲比例）估算两方交战的胜率和预期损失，不修改任何舰船。
+ * 先用兰彻斯特平方律的解析解判断，悬殊的战斗直接给出结果；势均力敌时按比例缩小双方规模，
+ * 用与 HexBattle 相同的规则做少量蒙特卡洛模拟。结果按双方组成缓存，同样的对局只计算一次。
+ */
+public final class BattleEstimator {
+
+    private static final int STATE_BUCKETS = 20;         // 生命值、攻击力、装甲相对设计值的比例按5%分档
+    private static final int MAX_STATE_BUCKET = 255;     // 每项档位占8位
+    private static final float DECISIVE_RATIO = 4.0f;    // 战斗力平方比超过此值视为悬殊，不再模拟
+    private static final int MONTE_CARLO_TRIALS = 16;
+    private static final int MONTE_CARLO_MAX_SHIPS = 160; // 模拟时双方合计的最大舰船数
+    private static final int MAX_CACHE_SIZE = 4096;
+
+    private static final BattleEstimator SHARED = new BattleEstimator();
+
+    private final Map<Matchup, Estimate> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 全局共享的预测器（AI 和界面共用缓存）
+     */
+    public static BattleEstimator shared() {
+        return SHARED;
+    }
+
+    /**
+     * 预测两组舰队交战的结果
+     */
+    public Estimate estimate(Collection<Fleet> attackers, Collection<Fleet> defenders) {
+        return estimate(Composition.of(attackers), Composition.of(defenders));
+    }
+
+    /**
+     * 预测两种舰队组成交战的结果
+     */
+    public Estimate estimate(Composition attacker, Composition defender) {
+        Matchup key = new Matchup(attacker, defender);
+        Estimate cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Estimate estimate = compute(attacker, defender);
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            cache.clear();
+        }
+        cache.put(key, estimate);
+        return estimate;
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    private Estimate compute(Composition a, Composition b) {
+        int a0 = a.getShipCount();
+        int b0 = b.getShipCount();
+        if (a0 == 0 || b0 == 0) {
+            // 一方没有舰船：有舰船的一方不战而胜
+            if (a0 > 0) return new Estimate(1, 0, 0, 0, 0, false);
+            if (b0 > 0) return new Estimate(0, 1, 0, 0, 0, false);
+            return new Estimate(0, 0, 0, 0, 0, false);
+        }
+
+        // 兰彻斯特系数：每艘舰船每回合击毁的敌舰数
+        float alpha = a.averageDamageAgainst(b) / b.getAverageHitPoints();
+        float beta = b.averageDamageAgainst(a) / a.getAverageHitPoints();
+        Estimate closedForm = lanchester(a0, b0, alpha, beta);
+
+        float ratio = (alpha * a0 * a0) / (beta * b0 * b0);
+        if (ratio >= DECISIVE_RATIO || ratio <= 1 / DECISIVE_RATIO) {
+            return closedForm;
+        }
+        return monteCarlo(a, b);
+    }
+
+    /**
+     * 兰彻斯特平方律 dA/dt = -βB, dB/dt = -αA 的解析解，最多 HexBattle.MAX_ROUNDS 回合
+     */
+    private static Estimate lanchester(int a0, int b0, float alpha, float beta) {
+        double gamma = Math.sqrt((double) alpha * beta);
+        double strengthA = (double) alpha * a0 * a0;
+        double strengthB = (double) beta * b0 * b0;
+        int maxRounds = HexBattle.MAX_ROUNDS;
+
+        if (strengthA > strengthB) {
+            // 攻击方获胜所需时间：tanh(γt) = γB0 / (αA0)，即 t = atanh(γB0 / (αA0)) / γ
+            double t = atanh(gamma * b0 / (alpha * a0)) / gamma;
+            if (t <= maxRounds) {
+                double survivors = Math.sqrt(a0 * (double) a0 - beta / alpha * b0 * (double) b0);
+                return new Estimate(1, 0, (float) (a0 - survivors), b0, (float) Math.ceil(t), false);
+            }
+        } else if (strengthB > strengthA) {
+            double t = atanh(gamma * a0 / (beta * b0)) / gamma;
+            if (t <= maxRounds) {
+                double survivors = Math.sqrt(b0 * (double) b0 - alpha / beta * a0 * (double) a0);
+                return new Estimate(0, 1, a0, (float) (b0 - survivors), (float) Math.ceil(t), false);
+            }
+        }
+
+        // 回合上限内无法分出胜负：按上限时刻的兵力计算损失
+        double cosh = Math.cosh(gamma * maxRounds);
+        double sinh = Math.sinh(gamma * maxRounds);
+        double aEnd = Math.max(0, a0 * cosh - beta / gamma * b0 * sinh);
+        double bEnd = Math.max(0, b0 * cosh - alpha / gamma * a0 * sinh);
+        return new Estimate(0, 0, (float) (a0 - aEnd), (float) (b0 - bEnd), maxRounds, false);
+    }
+
+    private static double atanh(double x) {
+        return x >= 1 ? Double.POSITIVE_INFINITY : 0.5 * Math.log((1 + x) / (1 - x));
+    }
+
+    /**
+     * 按比例缩小双方规模（平方律下胜负和损失比例不变），用 HexBattle 的规则模拟若干次
+     */
+    private static Estimate monteCarlo(Composition a, Composition b) {
+        int total = a.getShipCount() + b.getShipCount();
+        float scale = Math.min(1.0f, (float) MONTE_CARLO_MAX_SHIPS / total);
+
+        int[] aCounts = a.scaledCounts(scale);
+        int[] bCounts = b.scaledCounts(scale);
+        int aShips = Arrays.stream(aCounts).sum();
+        int bShips = Arrays.stream(bCounts).sum();
+        int units = aShips + bShips;
+
+        int wins = 0;
+        int losses = 0;
+        double aLost = 0;
+        double bLost = 0;
+        double rounds = 0;
+        long seed = 31L * a.hashCode() + b.hashCode();
+        for (int trial = 0; trial < MONTE_CARLO_TRIALS; trial++) {
+            float[] hitPoints = new float[units];
+            float[] attack = new float[units];
+            float[] armor = new float[units];
+            int[] side = new int[units];
+            int unit = a.fill(aCounts, 0, hitPoints, attack, armor, side, 0);
+            b.fill(bCounts, 1, hitPoints, attack, armor, side, unit);
+
+            HexBattle battle = new HexBattle(2, hitPoints, attack, armor, side, seed + trial);
+            battle.simulate();
+            int aLeft = battle.getSurvivors(0);
+            int bLeft = battle.getSurvivors(1);
+            if (bLeft == 0 && aLeft > 0) wins++;
+            if (aLeft == 0 && bLeft > 0) losses++;
+            aLost += aShips - aLeft;
+            bLost += bShips - bLeft;
+            rounds += battle.getRounds();
+        }
+
+        // 损失按缩放比例还原为实际舰船数
+        float trials = MONTE_CARLO_TRIALS;
+        return new Estimate(wins / trials, losses / trials,
+                (float) (aLost / trials * a.getShipCount() / aShips),
+                (float) (bLost / trials * b.getShipCount() / bShips),
+                (float) (rounds / trials), true);
+    }
+
+    /**
+     * 舰船设计的攻击力，与满状态舰船的 Ship.calculateDamageOutput() 相同
+     */
+    static float designDamage(ShipDesign design) {
+        float damage = design.calculateBaseDamage();
+        ModuleDefinition[] slots = design.getSlotDefinitions();
+        for (int slot : design.getWeaponSlots()) {
+            ModuleDefinition weapon = slots[slot];
+            if (weapon.usesAmmo() && weapon.getAmmoCapacity() <= 0) continue;
+            damage += weapon.getDamagePerSecond();
+        }
+        return damage;
+    }
+
+    /**
+     * 舰队组成：按（设计，生命值/攻击力/装甲比例档位）分组的舰船数量和平均属性，不可变，可作为缓存键。
+     * 弹药耗尽或装甲受损的舰船落在不同的档位，不会命中满状态舰队的缓存
+     */
+    public static final class Composition {
+
+        private final ShipDesign[] designs;
+        private final int[] versions;   // 设计属性版本，设计修改后不会命中旧缓存
+        private final int[] buckets;    // 状态档位：生命值、攻击力、装甲比例各8位
+        private final int[] counts;
+        private final float[] hitPoints;
+        private final float[] attack;
+        private final float[] armor;
+        private final int shipCount;
+        private final int hash;
+
+        private Composition(List<Group> groups) {
+            int n = groups.size();
+            designs = new ShipDesign[n];
+            versions = new int[n];
+            buckets = new int[n];
+            counts = new int[n];
+            hitPoints = new float[n];
+            attack = new float[n];
+            armor = new float[n];
+            int ships = 0;
+            int h = 1;
+            for (int i = 0; i < n; i++) {
+                Group g = groups.get(i);
+                designs[i] = g.design;
+                versions[i] = g.design.getStatsVersion();
+                buckets[i] = g.bucket;
+                counts[i] = g.count;
+                hitPoints[i] = (float) (g.hitPointsSum / g.count);
+                attack[i] = (float) (g.attackSum / g.count);
+                armor[i] = (float) (g.armorSum / g.count);
+                ships += g.count;
+                h = 31 * h + Objects.hash(System.identityHashCode(g.design), versions[i], g.bucket, g.count);
+            }
+            shipCount = ships;
+            hash = h;
+        }
+
+        /**
+         * 由舰队中的舰船（含编队）建立组成
+         */
+        public static Composition of(Collection<Fleet> fleets) {
+            Builder builder = new Builder();
+            for (Fleet fleet : fleets) {
+                for (Ship ship : fleet.getShipEntries()) {
+                    builder.addShip(ship, fleet.getStackSize(ship));
+                }
+            }
+            return builder.build();
+        }
+
+        public int getShipCount() { return shipCount; }
+
+        float getAverageHitPoints() {
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                sum += (double) counts[i] * hitPoints[i];
+            }
+            return (float) Math.max(1.0, sum / shipCount);
+        }
+
+        /**
+         * 本方一艘舰船对敌方随机目标的平均伤害（攻击力 - 目标装甲，至少为1）
+         */
+        float averageDamageAgainst(Composition enemy) {
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                for (int j = 0; j < enemy.counts.length; j++) {
+                    sum += (double) counts[i] * enemy.counts[j] * Math.max(1.0f, attack[i] - enemy.armor[j]);
+                }
+            }
+            return (float) (sum / ((double) shipCount * enemy.shipCount));
+        }
+
+        // 按比例缩小各组数量，每组至少保留一艘
+        int[] scaledCounts(float scale) {
+            int[] scaled = new int[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                scaled[i] = Math.max(1, Math.round(counts[i] * scale));
+            }
+            return scaled;
+        }
+
+        // 把各组展开为作战单位，返回下一个单位序号
+        int fill(int[] groupCounts, int sideIndex, float[] hp, float[] atk, float[] arm, int[] side, int unit) {
+            for (int i = 0; i < groupCounts.length; i++) {
+                for (int c = 0; c < groupCounts[i]; c++, unit++) {
+                    hp[unit] = hitPoints[i];
+                    atk[unit] = attack[i];
+                    arm[unit] = armor[i];
+                    side[unit] = sideIndex;
+                }
+            }
+            return unit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Composition)) return false;
+            Composition that = (Composition) o;
+            if (hash != that.hash || shipCount != that.shipCount || designs.length != that.designs.length) {
+                return false;
+            }
+            for (int i = 0; i < designs.length; i++) {
+                if (designs[i] != that.designs[i]) return false;
+            }
+            return Arrays.equals(versions, that.versions)
+                    && Arrays.equals(buckets, that.buckets)
+                    && Arrays.equals(counts, that.counts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * 组成构建器
+         */
+        public static final class Builder {
+            private final Map<GroupKey, Group> groups = new LinkedHashMap<>();
+
+            /**
+             * 加入若干艘指定设计的舰船
+             * @param hitPointFraction 生命值比例（0-1）
+             */
+            public Builder add(ShipDesign design, int count, float hitPointFraction) {
+                if (count <= 0) return this;
+                float fraction = Math.max(0, Math.min(1, hitPointFraction));
+                float damage = designDamage(design);
+                group(design, design.getHitPoints() * fraction, damage, design.getArmor())
+                        .add(count, design.getHitPoints() * fraction, damage, design.getArmor());
+                return this;
+            }
+
+            Builder addShip(Ship ship, int count) {
+                float hitPoints = ship.getHitPoints();
+                float damage = ship.calculateDamageOutput();
+                float armor = ship.getCurrentArmor();
+                group(ship.getDesign(), hitPoints, damage, armor).add(count, hitPoints, damage, armor);
+                return this;
+            }
+
+            private Group group(ShipDesign design, float hitPoints, float damage, float armor) {
+                int bucket = stateBucket(hitPoints, design.getHitPoints())
+                        | stateBucket(damage, designDamage(design)) << 8
+                        | stateBucket(armor, design.getArmor()) << 16;
+                return groups.computeIfAbsent(new GroupKey(design, bucket), k -> new Group(design, bucket));
+            }
+
+            // 当前值相对设计值的比例档位；生命值不超过设计值，攻击力和装甲可能因加成超过
+            private static int stateBucket(float value, float designValue) {
+                if (designValue <= 0) {
+                    return value > 0 ? MAX_STATE_BUCKET : 0;
+                }
+                return Math.min(MAX_STATE_BUCKET, Math.round(Math.max(0, value / designValue) * STATE_BUCKETS));
+            }
+
+            public Composition build() {
+                List<Group> sorted = new ArrayList<>(groups.values());
+                // 与加入顺序无关：同样的组成得到同样的键
+                sorted.sort(Comparator.comparingInt((Group g) -> System.identityHashCode(g.design))
+                        .thenComparingInt(g -> g.bucket));
+                return new Composition(sorted);
+            }
+        }
+    }
+
+    private static final class GroupKey {
+        private final ShipDesign design;
+        private final int bucket;
+
+        GroupKey(ShipDesign design, int bucket) {
+            this.design = design;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof GroupKey)) return false;
+            GroupKey that = (GroupKey) o;
+            return design == that.design && bucket == that.bucket;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(design) + bucket;
+        }
+    }
+
+    private static final class Group {
+        private final ShipDesign design;
+        private final int bucket;
+        private int count;
+        private double hitPointsSum;
+        private double attackSum;
+        private double armorSum;
+
+        Group(ShipDesign design, int bucket) {
+            this.design = design;
+            this.bucket = bucket;
+        }
+
+        void add(int n, float hitPoints, float attack, float armor) {
+            count += n;
+            hitPointsSum += (double) n * hitPoints;
+            attackSum += (double) n * attack;
+            armorSum += (double) n * armor;
+        }
+    }
+
+    private static final class Matchup {
+        private final Composition attacker;
+        private final Composition defender;
+
+        Matchup(Composition attacker, Composition defender) {
+            this.attacker = attacker;
+            this.defender = defender;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Matchup)) return false;
+            Matchup that = (Matchup) o;
+            return attacker.equals(that.attacker) && defender.equals(that.defender);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * attacker.hashCode() + defender.hashCode();
+        }
+    }
+
+    /**
+     * 预测结果（从攻击方的角度）
+     */
+    public static final class Estimate {
+        private final float winProbability;
+        private final float lossProbability;
+        private final float expectedAttackerLosses;
+        private final float expectedDefenderLosses;
+        private final float expectedRounds;
+        private final boolean simulated;
+
+        Estimate(float winProbability, float lossProbability, float expectedAttackerLosses,
+                 float expectedDefenderLosses, float expectedRounds, boolean simulated) {
+            this.winProbability = winProbability;
+            this.lossProbability = lossProbability;
+            this.expectedAttackerLosses = expectedAttackerLosses;
+            this.expectedDefenderLosses = expectedDefenderLosses;
+            this.expectedRounds = expectedRounds;
+            this.simulated = simulated;
+        }
+
+        /** 攻击方全歼对方的概率 */
+        public float getWinProbability() { return winProbability; }
+        /** 攻击方被全歼的概率 */
+        public float getLossProbability() { return lossProbability; }
+        /** 回合上限内未分胜负的概率 */
+        public float getDrawProbability() { return Math.max(0, 1 - winProbability - lossProbability); }
+        public float getExpectedAttackerLosses() { return expectedAttackerLosses; }
+        public float getExpectedDefenderLosses() { return expectedDefenderLosses; }
+        public float getExpectedRounds() { return expectedRounds; }
+        /** 是否经过蒙特卡洛模拟（否则为解析解） */
+        public boolean isSimulated() { return simulated; }
+
+        @Override
+        public String toString() {
+            return String.format("胜率 %.0f%%，预计损失 %.1f 艘，预计击毁 %.1f 艘",
+                    winProbability * 100, expectedAttackerLosses, expectedDefenderLosses);
+        }
+    }
+}
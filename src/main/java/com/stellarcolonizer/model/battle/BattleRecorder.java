@@ -0,0 +1,210 @@
+package com.stellarcolonizer.model.battle;
+
+import com.stellarcolonizer.model.faction.Faction;
+import com.stellarcolonizer.model.fleet.Ship;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 战斗回放记录
+ * 模拟时每次攻击只追加目标序号（4字节），每回合另记开火的起始单位；攻击方、伤害和是否击毁都由
+ * 开火顺序、单位属性和派系敌对矩阵确定（没有存活敌人的单位不开火），第一次读取时按 HexBattle 的规则解码为13字节的定长记录
+ * （回合与击毁标记1字节、攻击方4字节、目标4字节、伤害4字节），保存在可重复使用的 ByteBuffer 中，按序号随机访问。
+ * 同一个记录器可以依次记录多场战斗，每次开始记录时覆盖上一场。
+ */
+public final class BattleRecorder {
+
+    public static final int EVENT_BYTES = 13;
+    private static final int KILL_FLAG = 0x80; // 回合字节的最高位
+
+    // 模拟时写入
+    private int[] targets;
+    private int eventCount;
+    private final int[] roundFirstUnit = new int[HexBattle.MAX_ROUNDS + 1];
+    private final int[] roundStart = new int[HexBattle.MAX_ROUNDS + 2];
+    private int rounds;
+
+    // 作战单位信息（来自 HexBattle，开始记录时复制）
+    private int unitCount;
+    private int[] side = new int[0];
+    private float[] initialHitPoints = new float[0];
+    private float[] attack = new float[0];
+    private float[] armor = new float[0];
+    private Ship[] source = new Ship[0];
+    private List<Faction> factions = new ArrayList<>();
+    private boolean[][] hostile = new boolean[0][];
+
+    // 解码后的事件流
+    private ByteBuffer events;
+    private boolean decoded;
+
+    public BattleRecorder() {
+        this(16 * 1024);
+    }
+
+    /**
+     * @param initialEvents 预分配的攻击次数，不足时自动扩容
+     */
+    public BattleRecorder(int initialEvents) {
+        this.targets = new int[Math.max(16, initialEvents)];
+        this.events = ByteBuffer.allocate(targets.length * EVENT_BYTES);
+    }
+
+    /**
+     * 开始记录一场新的战斗，清空上一场的记录（缓冲区保留）
+     */
+    void begin(int unitCount, int[] side, float[] initialHitPoints, float[] attack, float[] armor,
+               Ship[] source, List<Faction> factions, boolean[][] hostile) {
+        this.unitCount = unitCount;
+        this.side = Arrays.copyOf(side, unitCount);
+        this.initialHitPoints = Arrays.copyOf(initialHitPoints, unitCount);
+        this.attack = Arrays.copyOf(attack, unitCount);
+        this.armor = Arrays.copyOf(armor, unitCount);
+        this.source = Arrays.copyOf(source, unitCount);
+        this.factions = new ArrayList<>(factions);
+        this.hostile = hostile;
+        this.eventCount = 0;
+        this.rounds = 0;
+        this.decoded = false;
+    }
+
+    /**
+     * 新回合开始，firstUnit 为本回合第一个开火的单位
+     */
+    void beginRound(int round, int firstUnit) {
+        rounds = round;
+        roundFirstUnit[round] = firstUnit;
+        roundStart[round] = eventCount;
+    }
+
+    /**
+     * 记录一次攻击的目标（模拟热路径，只写一个整数）
+     */
+    void record(int target) {
+        if (eventCount == targets.length) {
+            targets = Arrays.copyOf(targets, targets.length * 2);
+        }
+        targets[eventCount++] = target;
+    }
+
+    /**
+     * 按开火顺序重放，把目标序列解码为完整的事件记录
+     */
+    private void decode() {
+        if (decoded) {
+            return;
+        }
+        decoded = true;
+        if (events.capacity() < eventCount * EVENT_BYTES) {
+            events = ByteBuffer.allocate(targets.length * EVENT_BYTES);
+        }
+        events.clear();
+
+        float[] hitPoints = initialHitPoints.clone();
+        int sideCount = factions.size();
+        int[] enemiesAlive = new int[sideCount];
+        for (int u = 0; u < unitCount; u++) {
+            if (hitPoints[u] <= 0) continue;
+            for (int s = 0; s < sideCount; s++) {
+                if (hostile[s][side[u]]) enemiesAlive[s]++;
+            }
+        }
+        int event = 0;
+        for (int round = 1; round <= rounds; round++) {
+            int end = round < rounds ? roundStart[round + 1] : eventCount;
+            int u = roundFirstUnit[round];
+            // 与 HexBattle.simulate() 相同：从起始单位依次开火，跳过已被击毁和没有存活敌人的单位
+            while (event < end) {
+                if (hitPoints[u] > 0 && enemiesAlive[side[u]] > 0) {
+                    int target = targets[event];
+                    float damage = Math.max(1.0f, attack[u] - armor[target]);
+                    hitPoints[target] -= damage;
+                    boolean killed = hitPoints[target] <= 0;
+                    if (killed) {
+                        hitPoints[target] = 0;
+                        for (int s = 0; s < sideCount; s++) {
+                            if (hostile[s][side[target]]) enemiesAlive[s]--;
+                        }
+                    }
+                    events.put((byte) (killed ? round | KILL_FLAG : round));
+                    events.putInt(u);
+                    events.putInt(target);
+                    events.putFloat(damage);
+                    event++;
+                }
+                if (++u == unitCount) u = 0;
+            }
+        }
+    }
+
+    /**
+     * 解码后的事件流（只读），每条记录 EVENT_BYTES 字节
+     */
+    public ByteBuffer getEvents() {
+        decode();
+        ByteBuffer view = events.asReadOnlyBuffer();
+        view.position(0).limit(eventCount * EVENT_BYTES);
+        return view;
+    }
+
+    public int getEventCount() { return eventCount; }
+    public int getRounds() { return rounds; }
+    public int getUnitCount() { return unitCount; }
+    public int getSizeInBytes() { return eventCount * EVENT_BYTES; }
+
+    public int getRound(int event) { decode(); return events.get(event * EVENT_BYTES) & ~KILL_FLAG & 0xFF; }
+    public boolean isKill(int event) { decode(); return (events.get(event * EVENT_BYTES) & KILL_FLAG) != 0; }
+    public int getAttacker(int event) { decode(); return events.getInt(event * EVENT_BYTES + 1); }
+    public int getTarget(int event) { return targets[event]; }
+    public float getDamage(int event) { decode(); return events.getFloat(event * EVENT_BYTES + 9); }
+
+    /**
+     * 指定回合第一次攻击的序号（回合从1开始）
+     */
+    public int getRoundStart(int round) {
+        if (round <= 1) return 0;
+        if (round > rounds) return eventCount;
+        return roundStart[round];
+    }
+
+    public int getSide(int unit) { return side[unit]; }
+    public float getInitialHitPoints(int unit) { return initialHitPoints[unit]; }
+    public Ship getShip(int unit) { return source[unit]; }
+    public int getSideCount() { return factions.size(); }
+    public Faction getFaction(int sideIndex) { return factions.get(sideIndex); }
+
+    /**
+     * 回放前 eventIndex 次攻击，得到各单位的生命值
+     * @param hitPoints 输出数组，长度至少为单位数；可以重复使用
+     */
+    public void replay(int eventIndex, float[] hitPoints) {
+        System.arraycopy(initialHitPoints, 0, hitPoints, 0, unitCount);
+        int end = Math.min(eventIndex, eventCount);
+        for (int e = 0; e < end; e++) {
+            int target = getTarget(e);
+            hitPoints[target] = Math.max(0, hitPoints[target] - getDamage(e));
+        }
+    }
+
+    /**
+     * 回放前 eventIndex 次攻击后各阵营的存活舰船数
+     */
+    public int[] aliveBySide(int eventIndex) {
+        int[] alive = new int[factions.size()];
+        for (int u = 0; u < unitCount; u++) {
+            if (initialHitPoints[u] > 0) {
+                alive[side[u]]++;
+            }
+        }
+        int end = Math.min(eventIndex, eventCount);
+        for (int e = 0; e < end; e++) {
+            if (isKill(e)) {
+                alive[side[getTarget(e)]]--;
+            }
+        }
+        return alive;
+    }
+}
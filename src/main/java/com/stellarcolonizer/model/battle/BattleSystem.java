@@ -4,6 +4,7 @@ import com.stellarcolonizer.model.fleet.Fleet;
 import com.stellarcolonizer.model.fleet.Ship;
 import com.stellarcolonizer.model.faction.Faction;
 import com.stellarcolonizer.model.colony.Colony;
+import com.stellarcolonizer.model.diplomacy.DiplomaticRelationship;
 
 import java.util.*;
 
@@ -35,131 +36,79 @@ public class BattleSystem {
     }
     
     /**
-     * 开始战斗 - 已弃用，仅用于向后兼容
-     * @param hex 战斗发生的六边形
-     * @return 战斗结果
-     */
-    @Deprecated
-    public static BattleResult startBattle(com.stellarcolonizer.model.galaxy.Hex hex) {
-        // 如果需要处理六边形中的所有舰队，请使用新的方法
-        return null;
-    }
-    
-    /**
-     * 模拟战斗
-     * @param allShips 所有参与战斗的舰船
-     * @param factionsFleets 各派系的舰队
-     * @return 战斗结果
+     * 两个派系是否处于敌对状态（任一方将对方视为敌对即可）
      */
-    private static BattleResult simulateBattle(List<Ship> allShips, Map<Faction, List<Fleet>> factionsFleets) {
-        List<Ship> remainingShips = new ArrayList<>(allShips);
-        
-        // 战斗回合循环
-        int round = 0;
-        while (hasMultipleFactions(remainingShips) && round < 50) { // 最多50回合
-            // 每艘船进行一轮攻击
-            for (Ship attacker : new ArrayList<>(remainingShips)) {
-                if (!remainingShips.contains(attacker)) {
-                    continue; // 舰船已被摧毁
-                }
-                
-                // 选择目标
-                Ship target = selectTarget(attacker, remainingShips);
-                if (target != null) {
-                    // 攻击目标
-                    attacker.fireWeapons(target);
-                    
-                    // 检查目标是否被摧毁
-                    if (target.getHitPoints() <= 0) {
-                        remainingShips.remove(target);
-                    }
-                }
-            }
-            
-            round++;
+    public static boolean areHostile(Faction a, Faction b) {
+        if (a == null || b == null || a == b) {
+            return false;
         }
-        
-        // 确定胜利者
-        Faction winner = getWinningFaction(remainingShips);
-        
-        // 计算损失
-        Map<Faction, Integer> losses = calculateLosses(allShips, remainingShips);
-        
-        return new BattleResult(winner, round, losses);
+        return isHostileStatus(a.getRelationshipWith(b)) || isHostileStatus(b.getRelationshipWith(a));
     }
-    
+
+    private static boolean isHostileStatus(DiplomaticRelationship relationship) {
+        return relationship != null
+                && relationship.getStatus() == DiplomaticRelationship.RelationshipStatus.HOSTILE;
+    }
+
     /**
-     * 检查是否还有多个派系的舰船存活
-     * @param ships 舰船列表
-     * @return 是否还有多个派系的舰船存活
+     * 舰队中与至少一支其他舰队敌对的舰队（空舰队除外）；没有敌对关系时返回空列表。
+     * 同一场战斗中互不敌对的舰队不会互相攻击（见 HexBattle）
      */
-    private static boolean hasMultipleFactions(List<Ship> ships) {
-        Set<Faction> factions = new HashSet<>();
-        for (Ship ship : ships) {
-            factions.add(ship.getFaction());
-            if (factions.size() > 1) {
-                return true;
+    public static List<Fleet> collectCombatants(List<Fleet> fleets) {
+        if (fleets.size() < 2) {
+            return Collections.emptyList();
+        }
+        List<Fleet> combatants = new ArrayList<>();
+        for (Fleet fleet : fleets) {
+            if (fleet.getShipCount() == 0) continue;
+            for (Fleet other : fleets) {
+                if (other.getShipCount() > 0 && areHostile(fleet.getFaction(), other.getFaction())) {
+                    combatants.add(fleet);
+                    break;
+                }
             }
         }
-        return false;
+        return combatants;
     }
-    
+
     /**
-     * 选择攻击目标
-     * @param attacker 攻击者
-     * @param allShips 所有舰船
-     * @return 目标舰船
+     * 结算六边形中所有舰队的战斗，支持任意数量的派系（见 HexBattle）
+     * @param hex 战斗发生的六边形
+     * @return 战斗结果，没有敌对舰队时返回null
      */
-    private static Ship selectTarget(Ship attacker, List<Ship> allShips) {
-        // 选择敌对派系的舰船作为目标
-        for (Ship ship : allShips) {
-            if (ship != attacker && !ship.getFaction().equals(attacker.getFaction())) {
-                return ship;
-            }
-        }
-        return null;
+    public static BattleResult startBattle(com.stellarcolonizer.model.galaxy.Hex hex) {
+        return startBattle(hex, HexBattle.Targeting.RANDOM, System.nanoTime());
     }
-    
+
     /**
-     * 获取获胜派系
-     * @param remainingShips 剩余舰船
-     * @return 获胜派系
+     * 以指定的目标选择方式和随机种子结算六边形中的战斗
      */
-    private static Faction getWinningFaction(List<Ship> remainingShips) {
-        if (remainingShips.isEmpty()) {
-            return null; // 平局
-        }
-        
-        Faction faction = remainingShips.get(0).getFaction();
-        return faction;
+    public static BattleResult startBattle(com.stellarcolonizer.model.galaxy.Hex hex, HexBattle.Targeting targeting, long seed) {
+        return startBattle(hex, targeting, seed, null);
     }
-    
+
     /**
-     * 计算各派系的损失
-     * @param originalShips 原始舰船
-     * @param remainingShips 剩余舰船
-     * @return 损失统计
+     * 结算六边形中的战斗，并把每次攻击记录到回放记录器中（为null时不记录）
      */
-    private static Map<Faction, Integer> calculateLosses(List<Ship> originalShips, List<Ship> remainingShips) {
-        Map<Faction, Integer> originalCounts = new HashMap<>();
-        Map<Faction, Integer> remainingCounts = new HashMap<>();
-        
-        for (Ship ship : originalShips) {
-            originalCounts.merge(ship.getFaction(), 1, Integer::sum);
+    public static BattleResult startBattle(com.stellarcolonizer.model.galaxy.Hex hex, HexBattle.Targeting targeting, long seed,
+                                           BattleRecorder recorder) {
+        if (hex == null || !hasEnemiesInHex(hex)) {
+            return null;
         }
-        
-        for (Ship ship : remainingShips) {
-            remainingCounts.merge(ship.getFaction(), 1, Integer::sum);
+        // 只有与其他舰队敌对的舰队参战，同一六边形中的中立舰队不受影响
+        List<Fleet> combatants = collectCombatants(hex.getFleets());
+        if (combatants.isEmpty()) {
+            return null;
         }
-        
-        Map<Faction, Integer> losses = new HashMap<>();
-        for (Faction faction : originalCounts.keySet()) {
-            int originalCount = originalCounts.get(faction);
-            int remainingCount = remainingCounts.getOrDefault(faction, 0);
-            losses.put(faction, originalCount - remainingCount);
-        }
-        
-        return losses;
+
+        long start = System.nanoTime();
+        HexBattle battle = new HexBattle(combatants, targeting, seed);
+        battle.setRecorder(recorder);
+        BattleResult result = battle.resolve();
+        System.out.println("六边形战斗结束: " + battle.getFactions().size() + " 个派系，" + battle.getUnitCount()
+                + " 艘舰船，" + battle.getRounds() + " 回合，用时 "
+                + String.format("%.2f", (System.nanoTime() - start) / 1_000_000.0) + " ms");
+        return result;
     }
     
     /**
@@ -169,20 +118,22 @@ public class BattleSystem {
      */
     private static void updateFleetsAfterBattle(List<Fleet> fleets, BattleResult result) {
         for (Fleet fleet : fleets) {
-            // 从舰队中移除被摧毁的舰船
-            fleet.getShips().removeIf(ship -> ship.getHitPoints() <= 0);
+            // 伤害分配时已批量移除被击毁的舰船，这里只清理其他途径残留的，一次提交
+            fleet.beginCasualties();
+            for (Ship ship : fleet.getShips()) {
+                if (ship.getHitPoints() <= 0) {
+                    fleet.removeDestroyed(ship);
+                }
+            }
+            fleet.commitCasualties();
             
             // 更新舰队统计 - 使用公共方法替代私有方法
             fleet.updateFleetStats();
             
             // 检查舰队是否被完全摧毁（没有舰船了）
             if (fleet.getShipCount() == 0) {
-                // 如果舰队被完全摧毁，从当前六边形中移除
-                if (fleet.getCurrentHex() != null) {
-                    fleet.getCurrentHex().removeEntity(fleet);
-                    // 设置当前六边形为null，表示舰队已被摧毁
-                    fleet.setCurrentHex(null);
-                }
+                // 如果舰队被完全摧毁，从当前六边形和派系舰队登记中移除
+                fleet.destroy();
             }
         }
     }
@@ -333,25 +284,8 @@ public class BattleSystem {
      * @param damage 总伤害
      */
     private static void performDamageToShips(Fleet fleet, float damage) {
-        List<Ship> ships = new ArrayList<>(fleet.getShips());
-        
-        // 按顺序对舰船造成伤害
-        for (Ship ship : ships) {
-            if (damage <= 0) break; // 如果伤害已经分配完，则停止
-            
-            float shipHitPoints = ship.getHitPoints();
-            float damageToApply = Math.min(damage, shipHitPoints);
-            
-            // 减少舰船的生命值
-            ship.hitPointsProperty().set(shipHitPoints - damageToApply);
-            
-            // 如果舰船生命值降至0或以下，则移除该舰船
-            if (ship.getHitPoints() <= 0) {
-                fleet.getShips().remove(ship);
-            }
-            
-            damage -= damageToApply;
-        }
+        // 按顺序对舰船造成伤害，编队按数量整艘扣减（见 Fleet.distributeDamage）
+        fleet.distributeDamage(damage);
     }
     
     /**
@@ -410,11 +344,7 @@ public class BattleSystem {
      * @return 总生命值
      */
     private static float calculateTotalHealth(Fleet fleet) {
-        float totalHealth = 0;
-        for (Ship ship : fleet.getShips()) {
-            totalHealth += ship.getHitPoints();
-        }
-        return totalHealth;
+        return fleet.getCurrentHitPoints();
     }
     
     /**
@@ -432,11 +362,8 @@ public class BattleSystem {
         float totalAttackDamage = attacker.getTotalCombatPower();
         
         // 计算防守方的总装甲值
-        float totalDefense = 0;
-        for (Ship ship : defender.getShips()) {
-            // 假设舰船的装甲值可以通过设计获取
-            totalDefense += ship.getDesign().getArmor(); // 使用舰船设计的装甲值
-        }
+        // 使用舰船设计的装甲值（含编队）
+        float totalDefense = defender.getTotalArmor();
         
         // 实际造成的伤害
         float actualDamage = Math.max(0, totalAttackDamage - totalDefense);
@@ -453,58 +380,7 @@ public class BattleSystem {
      * @param damage 总伤害
      */
     private static void distributeDamage(Fleet fleet, float damage) {
-        List<Ship> ships = new ArrayList<>(fleet.getShips());
-        
-        // 按顺序对舰船造成伤害
-        for (Ship ship : ships) {
-            if (damage <= 0) break; // 如果伤害已经分配完，则停止
-            
-            float shipHitPoints = ship.getHitPoints();
-            float damageToApply = Math.min(damage, shipHitPoints);
-            
-            // 减少舰船的生命值
-            ship.hitPointsProperty().set(shipHitPoints - damageToApply);
-            
-            // 如果舰船生命值降至0或以下，则移除该舰船
-            if (ship.getHitPoints() <= 0) {
-                fleet.getShips().remove(ship);
-            }
-            
-            damage -= damageToApply;
-        }
-    }
-    
-    /**
-     * 计算两个派系的损失
-     * @param originalShips 原始舰船
-     * @param remainingShips 剩余舰船
-     * @param faction1 第一个派系
-     * @param faction2 第二个派系
-     * @return 损失统计
-     */
-    private static Map<Faction, Integer> calculateLosses(List<Ship> originalShips, List<Ship> remainingShips, Faction faction1, Faction faction2) {
-        Map<Faction, Integer> originalCounts = new HashMap<>();
-        Map<Faction, Integer> remainingCounts = new HashMap<>();
-        
-        for (Ship ship : originalShips) {
-            if (ship.getFaction().equals(faction1) || ship.getFaction().equals(faction2)) {
-                originalCounts.merge(ship.getFaction(), 1, Integer::sum);
-            }
-        }
-        
-        for (Ship ship : remainingShips) {
-            if (ship.getFaction().equals(faction1) || ship.getFaction().equals(faction2)) {
-                remainingCounts.merge(ship.getFaction(), 1, Integer::sum);
-            }
-        }
-        
-        Map<Faction, Integer> losses = new HashMap<>();
-        for (Faction faction : originalCounts.keySet()) {
-            int originalCount = originalCounts.get(faction);
-            int remainingCount = remainingCounts.getOrDefault(faction, 0);
-            losses.put(faction, originalCount - remainingCount);
-        }
-        
-        return losses;
+        // 按顺序对舰船造成伤害，编队按数量整艘扣减（见 Fleet.distributeDamage）
+        fleet.distributeDamage(damage);
     }
 }
\ No newline at end of file
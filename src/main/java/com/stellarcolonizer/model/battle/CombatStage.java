@@ -0,0 +1,122 @@
+package com.stellarcolonizer.model.battle;
+
+import com.stellarcolonizer.model.faction.Faction;
+import com.stellarcolonizer.model.fleet.Fleet;
+import com.stellarcolonizer.model.galaxy.CubeCoord;
+import com.stellarcolonizer.model.galaxy.FleetRegistry;
+import com.stellarcolonizer.model.galaxy.Galaxy;
+import com.stellarcolonizer.model.galaxy.Hex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 回合战斗阶段
+ * 移动阶段之后，从舰队占用索引一次遍历找出有敌对舰队的六边形；同一六边形的参战舰队进入同一场战斗，
+ * 按派系敌对矩阵选择目标，同一阵营的盟友（例如都与第三方交战）不会互相攻击。
+ * 不同六边形的战斗互不影响，在 ForkJoinPool 上并行模拟，每场战斗按（回合种子，六边形坐标）
+ * 得到独立的随机数流，结果与线程调度无关。伤亡写回和舰队销毁在调用线程上按六边形顺序执行。
+ */
+public class CombatStage {
+
+    /**
+     * 一场六边形战斗的记录
+     */
+    public static class BattleReport {
+        private final Hex hex;
+        private final BattleResult result;
+        private final List<Faction> factions;
+        private final int shipCount;
+
+        BattleReport(Hex hex, HexBattle battle) {
+            this.hex = hex;
+            this.result = battle.getResult();
+            this.factions = battle.getFactions();
+            this.shipCount = battle.getUnitCount();
+        }
+
+        public Hex getHex() { return hex; }
+        public BattleResult getResult() { return result; }
+        public List<Faction> getFactions() { return Collections.unmodifiableList(factions); }
+        public int getShipCount() { return shipCount; }
+    }
+
+    private final ForkJoinPool pool;
+    private HexBattle.Targeting targeting = HexBattle.Targeting.RANDOM;
+
+    public CombatStage() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CombatStage(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 结算本回合所有有敌对舰队的六边形
+     * @param galaxy 银河系
+     * @param turnSeed 回合随机种子，相同的种子和局面得到相同的结果
+     * @return 各场战斗的记录，按占用索引的顺序排列
+     */
+    public List<BattleReport> resolveBattles(Galaxy galaxy, long turnSeed) {
+        FleetRegistry registry = galaxy.getFleetRegistry();
+        if (registry == null) {
+            return Collections.emptyList();
+        }
+
+        long start = System.nanoTime();
+
+        // 一次遍历占用索引，收集有敌对舰队的六边形；战斗在调用线程上建立（读取舰船状态）
+        List<Hex> hexes = new ArrayList<>();
+        List<HexBattle> battles = new ArrayList<>();
+        for (Hex hex : registry.getOccupiedHexes()) {
+            List<Fleet> combatants = BattleSystem.collectCombatants(hex.getFleetsView());
+            if (!combatants.isEmpty()) {
+                hexes.add(hex);
+                battles.add(new HexBattle(combatants, targeting, battleSeed(turnSeed, hex)));
+            }
+        }
+        if (battles.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 并行模拟，只有一场战斗时直接在当前线程执行
+        if (battles.size() == 1) {
+            battles.get(0).simulate();
+        } else {
+            List<ForkJoinTask<BattleResult>> tasks = new ArrayList<>(battles.size());
+            for (HexBattle battle : battles) {
+                tasks.add(pool.submit(battle::simulate));
+            }
+            for (ForkJoinTask<BattleResult> task : tasks) {
+                task.join();
+            }
+        }
+
+        // 按顺序写回伤亡
+        List<BattleReport> reports = new ArrayList<>(battles.size());
+        int ships = 0;
+        for (int i = 0; i < battles.size(); i++) {
+            HexBattle battle = battles.get(i);
+            battle.applyCasualties();
+            reports.add(new BattleReport(hexes.get(i), battle));
+            ships += battle.getUnitCount();
+        }
+
+        System.out.println("战斗阶段: " + reports.size() + " 场战斗，" + ships + " 艘舰船参战，用时 "
+                + String.format("%.2f", (System.nanoTime() - start) / 1_000_000.0) + " ms");
+        return reports;
+    }
+
+    // 由回合种子和六边形坐标得到每场战斗独立的随机种子
+    private static long battleSeed(long turnSeed, Hex hex) {
+        CubeCoord coord = hex.getCoord();
+        return turnSeed ^ (coord.q * 0x9E3779B97F4A7C15L) ^ (coord.r * 0xC2B2AE3D27D4EB4FL);
+    }
+
+    public HexBattle.Targeting getTargeting() { return targeting; }
+    public void setTargeting(HexBattle.Targeting targeting) { this.targeting = targeting; }
+}
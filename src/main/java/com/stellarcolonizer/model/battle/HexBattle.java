@@ -0,0 +1,451 @@
+package com.stellarcolonizer.model.battle;
+
+import com.stellarcolonizer.model.faction.Faction;
+import com.stellarcolonizer.model.fleet.Fleet;
+import com.stellarcolonizer.model.fleet.Ship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 六边形战斗引擎
+ * 同一六边形中任意数量派系的全部舰队一起结算。舰船（包括编队中的每一艘）展开为基本类型数组，
+ * 每个派系的存活舰船保存在交换删除的数组池中，随机目标 O(1) 选取；
+ * 集火模式下数组池按生命值维护为最小堆，堆顶即最弱的目标。
+ * 派系之间的敌对关系在建立战斗时按 BattleSystem.areHostile 计算为矩阵，舰船只向敌对派系开火，
+ * 没有存活的敌对派系组合时战斗结束（盟友或中立派系可以一起存活）。
+ * 模拟过程中不修改舰队和舰船（不同六边形的战斗可以并行模拟），之后一次性写回伤亡。
+ */
+public final class HexBattle {
+
+    /**
+     * 目标选择方式
+     */
+    public enum Targeting {
+        RANDOM("随机"),
+        FOCUS_FIRE("集火");
+
+        private final String displayName;
+
+        Targeting(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() { return displayName; }
+    }
+
+    public static final int MAX_ROUNDS = 50; // 最多50回合
+
+    private final List<Fleet> fleets;
+    private final List<Faction> factions = new ArrayList<>();
+    private final Targeting targeting;
+    private final SplittableRandom random;
+
+    // 作战单位（每艘舰船一个）
+    private final int unitCount;
+    private final float[] hitPoints;
+    private final float[] initialHitPoints;
+    private final float[] attack;
+    private final float[] armor;
+    private final int[] side;          // 派系序号
+    private final Ship[] source;       // 独立舰船或编队的代表舰
+    private final boolean[] stacked;   // 是否来自编队
+    private final int[] fleetStart;    // 各舰队的第一个单位，长度为舰队数+1
+
+    // 各派系的存活单位池：交换删除，poolPos 记录单位在池中的位置
+    private final int[][] alive;
+    private final int[] aliveCount;
+    private final int[] poolPos;
+    private int totalAlive;
+
+    // 派系敌对矩阵，enemiesAlive[s] 为与 s 敌对的存活单位数，engagedSides 为仍有存活敌人的存活派系数
+    private boolean[][] hostile;
+    private int[] enemiesAlive;
+    private int engagedSides;
+
+    private int rounds;
+    private BattleResult result;
+    private boolean casualtiesApplied;
+    private BattleRecorder recorder;   // 为null时不记录
+
+    public HexBattle(List<Fleet> fleets, Targeting targeting, long seed) {
+        this.fleets = new ArrayList<>(fleets);
+        this.targeting = targeting;
+        this.random = new SplittableRandom(seed);
+
+        int total = 0;
+        for (Fleet fleet : this.fleets) {
+            total += fleet.getShipCount();
+        }
+        unitCount = total;
+        hitPoints = new float[total];
+        initialHitPoints = new float[total];
+        attack = new float[total];
+        armor = new float[total];
+        side = new int[total];
+        source = new Ship[total];
+        stacked = new boolean[total];
+        fleetStart = new int[this.fleets.size() + 1];
+        poolPos = new int[total];
+
+        // 展开舰船，编队中的每一艘都是独立的作战单位
+        int unit = 0;
+        int[] countBySide = new int[this.fleets.size()];
+        for (int f = 0; f < this.fleets.size(); f++) {
+            Fleet fleet = this.fleets.get(f);
+            int factionIndex = factions.indexOf(fleet.getFaction());
+            if (factionIndex < 0) {
+                factionIndex = factions.size();
+                factions.add(fleet.getFaction());
+            }
+            fleetStart[f] = unit;
+            for (Ship ship : fleet.getShipEntries()) {
+                int count = fleet.getStackSize(ship);
+                boolean fromStack = fleet.isStackRepresentative(ship);
+                float damage = ship.calculateDamageOutput();
+                for (int i = 0; i < count && unit < total; i++, unit++) {
+                    hitPoints[unit] = ship.getHitPoints();
+                    initialHitPoints[unit] = ship.getHitPoints();
+                    attack[unit] = damage;
+                    armor[unit] = ship.getCurrentArmor();
+                    side[unit] = factionIndex;
+                    source[unit] = ship;
+                    stacked[unit] = fromStack;
+                }
+            }
+            countBySide[factionIndex] += unit - fleetStart[f];
+        }
+        fleetStart[this.fleets.size()] = unit;
+
+        int sideCount = factions.size();
+        hostile = new boolean[sideCount][sideCount];
+        for (int a = 0; a < sideCount; a++) {
+            for (int b = a + 1; b < sideCount; b++) {
+                boolean h = BattleSystem.areHostile(factions.get(a), factions.get(b));
+                hostile[a][b] = h;
+                hostile[b][a] = h;
+            }
+        }
+        alive = new int[sideCount][];
+        aliveCount = new int[sideCount];
+        buildPools(countBySide);
+    }
+
+    /**
+     * 不关联舰队的战斗，用于战斗预测（见 BattleEstimator）；只能模拟，不能写回，各阵营两两敌对
+     * @param side 各单位的阵营序号，从0开始
+     */
+    HexBattle(int sideCount, float[] hitPoints, float[] attack, float[] armor, int[] side, long seed) {
+        this.fleets = new ArrayList<>();
+        this.targeting = Targeting.RANDOM;
+        this.random = new SplittableRandom(seed);
+        this.unitCount = hitPoints.length;
+        this.hitPoints = hitPoints;
+        this.initialHitPoints = hitPoints.clone();
+        this.attack = attack;
+        this.armor = armor;
+        this.side = side;
+        this.source = new Ship[unitCount];
+        this.stacked = new boolean[unitCount];
+        this.fleetStart = new int[]{0};
+        this.poolPos = new int[unitCount];
+
+        int[] countBySide = new int[sideCount];
+        for (int u = 0; u < unitCount; u++) {
+            countBySide[side[u]]++;
+        }
+        for (int s = 0; s < sideCount; s++) {
+            factions.add(null);
+        }
+        hostile = new boolean[sideCount][sideCount];
+        for (int a = 0; a < sideCount; a++) {
+            for (int b = 0; b < sideCount; b++) {
+                hostile[a][b] = a != b;
+            }
+        }
+        alive = new int[sideCount][];
+        aliveCount = new int[sideCount];
+        buildPools(countBySide);
+    }
+
+    // 建立各派系的存活单位池
+    private void buildPools(int[] countBySide) {
+        for (int s = 0; s < alive.length; s++) {
+            alive[s] = new int[countBySide[s]];
+        }
+        for (int u = 0; u < unitCount; u++) {
+            if (hitPoints[u] <= 0) continue;
+            int s = side[u];
+            poolPos[u] = aliveCount[s];
+            alive[s][aliveCount[s]++] = u;
+            totalAlive++;
+        }
+        for (int s = 0; s < alive.length; s++) {
+            if (targeting == Targeting.FOCUS_FIRE) {
+                for (int p = aliveCount[s] / 2 - 1; p >= 0; p--) {
+                    siftDown(s, p);
+                }
+            }
+        }
+        enemiesAlive = new int[alive.length];
+        for (int s = 0; s < alive.length; s++) {
+            for (int f = 0; f < alive.length; f++) {
+                if (hostile[s][f]) {
+                    enemiesAlive[s] += aliveCount[f];
+                }
+            }
+        }
+        countEngagedSides();
+    }
+
+    // 仍有存活敌人的存活派系数，为0时战斗结束
+    private void countEngagedSides() {
+        int engaged = 0;
+        for (int s = 0; s < alive.length; s++) {
+            if (aliveCount[s] > 0 && enemiesAlive[s] > 0) {
+                engaged++;
+            }
+        }
+        engagedSides = engaged;
+    }
+
+    /**
+     * 结算战斗并写回伤亡；已经调用过 simulate() 时只写回伤亡
+     * @return 战斗结果，伤亡已经写回过时返回null
+     */
+    public BattleResult resolve() {
+        if (casualtiesApplied) {
+            return null;
+        }
+        BattleResult battleResult = simulate();
+        applyCasualties();
+        return battleResult;
+    }
+
+    /**
+     * 只模拟战斗，不修改舰队；同一场战斗重复调用返回同一结果
+     */
+    public BattleResult simulate() {
+        if (result != null) {
+            return result;
+        }
+
+        if (recorder != null) {
+            recorder.begin(unitCount, side, initialHitPoints, attack, armor, source, factions, hostile);
+        }
+        while (engagedSides > 0 && rounds < MAX_ROUNDS) {
+            rounds++;
+            // 每回合从随机位置开始依次开火，避免固定的先手优势
+            int start = random.nextInt(unitCount);
+            if (recorder != null) {
+                recorder.beginRound(rounds, start);
+            }
+            for (int k = 0; k < unitCount && engagedSides > 0; k++) {
+                int u = start + k;
+                if (u >= unitCount) u -= unitCount;
+                if (hitPoints[u] <= 0) continue;
+
+                int target = selectTarget(side[u]);
+                if (target >= 0) {
+                    strike(u, target);
+                }
+            }
+        }
+
+        // 没有存活的敌对组合时战斗分出胜负：存活舰船最多的派系为胜者（盟友可能一起存活）
+        Map<Faction, Integer> losses = new HashMap<>();
+        Faction winner = null;
+        int winnerSurvivors = 0;
+        for (int s = 0; s < factions.size(); s++) {
+            if (factions.get(s) == null) continue; // 预测用的战斗没有派系
+            losses.put(factions.get(s), alive[s].length - aliveCount[s]);
+            if (engagedSides == 0 && aliveCount[s] > winnerSurvivors) {
+                winner = factions.get(s);
+                winnerSurvivors = aliveCount[s];
+            }
+        }
+
+        result = new BattleResult(winner, rounds, losses);
+        return result;
+    }
+
+    /**
+     * 为派系 s 的舰船选择敌对派系的目标，没有存活的敌人时返回-1
+     */
+    private int selectTarget(int s) {
+        int enemies = enemiesAlive[s];
+        if (enemies <= 0) {
+            return -1;
+        }
+        boolean[] enemy = hostile[s];
+        if (targeting == Targeting.FOCUS_FIRE) {
+            // 各敌对派系的堆顶中生命值最低的
+            int best = -1;
+            for (int f = 0; f < aliveCount.length; f++) {
+                if (!enemy[f] || aliveCount[f] == 0) continue;
+                int candidate = alive[f][0];
+                if (best < 0 || hitPoints[candidate] < hitPoints[best]) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+        // 在所有敌对派系的存活舰船中均匀随机选取
+        int r = random.nextInt(enemies);
+        for (int f = 0; f < aliveCount.length; f++) {
+            if (!enemy[f]) continue;
+            if (r < aliveCount[f]) {
+                return alive[f][r];
+            }
+            r -= aliveCount[f];
+        }
+        return -1;
+    }
+
+    // 造成的伤害 = 攻击力 - 目标装甲，至少为1
+    private void strike(int attacker, int target) {
+        float damage = Math.max(1.0f, attack[attacker] - armor[target]);
+        hitPoints[target] -= damage;
+        if (hitPoints[target] <= 0) {
+            hitPoints[target] = 0;
+            kill(target);
+        } else if (targeting == Targeting.FOCUS_FIRE) {
+            siftUp(side[target], poolPos[target]);
+        }
+        if (recorder != null) {
+            recorder.record(target); // 攻击方、伤害和击毁可由开火顺序推出
+        }
+    }
+
+    // 从派系池中交换删除，不移动其他元素
+    private void kill(int unit) {
+        int s = side[unit];
+        int p = poolPos[unit];
+        int last = alive[s][--aliveCount[s]];
+        alive[s][p] = last;
+        poolPos[last] = p;
+        if (targeting == Targeting.FOCUS_FIRE && p < aliveCount[s]) {
+            siftDown(s, p);
+            siftUp(s, poolPos[last]);
+        }
+        totalAlive--;
+        boolean changed = aliveCount[s] == 0;
+        for (int f = 0; f < enemiesAlive.length; f++) {
+            if (hostile[f][s] && --enemiesAlive[f] == 0) {
+                changed = true;
+            }
+        }
+        if (changed) {
+            countEngagedSides();
+        }
+    }
+
+    private void siftUp(int s, int p) {
+        int[] pool = alive[s];
+        int unit = pool[p];
+        while (p > 0) {
+            int parent = (p - 1) >> 1;
+            if (hitPoints[pool[parent]] <= hitPoints[unit]) break;
+            pool[p] = pool[parent];
+            poolPos[pool[p]] = p;
+            p = parent;
+        }
+        pool[p] = unit;
+        poolPos[unit] = p;
+    }
+
+    private void siftDown(int s, int p) {
+        int[] pool = alive[s];
+        int size = aliveCount[s];
+        int unit = pool[p];
+        while (true) {
+            int child = 2 * p + 1;
+            if (child >= size) break;
+            if (child + 1 < size && hitPoints[pool[child + 1]] < hitPoints[pool[child]]) {
+                child++;
+            }
+            if (hitPoints[pool[child]] >= hitPoints[unit]) break;
+            pool[p] = pool[child];
+            poolPos[pool[p]] = p;
+            p = child;
+        }
+        pool[p] = unit;
+        poolPos[unit] = p;
+    }
+
+    /**
+     * 把模拟的伤亡写回舰队：独立舰船批量移除，编队按数量扣减并展开受损的舰船，每个舰队的舰船列表只变更一次。
+     * 会修改舰队、六边形和舰队登记，只能在模拟完成后由游戏线程调用一次
+     */
+    public void applyCasualties() {
+        if (result == null || casualtiesApplied) {
+            return;
+        }
+        casualtiesApplied = true;
+
+        float[] stackDamage = new float[16];
+        for (int f = 0; f < fleets.size(); f++) {
+            Fleet fleet = fleets.get(f);
+            fleet.beginCasualties(); // 舰船列表的增删在提交时作为一次变更事件
+
+            int u = fleetStart[f];
+            int end = fleetStart[f + 1];
+            while (u < end) {
+                Ship ship = source[u];
+                if (!stacked[u]) {
+                    float lost = initialHitPoints[u] - hitPoints[u];
+                    if (lost > 0) {
+                        fleet.applyDamage(ship, lost);
+                    }
+                    if (hitPoints[u] <= 0) {
+                        fleet.removeDestroyed(ship);
+                    }
+                    u++;
+                    continue;
+                }
+
+                // 同一编队的单位是连续的
+                int destroyedCount = 0;
+                int damagedCount = 0;
+                for (; u < end && source[u] == ship; u++) {
+                    if (hitPoints[u] <= 0) {
+                        destroyedCount++;
+                    } else if (hitPoints[u] < initialHitPoints[u]) {
+                        if (damagedCount == stackDamage.length) {
+                            stackDamage = Arrays.copyOf(stackDamage, damagedCount * 2);
+                        }
+                        stackDamage[damagedCount++] = initialHitPoints[u] - hitPoints[u];
+                    }
+                }
+                fleet.applyStackCasualties(ship, destroyedCount, stackDamage, damagedCount);
+            }
+
+            fleet.commitCasualties();
+            fleet.updateFleetStats();
+            if (fleet.getShipCount() == 0) {
+                // 舰队被完全摧毁，从六边形和派系舰队登记中移除
+                fleet.destroy();
+            }
+        }
+    }
+
+    /**
+     * 阵营的存活舰船数（模拟后）
+     */
+    int getSurvivors(int sideIndex) { return aliveCount[sideIndex]; }
+
+    public BattleResult getResult() { return result; }
+    public int getUnitCount() { return unitCount; }
+    public int getRounds() { return rounds; }
+    public Targeting getTargeting() { return targeting; }
+
+    /**
+     * 设置回放记录器，需在模拟前调用；为null时不记录
+     */
+    public void setRecorder(BattleRecorder recorder) { this.recorder = recorder; }
+    public List<Faction> getFactions() { return new ArrayList<>(factions); }
+}
@@ -62,8 +62,8 @@ public class BasicBuilding extends Building {
     @Override
     protected void initializeMaintenanceCosts() {
         // 下调维护费 - 降低初始维护成本
-        maintenanceCosts.put(ResourceType.ENERGY, 2.0f * level.get()); // 维护费按等级线性增长，从5下调到2
-        maintenanceCosts.put(ResourceType.METAL, 0.5f * level.get()); // 维护费按等级线性增长，从1下调到0.5
+        maintenanceCosts.set(ResourceType.ENERGY, 2.0f * level.get()); // 维护费按等级线性增长，从5下调到2
+        maintenanceCosts.set(ResourceType.METAL, 0.5f * level.get()); // 维护费按等级线性增长，从1下调到0.5
     }
 
     private void initializeBonuses() {
@@ -106,6 +106,11 @@ public class BasicBuilding extends Building {
         return new EnumMap<>(productionBonuses);
     }
 
+    @Override
+    public float getProductionBonus(ResourceType type) {
+        return productionBonuses.getOrDefault(type, 0f);
+    }
+
     @Override
     public float getProductionEfficiency(ResourceType type) {
         return efficiencyBonuses.getOrDefault(type, 1.0f);
@@ -2,6 +2,7 @@
 package com.stellarcolonizer.model.colony;
 
 import com.stellarcolonizer.model.colony.enums.BuildingType;
+import com.stellarcolonizer.model.economy.ResourceVector;
 import com.stellarcolonizer.model.galaxy.enums.ResourceType;
 import com.stellarcolonizer.model.technology.Technology;
 import javafx.beans.property.*;
@@ -16,7 +17,7 @@ public abstract class Building {
     protected final IntegerProperty maxLevel;
     protected final BooleanProperty isActive;
 
-    protected final Map<ResourceType, Float> maintenanceCosts;
+    protected final ResourceVector maintenanceCosts;
 
     protected List<ResourceRequirement> constructionRequirements;
     protected String requiredTechnology;
@@ -27,7 +28,7 @@ public abstract class Building {
         this.level = new SimpleIntegerProperty(1);
         this.maxLevel = new SimpleIntegerProperty(maxLevel);
         this.isActive = new SimpleBooleanProperty(true);
-        this.maintenanceCosts = new EnumMap<>(ResourceType.class);
+        this.maintenanceCosts = new ResourceVector();
         this.constructionRequirements = new ArrayList<>();
 
         initializeRequirements();
@@ -39,6 +40,12 @@ public abstract class Building {
 
     // 建筑效果
     public abstract Map<ResourceType, Float> getProductionBonuses();
+
+    // 单项产出加成，子类可以重写以避免复制整个加成表
+    public float getProductionBonus(ResourceType type) {
+        return getProductionBonuses().getOrDefault(type, 0f);
+    }
+
     public abstract float getProductionEfficiency(ResourceType type);
     public abstract void applyEffects(Colony colony);
 
@@ -84,19 +91,11 @@ public abstract class Building {
     }
 
     private boolean checkMaintenance(Colony colony) {
-        for (Map.Entry<ResourceType, Float> entry : maintenanceCosts.entrySet()) {
-            float available = colony.getResourceStockpile().getResource(entry.getKey());
-            if (available < entry.getValue()) {
-                return false;
-            }
-        }
-        return true;
+        return colony.getResourceStockpile().canAfford(maintenanceCosts);
     }
 
     private void payMaintenance(Colony colony) {
-        for (Map.Entry<ResourceType, Float> entry : maintenanceCosts.entrySet()) {
-            colony.getResourceStockpile().consumeResource(entry.getKey(), entry.getValue());
-        }
+        colony.getResourceStockpile().consumeResources(maintenanceCosts);
     }
 
     // Getter 方法
@@ -121,8 +120,11 @@ public abstract class Building {
     public String getRequiredTechnology() { return requiredTechnology; }
 
     public float getMaintenanceCost(ResourceType type) {
-        return maintenanceCosts.getOrDefault(type, 0f);
+        return maintenanceCosts.get(type);
     }
+
+    // 维护费向量（只读）
+    public ResourceVector getMaintenanceCosts() { return maintenanceCosts; }
 }
 
 
@@ -10,12 +10,18 @@ import com.stellarcolonizer.model.faction.Faction;
 import com.stellarcolonizer.model.galaxy.enums.ResourceType;
 import com.stellarcolonizer.model.galaxy.enums.PlanetTrait;
 import com.stellarcolonizer.model.economy.ResourceStockpile;
+import com.stellarcolonizer.model.service.event.EventScheduler;
 import javafx.beans.property.*;
+import javafx.beans.value.ChangeListener;
 
 import java.util.*;
 
 public class Colony {
 
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    static final int POPULATION_STEP = 1000; // 每次人口增长的人数
+    private static final double RANDOM_EVENT_CHANCE = 0.05; // 每回合发生随机事件的概率
+
     private final StringProperty name;
     private final Planet planet;
     private final Faction faction;
@@ -48,6 +54,24 @@ public class Colony {
     private final IntegerProperty maxHealth;
     private final IntegerProperty currentHealth;
 
+    // 经济缓存：编译后的产出和消耗向量，只有输入（人口分布、建筑及其等级和状态、总督、行星特质）变化时才重新计算
+    private final float[] compiledProduction = new float[RESOURCE_TYPES.length];
+    private final float[] compiledConsumption = new float[RESOURCE_TYPES.length];
+    private boolean productionDirty = true;
+    private boolean consumptionDirty = true;
+    private int economyVersion = 0; // 每次重新编译递增，派系经济结算据此判断是否需要重新复制
+    private float appliedEnergyPenalty = 1.0f; // 上次结算作用在产出上的能量惩罚，显示到下一回合编译前
+    private final ChangeListener<Object> buildingListener = (obs, oldValue, newValue) -> {
+        invalidateEconomy();
+        updateResearchOutput();
+    };
+
+    // 派系统计的来源：派系监听这两个属性和总人口，按变化量更新派系总量
+    private final FloatProperty researchOutput = new SimpleFloatProperty(0); // 所有建筑的科研加成之和
+    private final FloatProperty productionTotal = new SimpleFloatProperty(0); // 各种资源当前显示产出之和
+
+    private EventScheduler.ScheduledEvent pendingRandomEvent; // 已安排的下一次随机事件
+
     public Colony(Planet planet, Faction faction) {
         this.planet = planet;
         this.faction = faction;
@@ -89,8 +113,11 @@ public class Colony {
         this.currentHealth = new SimpleIntegerProperty(initialHealth);
 
         this.governor = new SimpleObjectProperty<>(null);
+        this.governor.addListener((obs, oldGovernor, newGovernor) -> invalidateEconomy());
+        this.totalPopulation.addListener((obs, oldValue, newValue) -> consumptionDirty = true);
 
         calculateProduction();
+        refreshRateProperties();
         
         System.out.println("[" + name.get() + "] 殖民地创建完成");
     }
@@ -170,10 +197,65 @@ public class Colony {
                 break;
         }
 
+        for (Building building : buildings) {
+            watchBuilding(building);
+        }
         usedBuildingSlots.set(buildings.size());
+        updateResearchOutput();
+    }
+
+    // 建筑等级和启用状态影响产出加成与维护费，变化时让经济缓存失效
+    private void watchBuilding(Building building) {
+        building.levelProperty().addListener(buildingListener);
+        building.activeProperty().addListener(buildingListener);
+    }
+
+    private void unwatchBuilding(Building building) {
+        building.levelProperty().removeListener(buildingListener);
+        building.activeProperty().removeListener(buildingListener);
+    }
+
+    // 建筑建造、拆除或等级变化后重新汇总科研加成（只遍历本殖民地的建筑）
+    private void updateResearchOutput() {
+        float total = 0;
+        for (Building building : buildings) {
+            total += building.getProductionBonus(ResourceType.SCIENCE);
+        }
+        researchOutput.set(total);
+    }
+
+    // 显示产出（编译结果或能量惩罚）变化后重新汇总
+    private void updateProductionTotal() {
+        float total = 0;
+        for (int i = 0; i < RESOURCE_TYPES.length; i++) {
+            total += getShownProduction(i);
+        }
+        productionTotal.set(total);
+    }
+
+    /**
+     * 经济输入（如科技修正、行星特质）在殖民地之外发生变化时调用，下次结算时重新编译产出和消耗
+     */
+    public void invalidateEconomy() {
+        productionDirty = true;
+        consumptionDirty = true;
     }
 
+    // 人口分布变化：重新编译产出
+    private void onPopulationDistributionChanged() {
+        productionDirty = true;
+        calculateProduction();
+    }
+
+    /**
+     * 单独处理这个殖民地的回合；派系回合中由 Faction.processColonies() 统一结算所有殖民地
+     */
     public void processTurn() {
+        faction.getEconomyKernel().processTurn(Collections.singletonList(this), faction.getResourceStockpile());
+    }
+
+    // 回合前半段：人口增长，编译产出和消耗
+    void prepareTurn() {
         System.out.println("[" + name.get() + "] 处理回合开始，人口总数: " + totalPopulation.get());
         // 打印人口分布
         for (Map.Entry<PopType, Integer> entry : populationByType.entrySet()) {
@@ -183,15 +265,67 @@ public class Colony {
         updatePopulation();
         calculateProduction();
         calculateConsumption();
-        updateResourceStockpile();
+    }
+
+    // 回合后半段：库存已由 ColonyEconomyKernel 结算，随机事件由派系的事件调度器触发
+    void finishTurn() {
         updateDevelopment();
         updateStability();
         processBuildings();
-        processRandomEvents();
         System.out.println("[" + name.get() + "] 处理回合结束");
     }
 
+    // 结算后记录作用在产出上的能量惩罚（科研除外）
+    void applyEnergyPenalty(float energyPenaltyFactor) {
+        appliedEnergyPenalty = energyPenaltyFactor;
+        updateProductionTotal();
+        if (energyPenaltyFactor < 1.0f) {
+            System.out.println("[" + name.get() + "] 应用能量惩罚: 能量生产率降至 "
+                    + String.format("%.2f", getShownProduction(ResourceType.ENERGY.ordinal()))
+                    + ", 金属生产率降至 " + String.format("%.2f", getShownProduction(ResourceType.METAL.ordinal()))
+                    + " (惩罚因子: " + String.format("%.2f", energyPenaltyFactor) + ")");
+        }
+    }
+
+    // 显示的产出：编译结果乘上次结算的能量惩罚（科研不受惩罚）
+    private float getShownProduction(int index) {
+        float rate = compiledProduction[index];
+        if (index != ResourceType.SCIENCE.ordinal()) {
+            rate = rate * appliedEnergyPenalty;
+        }
+        return rate;
+    }
+
+    /**
+     * 把当前产出和消耗写入 JavaFX 属性；回合结算不再逐个更新属性，只有界面正在显示的殖民地需要调用
+     */
+    public void refreshRateProperties() {
+        for (int i = 0; i < RESOURCE_TYPES.length; i++) {
+            productionRates.get(RESOURCE_TYPES[i]).set(getShownProduction(i));
+            consumptionRates.get(RESOURCE_TYPES[i]).set(compiledConsumption[i]);
+        }
+    }
+
+    float[] getCompiledProduction() { return compiledProduction; }
+    float[] getCompiledConsumption() { return compiledConsumption; }
+    int getEconomyVersion() { return economyVersion; }
+
     private void updatePopulation() {
+        // 增加到人口增长点数
+        populationGrowthPoints.set(populationGrowthPoints.get() + getGrowthPointsPerTurn());
+
+        if (populationGrowthPoints.get() >= populationGrowthPointsRequired.get() && totalPopulation.get() >= 1000) {
+            // 增加1000人口
+            totalPopulation.set(totalPopulation.get() + POPULATION_STEP);
+
+            populationGrowthPoints.set(populationGrowthPoints.get() - populationGrowthPointsRequired.get());
+
+            updatePopulationDistribution();
+        }
+    }
+
+    // 每回合增加的人口增长点数
+    float getGrowthPointsPerTurn() {
         // 新的人口增长点数机制
         // 不同的行星类型每回合产出不同的人口增长点数
         float growthPointsPerTurn = 0.0f;
@@ -226,24 +360,19 @@ public class Colony {
         growthPointsPerTurn *= happinessModifier;
         growthPointsPerTurn *= stabilityModifier;
         
-        // 增加到人口增长点数
-        populationGrowthPoints.set(populationGrowthPoints.get() + growthPointsPerTurn/2);
-
-        if (populationGrowthPoints.get() >= populationGrowthPointsRequired.get() && totalPopulation.get() >= 1000) {
-            // 增加1000人口
-            totalPopulation.set(totalPopulation.get() + 1000);
-
-            populationGrowthPoints.set(populationGrowthPoints.get() - populationGrowthPointsRequired.get());
-
-            updatePopulationDistribution();
-        }
+        return growthPointsPerTurn/2;
     }
 
     private void updatePopulationDistribution() {
+        fixedDistribution(totalPopulation.get(), populationByType);
+        
+        // 人口分布改变后，立即更新生产率以保持一致性
+        onPopulationDistributionChanged();
+    }
+
+    private static void fixedDistribution(int total, Map<PopType, Integer> populationByType) {
         // 按照固定比例重新分配人口：
         // 农民 40%，工人 30%，矿工 15%，工匠 15%
-        int total = totalPopulation.get();
-        
         populationByType.put(PopType.FARMERS, (int) (total * 0.4));   // 40% 农民
         populationByType.put(PopType.WORKERS, (int) (total * 0.3));   // 30% 工人
         populationByType.put(PopType.MINERS, (int) (total * 0.15));   // 15% 矿工
@@ -259,16 +388,43 @@ public class Colony {
             int diff = total - currentTotal;
             populationByType.put(PopType.FARMERS, populationByType.get(PopType.FARMERS) + diff);
         }
-        
-        // 人口分布改变后，立即更新生产率以保持一致性
-        calculateProduction();
     }
 
     private void calculateProduction() {
-        // 先重置所有生产率
-        for (FloatProperty rate : productionRates.values()) {
-            rate.set(0);
+        // 上回合的能量惩罚只显示到重新计算产出为止
+        appliedEnergyPenalty = 1.0f;
+        if (productionDirty) {
+            productionDirty = false;
+            compileProduction();
+            economyVersion++;
+        }
+        updateProductionTotal();
+    }
+
+    private void compileProduction() {
+        float[] rates = compiledProduction;
+        compileProduction(populationByType, rates);
+        
+        // 输出最终生产率
+        System.out.println("[" + name.get() + "] 重新计算生产率: 食物=" + rates[ResourceType.FOOD.ordinal()] + 
+                          ", 能量=" + rates[ResourceType.ENERGY.ordinal()] + 
+                          ", 金属=" + rates[ResourceType.METAL.ordinal()] + 
+                          ", 燃料=" + rates[ResourceType.FUEL.ordinal()] +
+                          ", 金钱=" + rates[ResourceType.MONEY.ordinal()]);
+                          
+        // 输出稀有资源生产率
+        for (ResourceType type : RESOURCE_TYPES) {
+            if (isRareResource(type) && rates[type.ordinal()] > 0) {
+                System.out.println("[" + name.get() + "] " + type.getDisplayName() + 
+                                  " 生产率=" + rates[type.ordinal()]);
+            }
         }
+    }
+
+    // 按给定的人口分布计算产出向量（不改变殖民地状态）
+    private void compileProduction(Map<PopType, Integer> populationByType, float[] rates) {
+        // 先重置所有生产率
+        Arrays.fill(rates, 0);
 
         // 基于人口计算基础生产率
         // 上调各类资源的产出效率
@@ -284,14 +440,15 @@ public class Colony {
         float baseFuelProduction = populationByType.getOrDefault(PopType.ARTISANS, 0) * artisanEfficiency;
         float baseMoneyProduction = populationByType.getOrDefault(PopType.ARTISANS, 0) * 0.1f; // 金钱产出从0.05进一步上调到0.1
 
-        // 获取行星特质对资源产出的修正
+        // 获取行星特质对资源产出的修正（特质列表只复制一次）
+        List<PlanetTrait> traits = planet.getTraits();
         float traitFoodMultiplier = 1.0f;
         float traitEnergyMultiplier = 1.0f;
         float traitMetalMultiplier = 1.0f;
         float traitFuelMultiplier = 1.0f;
         float traitMoneyMultiplier = 1.0f;
 
-        for (PlanetTrait trait : planet.getTraits()) {
+        for (PlanetTrait trait : traits) {
             traitFoodMultiplier *= trait.getResourceMultiplier(ResourceType.FOOD);
             traitEnergyMultiplier *= trait.getResourceMultiplier(ResourceType.ENERGY);
             traitMetalMultiplier *= trait.getResourceMultiplier(ResourceType.METAL);
@@ -301,65 +458,35 @@ public class Colony {
         }
 
         // 应用特质修正到基础产出
-        productionRates.get(ResourceType.FOOD).set(baseFoodProduction * traitFoodMultiplier);
-        productionRates.get(ResourceType.ENERGY).set(baseEnergyProduction * traitEnergyMultiplier);
-        productionRates.get(ResourceType.METAL).set(baseMetalProduction * traitMetalMultiplier);
+        rates[ResourceType.FOOD.ordinal()] = baseFoodProduction * traitFoodMultiplier;
+        rates[ResourceType.ENERGY.ordinal()] = baseEnergyProduction * traitEnergyMultiplier;
+        rates[ResourceType.METAL.ordinal()] = baseMetalProduction * traitMetalMultiplier;
 
-        productionRates.get(ResourceType.FUEL).set(baseFuelProduction * traitFuelMultiplier);
-        productionRates.get(ResourceType.MONEY).set(baseMoneyProduction * traitMoneyMultiplier);
+        rates[ResourceType.FUEL.ordinal()] = baseFuelProduction * traitFuelMultiplier;
+        rates[ResourceType.MONEY.ordinal()] = baseMoneyProduction * traitMoneyMultiplier;
 
         // 处理行星的特殊资源（稀有资源）
-        for (Map.Entry<ResourceType, Float> entry : planet.getResources().entrySet()) {
-            ResourceType type = entry.getKey();
-            float baseAmount = entry.getValue();
+        for (ResourceType type : ResourceType.getRareResources()) {
+            float baseAmount = planet.getResource(type);
             
-            if (isRareResource(type) && baseAmount > 0) {
+            if (baseAmount > 0) {
                 // 基于矿工数量计算稀有资源产出
                 float baseRareResourceProduction = populationByType.getOrDefault(PopType.MINERS, 0) * 0.001f * (baseAmount / 100f);
                 
                 // 应用特质修正
                 float traitRareMultiplier = 1.0f;
-                for (PlanetTrait trait : planet.getTraits()) {
+                for (PlanetTrait trait : traits) {
                     traitRareMultiplier *= trait.getResourceMultiplier(type);
                 }
                 
-                productionRates.get(type).set(baseRareResourceProduction * traitRareMultiplier);
+                rates[type.ordinal()] = baseRareResourceProduction * traitRareMultiplier;
             }
         }
 
-        // 输出调试信息
-        System.out.println("[" + name.get() + "] 计算生产: 食物=" + productionRates.get(ResourceType.FOOD).get() + 
-                          ", 能量=" + productionRates.get(ResourceType.ENERGY).get() + 
-                          ", 金属=" + productionRates.get(ResourceType.METAL).get() + 
-                          ", 燃料=" + productionRates.get(ResourceType.FUEL).get() +
-                          ", 金钱=" + productionRates.get(ResourceType.MONEY).get());
-
         // 建筑加成
         for (Building building : buildings) {
-            Map<ResourceType, Float> bonuses = building.getProductionBonuses();
-            for (Map.Entry<ResourceType, Float> bonus : bonuses.entrySet()) {
-                float current = productionRates.get(bonus.getKey()).get();
-                productionRates.get(bonus.getKey()).set(current + bonus.getValue());
-                
-                if (bonus.getValue() != 0) {
-                    System.out.println("[" + name.get() + "] 建筑加成: " + bonus.getKey().getDisplayName() + 
-                                      " +" + bonus.getValue());
-                }
-            }
-        }
-        
-        // 输出最终生产率
-        System.out.println("[" + name.get() + "] 最终生产率: 食物=" + productionRates.get(ResourceType.FOOD).get() + 
-                          ", 能量=" + productionRates.get(ResourceType.ENERGY).get() + 
-                          ", 金属=" + productionRates.get(ResourceType.METAL).get() + 
-                          ", 燃料=" + productionRates.get(ResourceType.FUEL).get() +
-                          ", 金钱=" + productionRates.get(ResourceType.MONEY).get());
-                          
-        // 输出稀有资源生产率
-        for (ResourceType type : ResourceType.values()) {
-            if (isRareResource(type) && productionRates.get(type).get() > 0) {
-                System.out.println("[" + name.get() + "] " + type.getDisplayName() + 
-                                  " 生产率=" + productionRates.get(type).get());
+            for (Map.Entry<ResourceType, Float> bonus : building.getProductionBonuses().entrySet()) {
+                rates[bonus.getKey().ordinal()] += bonus.getValue();
             }
         }
     }
@@ -380,9 +507,28 @@ public class Colony {
     }
 
     private void calculateConsumption() {
+        if (!consumptionDirty) {
+            return; // 人口和建筑维护都没有变化，缓存仍有效
+        }
+        consumptionDirty = false;
+
+        float[] rates = compiledConsumption;
+        compileConsumption(totalPopulation.get(), rates);
+        economyVersion++;
+        
+        // 输出调试信息
+        System.out.println("[" + name.get() + "] 重新计算消耗率: 食物=" + rates[ResourceType.FOOD.ordinal()] + 
+                          ", 能量=" + rates[ResourceType.ENERGY.ordinal()] +
+                          ", 燃料=" + rates[ResourceType.FUEL.ordinal()]);
+    }
+
+    // 按给定的总人口计算消耗向量（不改变殖民地状态）
+    private void compileConsumption(int population, float[] rates) {
+        Arrays.fill(rates, 0);
+
         // 参考群星机制设置消耗率，下调食物消耗确保不会出现负增长
-        float foodConsumption = totalPopulation.get() * 0.00008f;  // 每人消耗0.00008食物（略微下调以匹配生产上调）
-        consumptionRates.get(ResourceType.FOOD).set(foodConsumption);
+        float foodConsumption = population * 0.00008f;  // 每人消耗0.00008食物（略微下调以匹配生产上调）
+        rates[ResourceType.FOOD.ordinal()] = foodConsumption;
 
         float energyConsumption = 0.8f;  // 基础能量消耗
         // 只对活跃建筑计算维护成本
@@ -391,76 +537,42 @@ public class Colony {
                 energyConsumption += building.getMaintenanceCost(ResourceType.ENERGY);  // 建筑维护消耗
             }
         }
-        energyConsumption += totalPopulation.get() * 0.00008f;  // 人口相关能量消耗（略微下调以匹配生产上调）
+        energyConsumption += population * 0.00008f;  // 人口相关能量消耗（略微下调以匹配生产上调）
 
-        consumptionRates.get(ResourceType.ENERGY).set(energyConsumption);
+        rates[ResourceType.ENERGY.ordinal()] = energyConsumption;
         
         // 稀有资源消耗（用于建筑维护或其他用途）
-        float fuelConsumption = totalPopulation.get() * 0.000008f;  // 人口燃料消耗（略微下调以匹配生产上调）
-        consumptionRates.get(ResourceType.FUEL).set(fuelConsumption);
-        
-        // 输出调试信息
-        System.out.println("[" + name.get() + "] 计算消耗: 食物=" + foodConsumption + 
-                          ", 能量=" + energyConsumption +
-                          ", 燃料=" + fuelConsumption);
-                          
-        // 输出最终消耗率
-        System.out.println("[" + name.get() + "] 最终消耗率: 食物=" + consumptionRates.get(ResourceType.FOOD).get() + 
-                          ", 能量=" + consumptionRates.get(ResourceType.ENERGY).get() +
-                          ", 燃料=" + consumptionRates.get(ResourceType.FUEL).get());
+        float fuelConsumption = population * 0.000008f;  // 人口燃料消耗（略微下调以匹配生产上调）
+        rates[ResourceType.FUEL.ordinal()] = fuelConsumption;
     }
 
-    private void updateResourceStockpile() {
-        // 首先计算能量惩罚因子
-        float energyPenaltyFactor = getEnergyPenaltyFactor();
-        
-        for (ResourceType type : ResourceType.values()) {
-            float production = productionRates.get(type).get();
-            float consumption = consumptionRates.get(type).get();
-            
-            production = production * energyPenaltyFactor;
-            
-            float net = production - consumption;
-
-            // 不再直接添加科研资源，因为科研现在用于研发科技
-            if (type != ResourceType.SCIENCE) {
-                // 所有资源产出和消耗现在都统一到派系层面
-                faction.getResourceStockpile().addResource(type, net);
-            }
-            
-            // 调试信息
-            if (net != 0 && type != ResourceType.SCIENCE) {
-                System.out.println("[" + name.get() + "] " + type.getDisplayName() + 
-                    " 产量: " + String.format("%.2f", production) + 
-                    ", 消耗: " + String.format("%.2f", consumption) + 
-                    ", 净产量: " + String.format("%.2f", net) + 
-                    ", 派系总量: " + String.format("%.2f", faction.getResourceStockpile().getResource(type)));
-            }
+    /**
+     * 输入变化后尚未重新编译时立即编译（不改变显示的能量惩罚），供预测等读取缓存的调用方使用
+     */
+    void ensureCompiled() {
+        if (productionDirty) {
+            productionDirty = false;
+            compileProduction();
+            economyVersion++;
+            updateProductionTotal();
         }
+        calculateConsumption();
+    }
 
-        // 应用能量惩罚到生产率（这会影响下一回合的计算）
-        if (energyPenaltyFactor < 1.0f) {
-            for (ResourceType type : ResourceType.values()) {
-                if (type != ResourceType.SCIENCE) {
-                    FloatProperty rate = productionRates.get(type);
-                    if (rate != null) {
-                        rate.set(rate.get() * energyPenaltyFactor);
-                        
-                        // 调试输出
-                        if (type == ResourceType.ENERGY || type == ResourceType.METAL) {
-                            System.out.println("[" + name.get() + "] 应用能量惩罚: " + type.getDisplayName() + 
-                                " 生产率降至 " + String.format("%.2f", rate.get()) + 
-                                " (惩罚因子: " + String.format("%.2f", energyPenaltyFactor) + ")");
-                        }
-                    }
-                }
-            }
-        }
+    /**
+     * 计算人口再增长 extraPopulation 并按固定比例重新分配后的产出和消耗向量
+     */
+    void compileGrownEconomy(int extraPopulation, float[] production, float[] consumption) {
+        int population = totalPopulation.get() + extraPopulation;
+        Map<PopType, Integer> distribution = new EnumMap<>(PopType.class);
+        fixedDistribution(population, distribution);
+        compileProduction(distribution, production);
+        compileConsumption(population, consumption);
     }
 
     private void checkResourceShortages() {
         float foodAmount = faction.getResourceStockpile().getResource(ResourceType.FOOD);
-        float foodConsumption = consumptionRates.get(ResourceType.FOOD).get();
+        float foodConsumption = compiledConsumption[ResourceType.FOOD.ordinal()];
 
         if (foodAmount < foodConsumption * 0.5f) {
             happiness.set(happiness.get() - 0.1f);
@@ -468,7 +580,7 @@ public class Colony {
         }
 
         float energyAmount = faction.getResourceStockpile().getResource(ResourceType.ENERGY);
-        float energyConsumption = consumptionRates.get(ResourceType.ENERGY).get();
+        float energyConsumption = compiledConsumption[ResourceType.ENERGY.ordinal()];
 
         if (energyConsumption > 0) { // 只有在有能量消耗时才检查
             // 改进能量不足处理：使用库存天数来决定惩罚程度，而不是简单的二元开关
@@ -488,7 +600,7 @@ public class Colony {
     // 获取能量惩罚因子，用于在getNetProduction中应用
     private float getEnergyPenaltyFactor() {
         float energyAmount = faction.getResourceStockpile().getResource(ResourceType.ENERGY);
-        float energyConsumption = consumptionRates.get(ResourceType.ENERGY).get();
+        float energyConsumption = compiledConsumption[ResourceType.ENERGY.ordinal()];
 
         if (energyConsumption > 0) { // 只有在有能量消耗时才检查
             // 改进能量不足处理：使用库存天数来决定惩罚程度，而不是简单的二元开关
@@ -506,7 +618,7 @@ public class Colony {
 
     private float getFoodSufficiency() {
         float foodAmount = faction.getResourceStockpile().getResource(ResourceType.FOOD);
-        float foodConsumption = consumptionRates.get(ResourceType.FOOD).get();
+        float foodConsumption = compiledConsumption[ResourceType.FOOD.ordinal()];
 
         if (foodConsumption <= 0) return 1.0f;
         // 通过计算一个回合的消耗量来更准确地评估食物充足度
@@ -534,8 +646,8 @@ public class Colony {
         developmentIncrease += developmentBuildings * 0.01f;
 
         float totalProduction = 0;
-        for (FloatProperty rate : productionRates.values()) {
-            totalProduction += rate.get();
+        for (int i = 0; i < RESOURCE_TYPES.length; i++) {
+            totalProduction += getShownProduction(i);
         }
         developmentIncrease += totalProduction * 0.0001f;
 
@@ -604,10 +716,25 @@ public class Colony {
         }
     }
 
-    private void processRandomEvents() {
-        Random random = new Random();
-        if (random.nextDouble() < 0.05) {
+    /**
+     * 在派系的事件调度器中安排这个殖民地的下一次随机事件，触发后自动安排再下一次；
+     * 殖民地加入派系时调用，已有的安排会被替换
+     */
+    public void scheduleRandomEvents(EventScheduler scheduler) {
+        cancelRandomEvents();
+        pendingRandomEvent = scheduler.scheduleWithChance(RANDOM_EVENT_CHANCE, () -> {
             triggerRandomEvent();
+            scheduleRandomEvents(scheduler);
+        });
+    }
+
+    /**
+     * 取消已安排的随机事件（殖民地离开派系时调用）
+     */
+    public void cancelRandomEvents() {
+        if (pendingRandomEvent != null) {
+            pendingRandomEvent.cancel();
+            pendingRandomEvent = null;
         }
     }
 
@@ -735,6 +862,9 @@ public class Colony {
         }
 
         buildings.add(building);
+        watchBuilding(building);
+        invalidateEconomy();
+        updateResearchOutput();
         usedBuildingSlots.set(usedBuildingSlots.get() + 1);
         addColonyLog("完成了建筑: " + building.getName());
 
@@ -819,6 +949,9 @@ public class Colony {
         }
 
         building.upgrade();
+        // 等级属性变化时监听器先触发，onUpgrade() 之后加成才更新，升级完成后重新汇总
+        invalidateEconomy();
+        updateResearchOutput();
         addColonyLog("升级了建筑: " + building.getName() + " 到等级 " + building.getLevel());
 
         return new BuildResult(true, "成功升级 " + building.getName() + " 至等级 " + building.getLevel());
@@ -830,6 +963,9 @@ public class Colony {
         }
 
         buildings.remove(building);
+        unwatchBuilding(building);
+        invalidateEconomy();
+        updateResearchOutput();
         usedBuildingSlots.set(usedBuildingSlots.get() - 1);
 
         for (ResourceRequirement requirement : building.getConstructionRequirements()) {
@@ -852,6 +988,7 @@ public class Colony {
 
         populationByType.put(fromType, fromCount - amount);
         populationByType.put(toType, toCount + amount);
+        productionDirty = true;
 
         addColonyLog("重新分配了 " + amount + " 人口从 " + fromType.getDisplayName() + " 到 " + toType.getDisplayName());
     }
@@ -880,7 +1017,7 @@ public class Colony {
         }
         
         // 重新计算生产率
-        calculateProduction();
+        onPopulationDistributionChanged();
         
         addColonyLog("重点发展农业：农民占比50%，工人占比20%，其他人口保持不变");
     }
@@ -909,7 +1046,7 @@ public class Colony {
         }
         
         // 重新计算生产率
-        calculateProduction();
+        onPopulationDistributionChanged();
         
         addColonyLog("重点发展工业：农民占比20%，工人占比50%，其他人口保持不变");
     }
@@ -938,7 +1075,7 @@ public class Colony {
         }
         
         // 重新计算生产率
-        calculateProduction();
+        onPopulationDistributionChanged();
         
         addColonyLog("平衡发展：农民占比35%，工人占比35%，其他人口保持不变");
     }
@@ -954,7 +1091,7 @@ public class Colony {
                 populationByType.put(PopType.ARTISANS, (int)(totalPop * 0.1)); // 10% 工匠
                 
                 // 重新计算生产率
-                calculateProduction();
+                onPopulationDistributionChanged();
                 
                 growthRate.set(growthRate.get() * 1.3f);
                 happiness.set(happiness.get() * 0.9f);
@@ -968,7 +1105,7 @@ public class Colony {
                 populationByType.put(PopType.ARTISANS, (int)(totalPop2 * 0.1)); // 10% 工匠
                 
                 // 重新计算生产率
-                calculateProduction();
+                onPopulationDistributionChanged();
                 
                 growthRate.set(growthRate.get() * 1.0f);
                 break;
@@ -981,8 +1118,8 @@ public class Colony {
 
     public Map<ResourceType, Float> getProductionStats() {
         Map<ResourceType, Float> stats = new EnumMap<>(ResourceType.class);
-        for (Map.Entry<ResourceType, FloatProperty> entry : productionRates.entrySet()) {
-            stats.put(entry.getKey(), entry.getValue().get());
+        for (int i = 0; i < RESOURCE_TYPES.length; i++) {
+            stats.put(RESOURCE_TYPES[i], getShownProduction(i));
         }
         
         return stats;
@@ -990,8 +1127,8 @@ public class Colony {
 
     public Map<ResourceType, Float> getConsumptionStats() {
         Map<ResourceType, Float> stats = new EnumMap<>(ResourceType.class);
-        for (Map.Entry<ResourceType, FloatProperty> entry : consumptionRates.entrySet()) {
-            stats.put(entry.getKey(), entry.getValue().get());
+        for (int i = 0; i < RESOURCE_TYPES.length; i++) {
+            stats.put(RESOURCE_TYPES[i], compiledConsumption[i]);
         }
         return stats;
     }
@@ -1004,8 +1141,8 @@ public class Colony {
         
         // 使用当前的实际生产率和消耗率来计算净产量
         for (ResourceType type : ResourceType.values()) {
-            float production = productionRates.get(type).get();
-            float consumption = consumptionRates.get(type).get();
+            float production = getShownProduction(type.ordinal());
+            float consumption = compiledConsumption[type.ordinal()];
             
             // 对生产率应用能量惩罚（除了科研，因为科研惩罚在updateResourceStockpile后才应用）
             if (type != ResourceType.SCIENCE) {
@@ -1071,6 +1208,15 @@ public class Colony {
     public int getTotalPopulation() { return totalPopulation.get(); }
     public IntegerProperty totalPopulationProperty() { return totalPopulation; }
 
+    public float getResearchOutput() { return researchOutput.get(); }
+    public ReadOnlyFloatProperty researchOutputProperty() { return researchOutput; }
+    public float getProductionTotal() { return productionTotal.get(); }
+    public ReadOnlyFloatProperty productionTotalProperty() { return productionTotal; }
+
+    // 产出和消耗属性只在 refreshRateProperties() 时更新
+    public FloatProperty productionRateProperty(ResourceType type) { return productionRates.get(type); }
+    public FloatProperty consumptionRateProperty(ResourceType type) { return consumptionRates.get(type); }
+
     public Map<PopType, Integer> getPopulationByType() { return new EnumMap<>(populationByType); }
     
     // 添加设置人口类型的方法
@@ -1083,7 +1229,7 @@ public class Colony {
         totalPopulation.set(newTotal);
         
         // 重新计算生产率
-        calculateProduction();
+        onPopulationDistributionChanged();
     }
     
     // 添加更新特定人口类型的方法
@@ -1095,7 +1241,7 @@ public class Colony {
         totalPopulation.set(newTotal);
         
         // 重新计算生产率
-        calculateProduction();
+        onPopulationDistributionChanged();
     }
 
     public float getGrowthRate() { return growthRate.get(); }
@@ -0,0 +1,179 @@
+package com.stellarcolonizer.model.colony;
+
+import com.stellarcolonizer.model.economy.ResourceStockpile;
+import com.stellarcolonizer.model.galaxy.enums.ResourceType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 派系殖民地经济结算
+ * 所有殖民地的产出和消耗按 [殖民地 * 资源种类 + 资源] 存放在连续的 float 数组中，
+ * 每回合在一个紧凑循环里计算各殖民地的能量惩罚和净产量，最后一次性写回派系库存。
+ * 殖民地的产出或消耗重新编译后版本号递增，未变化的殖民地不会重复复制。
+ * 结算规则：能量惩罚按回合开始时的能量库存计算，净产量通过 ResourceStockpile.credit() 以定点数记入，
+ * 全部记入后 foldCredits() 一次合并，容量和非负截断只在合并时执行一次。
+ * 定点整数加法满足结合律，所以顺序模式和并发模式（在 ForkJoinPool 上并行记入）的结果逐位相同，与线程数和调度无关。
+ * 殖民地的回合准备（人口、JavaFX 属性和日志）在两种模式下都在调用线程上顺序执行，并行部分只读写内核自身的数组。
+ */
+public final class ColonyEconomyKernel {
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final int R = RESOURCE_TYPES.length;
+    private static final int ENERGY = ResourceType.ENERGY.ordinal();
+    private static final int SCIENCE = ResourceType.SCIENCE.ordinal(); // 科研不进入库存
+    private static final int PARALLEL_THRESHOLD = 64; // 并发模式下殖民地少于此数时仍在当前线程记入，避免调度开销
+
+    private Colony[] slots = new Colony[0];
+    private int[] versions = new int[0];
+    private float[] production = new float[0];
+    private float[] consumption = new float[0];
+    private float[] net = new float[0];
+    private float[] penalty = new float[0];
+    private int colonyCount;
+
+    private final float[] stock = new float[R];
+    private final float[] limit = new float[R];
+    private final float[] lastDelta = new float[R];
+
+    private final ForkJoinPool pool;
+    private boolean concurrent = false;
+
+    public ColonyEconomyKernel() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ColonyEconomyKernel(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 处理一个派系所有殖民地的回合：先更新人口并编译产出和消耗，再统一结算库存，最后处理发展度、稳定度、建筑和事件
+     */
+    public void processTurn(List<Colony> colonies, ResourceStockpile stockpile) {
+        Colony[] turnColonies = colonies.toArray(new Colony[0]);
+        // 回合准备会修改 JavaFX 属性（派系按属性监听器累计总量）并输出日志，只能在调用线程上顺序执行
+        for (Colony colony : turnColonies) {
+            colony.prepareTurn();
+        }
+        settle(turnColonies, stockpile);
+        // 建筑维护要先检查库存再扣除，随机事件共用随机数，仍按顺序处理
+        for (Colony colony : turnColonies) {
+            colony.finishTurn();
+        }
+    }
+
+    // 记入各殖民地的净产量后统一合并和截断；并发模式下并行记入，并行任务只读写内核数组和库存的原子累加器
+    private void settle(Colony[] colonies, ResourceStockpile stockpile) {
+        long start = System.nanoTime();
+        load(colonies);
+        if (colonyCount == 0) {
+            Arrays.fill(lastDelta, 0);
+            return;
+        }
+        stockpile.copyTo(stock, limit);
+        float startEnergy = stock[ENERGY];
+
+        boolean parallel = concurrent && colonyCount >= PARALLEL_THRESHOLD;
+        if (parallel) {
+            pool.submit(() -> IntStream.range(0, colonyCount).parallel()
+                    .forEach(c -> creditColony(c, startEnergy, stockpile))).join();
+        } else {
+            for (int c = 0; c < colonyCount; c++) {
+                creditColony(c, startEnergy, stockpile);
+            }
+        }
+
+        stockpile.foldCredits();
+        stockpile.copyTo(lastDelta, limit);
+        for (int r = 0; r < R; r++) {
+            lastDelta[r] -= stock[r];
+        }
+        for (int c = 0; c < colonyCount; c++) {
+            slots[c].applyEnergyPenalty(penalty[c]);
+        }
+
+        System.out.println("经济结算" + (parallel ? "（并发）" : "") + ": " + colonyCount + " 个殖民地，用时 "
+                + String.format("%.3f", (System.nanoTime() - start) / 1_000_000.0) + " ms");
+    }
+
+    private void creditColony(int c, float energyStock, ResourceStockpile stockpile) {
+        int base = c * R;
+        // 能量惩罚：回合开始时的库存不足一回合消耗时按库存天数降低产出，最低保留20%
+        float factor = 1.0f;
+        float energyConsumption = consumption[base + ENERGY];
+        if (energyConsumption > 0) {
+            float energyDaysOfStock = energyStock / energyConsumption;
+            if (energyDaysOfStock < 1.0f) {
+                factor = Math.max(0.2f, energyDaysOfStock);
+            }
+        }
+        penalty[c] = factor;
+
+        for (int r = 0; r < R; r++) {
+            float value = production[base + r] * factor - consumption[base + r];
+            net[base + r] = value;
+            if (r != SCIENCE) {
+                stockpile.credit(RESOURCE_TYPES[r], value);
+            }
+        }
+    }
+
+    // 把殖民地的编译结果复制到连续数组，只复制新加入或版本变化的殖民地
+    private void load(Colony[] colonies) {
+        int count = colonies.length;
+        if (slots.length < count) {
+            int capacity = Math.max(count, slots.length * 2);
+            slots = Arrays.copyOf(slots, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            production = Arrays.copyOf(production, capacity * R);
+            consumption = Arrays.copyOf(consumption, capacity * R);
+            net = Arrays.copyOf(net, capacity * R);
+            penalty = Arrays.copyOf(penalty, capacity);
+        }
+        for (int c = 0; c < count; c++) {
+            Colony colony = colonies[c];
+            if (slots[c] != colony || versions[c] != colony.getEconomyVersion()) {
+                slots[c] = colony;
+                versions[c] = colony.getEconomyVersion();
+                System.arraycopy(colony.getCompiledProduction(), 0, production, c * R, R);
+                System.arraycopy(colony.getCompiledConsumption(), 0, consumption, c * R, R);
+            }
+        }
+        // 清除多余的槽位，不保留已移除殖民地的引用
+        Arrays.fill(slots, count, colonyCount > count ? colonyCount : count, null);
+        colonyCount = count;
+    }
+
+    /**
+     * 上一次结算中派系库存的变化量（已计入容量和0的截断）
+     */
+    public float getLastDelta(ResourceType type) {
+        return lastDelta[type.ordinal()];
+    }
+
+    /**
+     * 上一次结算中殖民地的净产量（已计入能量惩罚），殖民地不在上次结算中时返回0
+     */
+    public float getLastNet(Colony colony, ResourceType type) {
+        for (int c = 0; c < colonyCount; c++) {
+            if (slots[c] == colony) {
+                return net[c * R + type.ordinal()];
+            }
+        }
+        return 0;
+    }
+
+    public int getColonyCount() { return colonyCount; }
+
+    public boolean isConcurrent() { return concurrent; }
+
+    /**
+     * 开启后殖民地（至少64个时）的净产量并行记入，结果与顺序模式逐位相同；殖民地的回合准备仍按顺序执行。
+     * 殖民地的人口、产量和科研属性由派系的监听器不加同步地增量累计（见 Faction），
+     * 并行任务不能修改殖民地，processTurn 也必须与其他修改殖民地的代码在同一线程调用
+     */
+    public void setConcurrent(boolean concurrent) { this.concurrent = concurrent; }
+}
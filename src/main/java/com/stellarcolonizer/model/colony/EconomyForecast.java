@@ -0,0 +1,297 @@
+package com.stellarcolonizer.model.colony;
+
+import com.stellarcolonizer.model.economy.ConcurrentResourceAccumulator;
+import com.stellarcolonizer.model.economy.ResourceStockpile;
+import com.stellarcolonizer.model.faction.Faction;
+import com.stellarcolonizer.model.galaxy.enums.ResourceType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 派系经济预测
+ * 从各殖民地缓存的产出和消耗向量出发，按回合推演派系库存：人口增长点数达到阈值时切换到增长后的产出和消耗，
+ * 按与 ColonyEconomyKernel 相同的规则（回合开始时的能量库存决定惩罚，定点数累加后一次截断）结算库存，再扣除建筑维护费。
+ * 增长后的向量按殖民地版本缓存，推演本身只是数组循环；库存和殖民地都没有变化时直接返回上次的结果。
+ * 随机事件、幸福度和稳定度的变化不在预测范围内。
+ */
+public final class EconomyForecast {
+
+    public static final int DEFAULT_TURNS = 20;
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final int R = RESOURCE_TYPES.length;
+    private static final int ENERGY = ResourceType.ENERGY.ordinal();
+    private static final int SCIENCE = ResourceType.SCIENCE.ordinal();
+
+    private final Faction faction;
+
+    // 各殖民地的向量，按 [殖民地 * 资源种类 + 资源] 存放
+    private Colony[] slots = new Colony[0];
+    private int[] versions = new int[0];
+    private float[] production = new float[0];      // 当前产出
+    private float[] consumption = new float[0];     // 当前消耗
+    private float[] grownProduction = new float[0]; // 下一次人口增长后的产出
+    private float[] grownConsumption = new float[0];
+    private float[] productionStep = new float[0];  // 之后每次增长的变化量
+    private float[] consumptionStep = new float[0];
+    private float[] growthPoints = new float[0];
+    private float[] growthRequired = new float[0];
+    private float[] growthPerTurn = new float[0];
+    private int[] population = new int[0];
+    private int colonyCount;
+
+    // 建筑维护费，每行一个启用的建筑，upkeepStart[c] 到 upkeepStart[c + 1] 为殖民地 c 的建筑
+    private float[] upkeep = new float[0];
+    private int[] upkeepStart = new int[1];
+
+    // 推演结果
+    private float[][] stockByTurn = new float[0][];
+    private int computedTurns;
+    private final float[] firstTurnNet = new float[R];
+    private final int[] depletedAt = new int[R];
+    private int stockpileVersion = -1;
+    private boolean valid;
+
+    // 推演时的临时状态
+    private float[] simGrowth = new float[0];
+    private int[] simGrowths = new int[0];
+    private int[] simPopulation = new int[0];
+    private boolean[] upkeepActive = new boolean[0];
+    private final float[] stock = new float[R];
+    private final float[] limit = new float[R];
+    private final long[] credits = new long[R]; // 本回合各殖民地净产量的定点数之和
+
+    public EconomyForecast(Faction faction) {
+        this.faction = faction;
+    }
+
+    /**
+     * 推演之后 turns 个回合的派系库存
+     * @return 第 t 行为 t + 1 回合结束时各资源（按 ResourceType 序号）的库存；数组为内部缓存，调用方不要修改
+     */
+    public float[][] project(int turns) {
+        if (!isValid() || computedTurns < turns) {
+            rebuild(Math.max(turns, DEFAULT_TURNS));
+        }
+        return turns == computedTurns ? stockByTurn : Arrays.copyOf(stockByTurn, turns);
+    }
+
+    /**
+     * 下一回合的净变化（所有殖民地的净产量减去建筑维护费，未截断）
+     */
+    public float getNetPerTurn(ResourceType type) {
+        project(DEFAULT_TURNS);
+        return firstTurnNet[type.ordinal()];
+    }
+
+    /**
+     * 资源第一次不足（库存降到0以下或无法支付建筑维护）的回合，从1开始；horizon 回合内不会耗尽时返回 -1
+     */
+    public int turnsUntilDepleted(ResourceType type, int horizon) {
+        project(horizon);
+        int turn = depletedAt[type.ordinal()];
+        return turn > 0 && turn <= horizon ? turn : -1;
+    }
+
+    public int turnsUntilDepleted(ResourceType type) {
+        return turnsUntilDepleted(type, DEFAULT_TURNS);
+    }
+
+    /**
+     * 强制下次查询时重新推演
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    // 库存版本、殖民地列表和各殖民地的经济版本、增长点数都没有变化时，上次的推演仍然有效
+    private boolean isValid() {
+        List<Colony> colonies = faction.getColonies();
+        for (Colony colony : colonies) {
+            colony.ensureCompiled();
+        }
+        if (!valid || stockpileVersion != faction.getResourceStockpile().getVersion()
+                || colonies.size() != colonyCount) {
+            return false;
+        }
+        for (int c = 0; c < colonyCount; c++) {
+            Colony colony = colonies.get(c);
+            if (slots[c] != colony || versions[c] != colony.getEconomyVersion()
+                    || growthPoints[c] != colony.getPopulationGrowthPoints()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rebuild(int turns) {
+        long start = System.nanoTime();
+        load(faction.getColonies());
+        ResourceStockpile stockpile = faction.getResourceStockpile();
+        stockpile.copyTo(stock, limit);
+        simulate(turns);
+        stockpileVersion = stockpile.getVersion();
+        valid = true;
+        System.out.println("[" + faction.getName() + "] 经济预测: " + colonyCount + " 个殖民地，" + turns + " 回合，用时 "
+                + String.format("%.3f", (System.nanoTime() - start) / 1_000_000.0) + " ms");
+    }
+
+    // 复制各殖民地的当前向量；增长后的向量只在殖民地版本变化时重新计算
+    private void load(List<Colony> colonies) {
+        int count = colonies.size();
+        if (slots.length < count) {
+            int capacity = Math.max(count, slots.length * 2);
+            slots = Arrays.copyOf(slots, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            production = Arrays.copyOf(production, capacity * R);
+            consumption = Arrays.copyOf(consumption, capacity * R);
+            grownProduction = Arrays.copyOf(grownProduction, capacity * R);
+            grownConsumption = Arrays.copyOf(grownConsumption, capacity * R);
+            productionStep = Arrays.copyOf(productionStep, capacity * R);
+            consumptionStep = Arrays.copyOf(consumptionStep, capacity * R);
+            growthPoints = Arrays.copyOf(growthPoints, capacity);
+            growthRequired = Arrays.copyOf(growthRequired, capacity);
+            growthPerTurn = Arrays.copyOf(growthPerTurn, capacity);
+            population = Arrays.copyOf(population, capacity);
+            simGrowth = new float[capacity];
+            simGrowths = new int[capacity];
+            simPopulation = new int[capacity];
+            upkeepStart = new int[capacity + 1];
+        }
+
+        float[] grown = new float[R];
+        float[] grownCons = new float[R];
+        float[] next = new float[R];
+        float[] nextConsumption = new float[R];
+        int upkeepRows = 0;
+        for (int c = 0; c < count; c++) {
+            Colony colony = colonies.get(c);
+            int base = c * R;
+            if (slots[c] != colony || versions[c] != colony.getEconomyVersion()) {
+                slots[c] = colony;
+                versions[c] = colony.getEconomyVersion();
+                System.arraycopy(colony.getCompiledProduction(), 0, production, base, R);
+                System.arraycopy(colony.getCompiledConsumption(), 0, consumption, base, R);
+                // 增长一次和两次后的向量，之后每次增长按两者之差线性外推
+                colony.compileGrownEconomy(Colony.POPULATION_STEP, grown, grownCons);
+                colony.compileGrownEconomy(2 * Colony.POPULATION_STEP, next, nextConsumption);
+                System.arraycopy(grown, 0, grownProduction, base, R);
+                System.arraycopy(grownCons, 0, grownConsumption, base, R);
+                for (int r = 0; r < R; r++) {
+                    productionStep[base + r] = next[r] - grown[r];
+                    consumptionStep[base + r] = nextConsumption[r] - grownCons[r];
+                }
+            }
+            growthPoints[c] = colony.getPopulationGrowthPoints();
+            growthRequired[c] = colony.getPopulationGrowthPointsRequired();
+            growthPerTurn[c] = colony.getGrowthPointsPerTurn();
+            population[c] = colony.getTotalPopulation();
+
+            upkeepStart[c] = upkeepRows;
+            for (Building building : colony.getBuildings()) {
+                if (building.isActive() && !building.getMaintenanceCosts().isZero()) {
+                    if (upkeep.length < (upkeepRows + 1) * R) {
+                        upkeep = Arrays.copyOf(upkeep, Math.max(R * 16, upkeep.length * 2));
+                    }
+                    for (int r = 0; r < R; r++) {
+                        upkeep[upkeepRows * R + r] = building.getMaintenanceCosts().get(RESOURCE_TYPES[r]);
+                    }
+                    upkeepRows++;
+                }
+            }
+        }
+        upkeepStart[count] = upkeepRows;
+        if (upkeepActive.length < upkeepRows) {
+            upkeepActive = new boolean[Math.max(upkeepRows, upkeepActive.length * 2)];
+        }
+        Arrays.fill(slots, count, colonyCount > count ? colonyCount : count, null);
+        colonyCount = count;
+    }
+
+    private void simulate(int turns) {
+        // 行数与推演回合数一致，回合数变少时不留下上次推演的多余行
+        if (stockByTurn.length != turns) {
+            stockByTurn = new float[turns][R];
+        }
+        computedTurns = turns;
+        Arrays.fill(firstTurnNet, 0);
+        Arrays.fill(depletedAt, 0);
+        System.arraycopy(growthPoints, 0, simGrowth, 0, colonyCount);
+        Arrays.fill(simGrowths, 0, colonyCount, 0);
+        System.arraycopy(population, 0, simPopulation, 0, colonyCount);
+        Arrays.fill(upkeepActive, 0, upkeepStart[colonyCount], true);
+
+        for (int t = 0; t < turns; t++) {
+            int turn = t + 1;
+            // 先处理所有殖民地的人口增长，再按回合开始时的能量库存结算，与 ColonyEconomyKernel 相同
+            for (int c = 0; c < colonyCount; c++) {
+                simGrowth[c] += growthPerTurn[c];
+                if (simGrowth[c] >= growthRequired[c] && simPopulation[c] >= Colony.POPULATION_STEP) {
+                    simGrowth[c] -= growthRequired[c];
+                    simGrowths[c]++;
+                    simPopulation[c] += Colony.POPULATION_STEP;
+                }
+            }
+            Arrays.fill(credits, 0);
+            float startEnergy = stock[ENERGY];
+            for (int c = 0; c < colonyCount; c++) {
+                creditColony(c, t, startEnergy);
+            }
+            for (int r = 0; r < R; r++) {
+                if (r == SCIENCE || credits[r] == 0) continue;
+                float amount = ConcurrentResourceAccumulator.fold(stock[r], credits[r], limit[r]);
+                if (amount == 0 && credits[r] < 0 && depletedAt[r] == 0) depletedAt[r] = turn; // 净减少后截断到0
+                stock[r] = amount;
+            }
+            // 建筑维护：库存足够支付整行才扣除，否则建筑停用
+            for (int row = 0; row < upkeepStart[colonyCount]; row++) {
+                if (!upkeepActive[row]) continue;
+                int base = row * R;
+                boolean affordable = true;
+                for (int r = 0; r < R; r++) {
+                    if (stock[r] < upkeep[base + r]) {
+                        affordable = false;
+                        if (depletedAt[r] == 0) depletedAt[r] = turn;
+                    }
+                }
+                if (!affordable) {
+                    upkeepActive[row] = false;
+                    continue;
+                }
+                for (int r = 0; r < R; r++) {
+                    stock[r] -= upkeep[base + r];
+                    if (t == 0) firstTurnNet[r] -= upkeep[base + r];
+                }
+            }
+            System.arraycopy(stock, 0, stockByTurn[t], 0, R);
+        }
+    }
+
+    private void creditColony(int c, int t, float energyStock) {
+        int base = c * R;
+        int growths = simGrowths[c];
+        float[] prod = growths == 0 ? production : grownProduction;
+        float[] cons = growths == 0 ? consumption : grownConsumption;
+        float steps = growths > 1 ? growths - 1 : 0;
+
+        float energyConsumption = cons[base + ENERGY] + consumptionStep[base + ENERGY] * steps;
+        float factor = 1.0f;
+        if (energyConsumption > 0) {
+            float energyDaysOfStock = energyStock / energyConsumption;
+            if (energyDaysOfStock < 1.0f) {
+                factor = Math.max(0.2f, energyDaysOfStock);
+            }
+        }
+
+        for (int r = 0; r < R; r++) {
+            if (r == SCIENCE) continue;
+            float value = (prod[base + r] + productionStep[base + r] * steps) * factor
+                    - (cons[base + r] + consumptionStep[base + r] * steps);
+            if (t == 0) firstTurnNet[r] += value;
+            credits[r] += ConcurrentResourceAccumulator.toFixed(value);
+        }
+    }
+
+    public int getComputedTurns() { return computedTurns; }
+}
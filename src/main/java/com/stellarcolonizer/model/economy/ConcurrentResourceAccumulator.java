@@ -0,0 +1,91 @@
+package com.stellarcolonizer.model.economy;
+
+import com.stellarcolonizer.model.galaxy.enums.ResourceType;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并发资源累加器
+ * 多个线程同时记入资源变化时使用：每种资源一个 LongAdder（分段计数单元，线程之间不争用同一个单元），
+ * 数值按定点数（1/2^24）累加。整数加法满足结合律，所以无论线程如何调度、以什么顺序记入，合并结果都完全相同。
+ * 容量上限和非负截断在合并时才执行。
+ */
+public final class ConcurrentResourceAccumulator {
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final double SCALE = 1 << 24; // 定点数精度约 6e-8
+
+    private final LongAdder[] cells = new LongAdder[RESOURCE_TYPES.length];
+
+    public ConcurrentResourceAccumulator() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记入一项资源变化（可以为负），线程安全
+     */
+    public void add(ResourceType type, float amount) {
+        long fixed = toFixed(amount);
+        if (fixed != 0) {
+            cells[type.ordinal()].add(fixed);
+        }
+    }
+
+    /**
+     * 记入一个资源向量，线程安全
+     */
+    public void add(ResourceVector amounts) {
+        for (ResourceType type : RESOURCE_TYPES) {
+            add(type, amounts.get(type));
+        }
+    }
+
+    /**
+     * 把累计的变化合并到库存并清零，结果截断到 [0, 容量]
+     * 只能在所有记入线程结束后调用
+     */
+    public void foldInto(ResourceVector stock, ResourceVector capacity) {
+        for (ResourceType type : RESOURCE_TYPES) {
+            long sum = cells[type.ordinal()].sumThenReset();
+            if (sum == 0) {
+                continue;
+            }
+            stock.set(type, fold(stock.get(type), sum, capacity.get(type)));
+        }
+    }
+
+    /**
+     * 把定点数之和加到库存上并截断到 [0, 容量]；经济预测按同样的规则推演
+     */
+    public static float fold(float stock, long fixedSum, float capacity) {
+        float amount = (float) (stock + fixedSum / SCALE);
+        if (amount > capacity) {
+            amount = capacity;
+        }
+        if (amount < 0) {
+            amount = 0;
+        }
+        return amount;
+    }
+
+    /**
+     * 是否有尚未合并的变化
+     */
+    public boolean isEmpty() {
+        for (LongAdder cell : cells) {
+            if (cell.sum() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 转换为累加使用的定点数
+     */
+    public static long toFixed(float amount) {
+        return Math.round(amount * SCALE);
+    }
+}
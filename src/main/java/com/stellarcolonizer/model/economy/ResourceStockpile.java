@@ -8,38 +8,53 @@ import java.util.Map;
 
 public class ResourceStockpile {
 
-    private final Map<ResourceType, Float> resources;
-    private final Map<ResourceType, Float> capacity; // 各种资源的容量
+    // 资源基础价值（可以调整）
+    private static final ResourceVector RESOURCE_VALUES = new ResourceVector()
+            .fill(1.0f)
+            .set(ResourceType.METAL, 2.0f)
+            .set(ResourceType.FOOD, 1.5f)
+            .set(ResourceType.SCIENCE, 5.0f)
+            .set(ResourceType.EXOTIC_MATTER, 50.0f)
+            .set(ResourceType.NEUTRONIUM, 100.0f)
+            .set(ResourceType.CRYSTAL, 30.0f)
+            .set(ResourceType.DARK_MATTER, 200.0f)
+            .set(ResourceType.ANTI_MATTER, 150.0f)
+            .set(ResourceType.LIVING_METAL, 80.0f);
+
+    private final ResourceVector resources;
+    private final ResourceVector capacity; // 各种资源的容量
+    private final ConcurrentResourceAccumulator pendingCredits = new ConcurrentResourceAccumulator(); // 并发记入、尚未合并的变化
+    private int version = 0; // 库存或容量每次变化递增，用于判断预测等缓存是否过期
 
     public ResourceStockpile() {
-        this.resources = new EnumMap<>(ResourceType.class);
-        this.capacity = new EnumMap<>(ResourceType.class);
+        this.resources = new ResourceVector();
+        this.capacity = new ResourceVector();
 
         initializeCapacities();
     }
 
     private void initializeCapacities() {
         // 设置默认容量为更大的值，避免资源停止增长
-        capacity.put(ResourceType.ENERGY, 10000000f);
-        capacity.put(ResourceType.METAL, 10000000f);
-        capacity.put(ResourceType.FOOD, 10000000f);
-        capacity.put(ResourceType.SCIENCE, 10000000f);
-        capacity.put(ResourceType.FUEL, 10000000f);
-        capacity.put(ResourceType.MONEY, 10000000f); // 为金钱设置容量
+        capacity.set(ResourceType.ENERGY, 10000000f);
+        capacity.set(ResourceType.METAL, 10000000f);
+        capacity.set(ResourceType.FOOD, 10000000f);
+        capacity.set(ResourceType.SCIENCE, 10000000f);
+        capacity.set(ResourceType.FUEL, 10000000f);
+        capacity.set(ResourceType.MONEY, 10000000f); // 为金钱设置容量
 
         // 稀有资源容量较小
         for (ResourceType rare : ResourceType.getRareResources()) {
-            capacity.put(rare, 1000000f);
+            capacity.set(rare, 1000000f);
         }
     }
 
     public float getResource(ResourceType type) {
-        return resources.getOrDefault(type, 0f);
+        return resources.get(type);
     }
 
     public void addResource(ResourceType type, float amount) {
         float current = getResource(type);
-        float maxCapacity = capacity.getOrDefault(type, Float.MAX_VALUE);
+        float maxCapacity = capacity.get(type);
 
         float newAmount = current + amount;
         
@@ -52,17 +67,93 @@ public class ResourceStockpile {
             newAmount = 0;
         }
 
-        resources.put(type, newAmount);
+        resources.set(type, newAmount);
+        version++;
         
         // 调试信息
         // System.out.println("资源更新: " + type.getDisplayName() + " 增加 " + amount + ", 总量: " + newAmount);
     }
 
+    /**
+     * 一次加上整个资源向量（可以为负），结果截断到 [0, 容量]
+     */
+    public void addResources(ResourceVector amounts) {
+        resources.add(amounts).clampTo(capacity);
+        version++;
+    }
+
+    /**
+     * 并发记入资源变化（可以为负），可以从多个线程同时调用；
+     * 变化在 foldCredits() 之前不会反映到库存中，截断也在合并时执行
+     */
+    public void credit(ResourceType type, float amount) {
+        pendingCredits.add(type, amount);
+    }
+
+    public void credit(ResourceVector amounts) {
+        pendingCredits.add(amounts);
+    }
+
+    /**
+     * 把并发记入的变化合并到库存，只能在记入的线程全部结束后调用
+     */
+    public void foldCredits() {
+        pendingCredits.foldInto(resources, capacity);
+        version++;
+    }
+
+    public boolean hasPendingCredits() {
+        return !pendingCredits.isEmpty();
+    }
+
+    /**
+     * 是否每种资源都足够支付 cost
+     */
+    public boolean canAfford(ResourceVector cost) {
+        return resources.covers(cost);
+    }
+
+    /**
+     * 是否足够支付 quantity 份 cost
+     */
+    public boolean canAfford(ResourceVector cost, int quantity) {
+        return resources.covers(cost, quantity);
+    }
+
+    /**
+     * 资源足够时一次扣除整个 cost，否则不扣除任何资源
+     */
+    public boolean consumeResources(ResourceVector cost) {
+        if (!resources.covers(cost)) {
+            return false;
+        }
+        resources.sub(cost);
+        version++;
+        return true;
+    }
+
+    /**
+     * 按资源类型序号批量读出库存和容量上限（与 addResource 的截断规则一致），用于批量结算
+     */
+    public void copyTo(float[] amounts, float[] limits) {
+        resources.copyTo(amounts);
+        capacity.copyTo(limits);
+    }
+
+    /**
+     * 按资源类型序号批量写回库存，调用方负责截断
+     */
+    public void setAll(float[] amounts) {
+        resources.copyFrom(amounts);
+        version++;
+    }
+
     public boolean consumeResource(ResourceType type, float amount) {
         float current = getResource(type);
 
         if (current >= amount) {
-            resources.put(type, current - amount);
+            resources.set(type, current - amount);
+            version++;
             return true;
         }
         return false;
@@ -77,16 +168,17 @@ public class ResourceStockpile {
     }
 
     public float getCapacity(ResourceType type) {
-        return capacity.getOrDefault(type, 0f);
+        return capacity.get(type);
     }
 
     public void setCapacity(ResourceType type, float capacity) {
-        this.capacity.put(type, capacity);
+        this.capacity.set(type, capacity);
+        version++;
 
         // 如果当前资源超过新容量，削减
         float current = getResource(type);
         if (current > capacity) {
-            resources.put(type, capacity);
+            resources.set(type, capacity);
         }
     }
 
@@ -122,31 +214,20 @@ public class ResourceStockpile {
 
     public float getTotalValue() {
         // 计算总价值（使用基础价值）
-        float total = 0;
-        for (Map.Entry<ResourceType, Float> entry : resources.entrySet()) {
-            total += entry.getValue() * getResourceValue(entry.getKey());
-        }
-        return total;
-    }
-
-    private float getResourceValue(ResourceType type) {
-        // 基础价值（可以调整）
-        switch (type) {
-            case ENERGY: return 1.0f;
-            case METAL: return 2.0f;
-            case FOOD: return 1.5f;
-            case SCIENCE: return 5.0f;
-            case EXOTIC_MATTER: return 50.0f;
-            case NEUTRONIUM: return 100.0f;
-            case CRYSTAL: return 30.0f;
-            case DARK_MATTER: return 200.0f;
-            case ANTI_MATTER: return 150.0f;
-            case LIVING_METAL: return 80.0f;
-            default: return 1.0f;
-        }
+        return resources.dot(RESOURCE_VALUES);
     }
 
+    /**
+     * 库存向量（只读，修改请使用 addResource / addResources / consumeResources）
+     */
+    public ResourceVector getResources() {
+        return resources;
+    }
+
+    public int getVersion() { return version; }
+
     public void clear() {
         resources.clear();
+        version++;
     }
 }
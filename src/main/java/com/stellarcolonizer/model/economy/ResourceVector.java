@@ -0,0 +1,207 @@
+package com.stellarcolonizer.model.economy;
+
+import com.stellarcolonizer.model.galaxy.enums.ResourceType;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 资源向量
+ * 按 ResourceType 序号存放在 float 数组中，用于库存、产出、消耗和造价；
+ * 运算都在原对象上进行并返回自身，便于链式调用，结算过程中不产生装箱和临时对象。
+ */
+public final class ResourceVector {
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    public static final int SIZE = RESOURCE_TYPES.length;
+
+    private final float[] values;
+
+    public ResourceVector() {
+        this.values = new float[SIZE];
+    }
+
+    public ResourceVector(ResourceVector other) {
+        this.values = other.values.clone();
+    }
+
+    /**
+     * 由资源映射创建，缺少的资源为0
+     */
+    public static ResourceVector of(Map<ResourceType, Float> amounts) {
+        ResourceVector vector = new ResourceVector();
+        for (Map.Entry<ResourceType, Float> entry : amounts.entrySet()) {
+            vector.values[entry.getKey().ordinal()] = entry.getValue();
+        }
+        return vector;
+    }
+
+    public float get(ResourceType type) {
+        return values[type.ordinal()];
+    }
+
+    public ResourceVector set(ResourceType type, float amount) {
+        values[type.ordinal()] = amount;
+        return this;
+    }
+
+    public ResourceVector add(ResourceType type, float amount) {
+        values[type.ordinal()] += amount;
+        return this;
+    }
+
+    public ResourceVector add(ResourceVector other) {
+        float[] o = other.values;
+        for (int i = 0; i < SIZE; i++) {
+            values[i] += o[i];
+        }
+        return this;
+    }
+
+    /**
+     * this += other * factor，例如按数量累加造价
+     */
+    public ResourceVector addScaled(ResourceVector other, float factor) {
+        float[] o = other.values;
+        for (int i = 0; i < SIZE; i++) {
+            values[i] += o[i] * factor;
+        }
+        return this;
+    }
+
+    public ResourceVector sub(ResourceVector other) {
+        float[] o = other.values;
+        for (int i = 0; i < SIZE; i++) {
+            values[i] -= o[i];
+        }
+        return this;
+    }
+
+    public ResourceVector scale(float factor) {
+        for (int i = 0; i < SIZE; i++) {
+            values[i] *= factor;
+        }
+        return this;
+    }
+
+    /**
+     * 每种资源截断到 [0, capacity]
+     */
+    public ResourceVector clampTo(ResourceVector capacity) {
+        float[] c = capacity.values;
+        for (int i = 0; i < SIZE; i++) {
+            float amount = values[i];
+            if (amount > c[i]) {
+                amount = c[i];
+            }
+            if (amount < 0) {
+                amount = 0;
+            }
+            values[i] = amount;
+        }
+        return this;
+    }
+
+    /**
+     * 每种资源都不少于 cost
+     */
+    public boolean covers(ResourceVector cost) {
+        return covers(cost, 1);
+    }
+
+    /**
+     * 每种资源都不少于 cost * quantity，检查批量建造时不需要先放大造价
+     */
+    public boolean covers(ResourceVector cost, float quantity) {
+        float[] c = cost.values;
+        for (int i = 0; i < SIZE; i++) {
+            if (values[i] < c[i] * quantity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按价格求总价值
+     */
+    public float dot(ResourceVector prices) {
+        float[] p = prices.values;
+        float total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            total += values[i] * p[i];
+        }
+        return total;
+    }
+
+    public float sum() {
+        float total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    public boolean isZero() {
+        for (int i = 0; i < SIZE; i++) {
+            if (values[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public ResourceVector copyFrom(ResourceVector other) {
+        System.arraycopy(other.values, 0, values, 0, SIZE);
+        return this;
+    }
+
+    public ResourceVector copyFrom(float[] amounts) {
+        System.arraycopy(amounts, 0, values, 0, SIZE);
+        return this;
+    }
+
+    public void copyTo(float[] amounts) {
+        System.arraycopy(values, 0, amounts, 0, SIZE);
+    }
+
+    public ResourceVector fill(float amount) {
+        Arrays.fill(values, amount);
+        return this;
+    }
+
+    public ResourceVector clear() {
+        return fill(0);
+    }
+
+    /**
+     * 转换为资源映射，只包含非零的资源（供界面显示和旧接口使用）
+     */
+    public Map<ResourceType, Float> toMap() {
+        Map<ResourceType, Float> result = new EnumMap<>(ResourceType.class);
+        for (int i = 0; i < SIZE; i++) {
+            if (values[i] != 0) {
+                result.put(RESOURCE_TYPES[i], values[i]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ResourceVector)) return false;
+        return Arrays.equals(values, ((ResourceVector) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
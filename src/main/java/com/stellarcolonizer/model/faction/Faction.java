@@ -2,6 +2,8 @@
 package com.stellarcolonizer.model.faction;
 
 import com.stellarcolonizer.model.colony.Colony;
+import com.stellarcolonizer.model.colony.ColonyEconomyKernel;
+import com.stellarcolonizer.model.colony.EconomyForecast;
 import com.stellarcolonizer.model.diplomacy.DiplomaticRelationship;
 import com.stellarcolonizer.model.diplomacy.DiplomacyManager;
 import com.stellarcolonizer.model.economy.ResourceStockpile;
@@ -9,12 +11,12 @@ import com.stellarcolonizer.model.galaxy.Galaxy;
 import com.stellarcolonizer.model.galaxy.Hex;
 import com.stellarcolonizer.model.galaxy.Planet;
 import com.stellarcolonizer.model.galaxy.StarSystem;
-import com.stellarcolonizer.model.galaxy.enums.ResourceType;
 import com.stellarcolonizer.model.service.ai.AIController;
-import com.stellarcolonizer.model.colony.Building;
+import com.stellarcolonizer.model.service.event.EventScheduler;
 import com.stellarcolonizer.model.technology.Technology;
 import com.stellarcolonizer.model.technology.TechTree;
 import com.stellarcolonizer.model.fleet.Fleet;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
@@ -31,6 +33,9 @@ public class Faction {
 
     private final ResourceStockpile resourceStockpile;
     private final ObservableList<Colony> colonies;
+    private final ColonyEconomyKernel economyKernel = new ColonyEconomyKernel();
+    private final EconomyForecast economyForecast = new EconomyForecast(this);
+    private final EventScheduler eventScheduler = new EventScheduler(); // 殖民地随机事件，每次处理殖民地时推进一回合
     private final Set<String> researchedTechnologies;
 
     private AIController aiController;
@@ -40,10 +45,18 @@ public class Faction {
     private FactionTrait primaryTrait;
     private FactionTrait secondaryTrait;
 
-    // 统计数据
+    // 统计数据：按殖民地属性的变化量增量维护，回合处理不再遍历殖民地和建筑。
+    // 监听器直接做 += 而不加同步，殖民地的这些属性只能在同一个线程（游戏线程）上修改，
+    // ColonyEconomyKernel 的并发模式也只并行结算库存，不并行修改殖民地
     private int totalPopulation;
-    private float totalProduction;
-    private float totalResearch;
+    private double totalProduction;
+    private double colonyResearch; // 所有殖民地建筑的科研加成之和，不含派系基础科研产出
+    private final ChangeListener<Number> populationListener =
+            (obs, oldValue, newValue) -> totalPopulation += newValue.intValue() - oldValue.intValue();
+    private final ChangeListener<Number> productionListener =
+            (obs, oldValue, newValue) -> totalProduction += newValue.floatValue() - oldValue.floatValue();
+    private final ChangeListener<Number> researchListener =
+            (obs, oldValue, newValue) -> colonyResearch += newValue.floatValue() - oldValue.floatValue();
     
     private long turnCount; // 当前回合数
     
@@ -62,6 +75,7 @@ public class Faction {
         this.researchedTechnologies = new HashSet<>();
         this.techTree = new TechTree(name + "科技树");
         this.diplomacyManager = new DiplomacyManager();
+        this.economyKernel.setConcurrent(true); // 结果与顺序结算相同，殖民地多时并行记入
 
         initializeTechnologies();
 
@@ -84,34 +98,21 @@ public class Faction {
     }
 
     public void updateBaseResearchPoints() {
-        // 计算科研点数 - 派系基础科研产出 + 所有殖民地的建筑产出
-        float totalResearchPoints = baseResearchOutput; // 派系基础科研产出
-        
-        // 遍历所有殖民地，计算它们的建筑产生的科研点数
-        for (Colony colony : colonies) {
-            // 获取殖民地所有建筑的科研产出
-            for (Building building : colony.getBuildings()) {
-                Map<ResourceType, Float> bonuses = building.getProductionBonuses();
-                Float scienceBonus = bonuses.get(ResourceType.SCIENCE);
-                if (scienceBonus != null) {
-                    totalResearchPoints += scienceBonus;
-                }
-            }
-        }
-        
+        // 科研点数 = 派系基础科研产出 + 所有殖民地的建筑产出（增量维护）
         // 更新科技树的基础科研产出
-        techTree.processResearch((int) totalResearchPoints);
+        techTree.processResearch((int) getTotalResearch());
     }
 
     public void addColony(Colony colony) {
         colonies.add(colony);
-        updateStatistics();
+        watchColony(colony);
         updateBaseResearchPoints(); // 添加殖民地后更新科研产出
     }
 
     public void removeColony(Colony colony) {
-        colonies.remove(colony);
-        updateStatistics();
+        if (colonies.remove(colony)) {
+            unwatchColony(colony);
+        }
         updateBaseResearchPoints(); // 移除殖民地后更新科研产出
         
         // 检查派系是否还有其他殖民地
@@ -136,31 +137,10 @@ public class Faction {
     public void processTurn() {
         System.out.println("[" + name + "] 派系处理回合开始，殖民地数量: " + colonies.size());
         // 处理所有殖民地
-        for (Colony colony : colonies) {
-            System.out.println("[" + name + "] 处理殖民地: " + colony.getName());
-            colony.processTurn();
-        }
-
-        // 计算科研点数 - 派系基础科研产出 + 所有殖民地的建筑产出
-        float totalResearchPoints = baseResearchOutput; // 派系基础科研产出
-        
-        // 遍历所有殖民地，计算它们的建筑产生的科研点数
-        for (Colony colony : colonies) {
-            // 获取殖民地所有建筑的科研产出
-            for (Building building : colony.getBuildings()) {
-                Map<ResourceType, Float> bonuses = building.getProductionBonuses();
-                Float scienceBonus = bonuses.get(ResourceType.SCIENCE);
-                if (scienceBonus != null) {
-                    totalResearchPoints += scienceBonus;
-                }
-            }
-        }
-
-        // 处理科技研发
-        techTree.processResearch((int) totalResearchPoints);
+        processColonies();
 
-        // 更新统计
-        updateStatistics();
+        // 处理科技研发（科研点数 = 派系基础科研产出 + 所有殖民地的建筑产出，已增量维护）
+        techTree.processResearch((int) getTotalResearch());
 
         // 处理舰队
         List<Fleet> fleets = getFleets();
@@ -178,28 +158,33 @@ public class Faction {
 
 
 
-    private void updateStatistics() {
-        // 更新总人口
-        totalPopulation = colonies.stream()
-                .mapToInt(Colony::getTotalPopulation)
-                .sum();
-
-        // 更新总产量
-        totalProduction = colonies.stream()
-                .flatMap(c -> c.getProductionStats().values().stream())
-                .reduce(0f, Float::sum);
-
-        // 更新总科研
-        totalResearch = baseResearchOutput; // 派系基础科研产出
-        for (Colony colony : colonies) {
-            for (Building building : colony.getBuildings()) {
-                Map<ResourceType, Float> bonuses = building.getProductionBonuses();
-                Float scienceBonus = bonuses.get(ResourceType.SCIENCE);
-                if (scienceBonus != null) {
-                    totalResearch += scienceBonus;
-                }
-            }
-        }
+    /**
+     * 处理所有殖民地的回合，库存变化由经济结算统一计算，之后触发到期的随机事件
+     */
+    public void processColonies() {
+        economyKernel.processTurn(colonies, resourceStockpile);
+        eventScheduler.advance();
+    }
+
+    // 计入殖民地当前的人口、产量和科研，之后由属性监听按变化量更新
+    private void watchColony(Colony colony) {
+        totalPopulation += colony.getTotalPopulation();
+        totalProduction += colony.getProductionTotal();
+        colonyResearch += colony.getResearchOutput();
+        colony.totalPopulationProperty().addListener(populationListener);
+        colony.productionTotalProperty().addListener(productionListener);
+        colony.researchOutputProperty().addListener(researchListener);
+        colony.scheduleRandomEvents(eventScheduler);
+    }
+
+    private void unwatchColony(Colony colony) {
+        colony.cancelRandomEvents();
+        colony.totalPopulationProperty().removeListener(populationListener);
+        colony.productionTotalProperty().removeListener(productionListener);
+        colony.researchOutputProperty().removeListener(researchListener);
+        totalPopulation -= colony.getTotalPopulation();
+        totalProduction -= colony.getProductionTotal();
+        colonyResearch -= colony.getResearchOutput();
     }
 
     public boolean hasTechnology(String techId) {
@@ -218,11 +203,14 @@ public class Faction {
     public void setColor(javafx.scene.paint.Color color) { this.color = color; }
 
     public ResourceStockpile getResourceStockpile() { return resourceStockpile; }
+    public ColonyEconomyKernel getEconomyKernel() { return economyKernel; }
+    public EconomyForecast getEconomyForecast() { return economyForecast; }
+    public EventScheduler getEventScheduler() { return eventScheduler; }
     public ObservableList<Colony> getColonies() { return colonies; }
 
     public int getTotalPopulation() { return totalPopulation; }
-    public float getTotalProduction() { return totalProduction; }
-    public float getTotalResearch() { return totalResearch; }
+    public float getTotalProduction() { return (float) totalProduction; }
+    public float getTotalResearch() { return (float) (baseResearchOutput + colonyResearch); }
 
     /**
      * 检查派系是否还有殖民地
@@ -248,15 +236,29 @@ public class Faction {
     public void setGalaxy(Galaxy galaxy) { this.galaxy = galaxy; }
     
     public List<Fleet> getFleets() {
-        if (galaxy == null) {
+        if (galaxy == null || galaxy.getFleetRegistry() == null) {
             return new ArrayList<>(); // 如果没有星系引用，返回空列表
         }
         
-        // 遍历所有六边形，收集属于该派系的舰队
-        return galaxy.getHexGrid().getAllHexes().stream()
-                .flatMap(hex -> hex.getFleets().stream())
-                .filter(fleet -> fleet.getFaction().equals(this))
-                .collect(Collectors.toList());
+        // 从舰队登记表中获取该派系舰队的副本
+        return galaxy.getFleetRegistry().getFleets(this);
+    }
+    
+    /**
+     * 获取该派系舰队的只读视图，遍历期间不要创建或摧毁舰队
+     */
+    public Collection<Fleet> getFleetsView() {
+        if (galaxy == null || galaxy.getFleetRegistry() == null) {
+            return Collections.emptyList();
+        }
+        return galaxy.getFleetRegistry().getFleetsView(this);
+    }
+    
+    public int getFleetCount() {
+        if (galaxy == null || galaxy.getFleetRegistry() == null) {
+            return 0;
+        }
+        return galaxy.getFleetRegistry().getFleetCount(this);
     }
     
     // 外交相关方法
@@ -0,0 +1,381 @@
+// AutoDesigner.java - 舰船自动设计
+package com.stellarcolonizer.model.fleet;
+
+import com.stellarcolonizer.model.fleet.enums.ShipClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自动舰船设计：在船体空间和能源约束下搜索模块组合，使目标函数最大。
+ * <p>
+ * 每种已解锁模块在基础设计上的边际收益预先用真实的 ShipDesign 计算一次，
+ * 之后的分支定界只处理基本类型数组：按收益密度排序后逐个决定模块数量，
+ * 用剩余空间和剩余能源的分数松弛作为上界剪枝。前几层分支在 ForkJoinPool 上并行，
+ * 各任务共享当前最优值；超过时间预算时返回已找到的最优解。
+ * 结果按（舰船等级，目标，船体乘数，已解锁模块）缓存，研究只有解锁了新模块才会重新搜索。
+ */
+public class AutoDesigner {
+
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 50;
+
+    // 前几层分支拆分为并行任务，更深的层在任务内顺序搜索
+    private static final int PARALLEL_DEPTH = 2;
+    // 每搜索这么多个节点检查一次时间
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private static final AutoDesigner SHARED = new AutoDesigner(ModuleLibrary.createDefaultModules());
+
+    /**
+     * 设计目标
+     */
+    public enum Objective {
+        COMBAT_POWER("战斗力"),
+        STRATEGIC_VALUE("战略价值"),
+        COST_EFFICIENCY("性价比");
+
+        // 性价比目标中每单位建造成本抵扣的战斗力
+        private static final float COST_WEIGHT = 0.05f;
+
+        private final String displayName;
+
+        Objective(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public float score(ShipDesign design) {
+            switch (this) {
+                case STRATEGIC_VALUE:
+                    return design.calculateStrategicValue();
+                case COST_EFFICIENCY:
+                    float cost = design.getConstructionCost().sum();
+                    return design.calculateCombatPower() - cost * COST_WEIGHT;
+                case COMBAT_POWER:
+                default:
+                    return design.calculateCombatPower();
+            }
+        }
+    }
+
+    private final List<ShipModule> candidates;
+    private final ForkJoinPool pool;
+    private final Map<String, Plan> cache = new ConcurrentHashMap<>();
+    private long timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+
+    public AutoDesigner(List<ShipModule> candidates) {
+        this(candidates, ForkJoinPool.commonPool());
+    }
+
+    public AutoDesigner(List<ShipModule> candidates, ForkJoinPool pool) {
+        this.candidates = new ArrayList<>(candidates);
+        this.pool = pool;
+    }
+
+    /**
+     * 使用标准模块库的共享实例，缓存在所有派系之间共用
+     */
+    public static AutoDesigner shared() {
+        return SHARED;
+    }
+
+    /**
+     * 获取最优设计；同一条件下返回同一个缓存的设计实例，调用方不应修改
+     */
+    public ShipDesign design(ShipClass shipClass, Set<String> researchedTechs, Objective objective) {
+        return getPlan(shipClass, researchedTechs, objective).design;
+    }
+
+    /**
+     * 按最优方案创建一个新的设计实例，可以自由修改（用于设计器界面）
+     */
+    public ShipDesign createDesign(ShipClass shipClass, Set<String> researchedTechs, Objective objective) {
+        Plan plan = getPlan(shipClass, researchedTechs, objective);
+        return materialize(shipClass, plan.hullMultiplier, plan.modules, plan.counts, objective);
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    public long getTimeBudgetMillis() { return timeBudgetMillis; }
+    public void setTimeBudgetMillis(long timeBudgetMillis) { this.timeBudgetMillis = Math.max(1, timeBudgetMillis); }
+
+    private Plan getPlan(ShipClass shipClass, Set<String> researchedTechs, Objective objective) {
+        float hullMultiplier = ModuleLibrary.calculateHullSizeMultiplier(researchedTechs);
+        List<ShipModule> unlocked = new ArrayList<>();
+        Set<String> unlockedNames = new TreeSet<>();
+        for (ShipModule module : candidates) {
+            if (module instanceof HullModule) {
+                continue;
+            }
+            if (module.getTechLevel() <= 1 || module.canBeUnlocked(researchedTechs)) {
+                unlocked.add(module);
+                unlockedNames.add(module.getName());
+            }
+        }
+        String key = shipClass.name() + "|" + objective.name() + "|" + hullMultiplier + "|" + String.join(",", unlockedNames);
+        return cache.computeIfAbsent(key, k -> search(shipClass, hullMultiplier, unlocked, objective));
+    }
+
+    private Plan search(ShipClass shipClass, float hullMultiplier, List<ShipModule> unlocked, Objective objective) {
+        long startTime = System.nanoTime();
+        ShipDesign base = createBaseDesign(shipClass, hullMultiplier, "基础");
+        float baseScore = objective.score(base);
+
+        // 用真实设计计算每种模块的边际收益，之后的搜索只处理数组
+        List<Item> items = new ArrayList<>();
+        for (ShipModule module : unlocked) {
+            ShipDesign probe = createBaseDesign(shipClass, hullMultiplier, "评估");
+            if (!probe.addModule(module.createCopy())) {
+                continue;
+            }
+            float value = objective.score(probe) - baseScore;
+            int power = module.getPowerRequirement() - module.getPowerOutput();
+            // 既不提升目标也不提供能源的模块不参与搜索
+            if (value > 0 || power < 0) {
+                items.add(new Item(module, module.getSize(), power, value));
+            }
+        }
+        // 发电模块排在最前，先确定能源预算；其余按单位空间收益从高到低，尽早找到好的解
+        items.sort((a, b) -> {
+            boolean aPower = a.power < 0;
+            boolean bPower = b.power < 0;
+            if (aPower != bPower) {
+                return aPower ? -1 : 1;
+            }
+            return Double.compare(b.value / Math.max(1, b.size), a.value / Math.max(1, a.size));
+        });
+
+        Search search = new Search(items, base.getFreeHullSpace(), base.getAvailablePower(),
+                startTime + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis));
+        if (!items.isEmpty()) {
+            pool.invoke(new SearchTask(search, 0, new int[items.size()], search.space, search.availablePower, 0));
+        }
+
+        ShipModule[] modules = new ShipModule[items.size()];
+        for (int i = 0; i < modules.length; i++) {
+            modules[i] = items.get(i).module;
+        }
+        int[] counts = search.bestCounts != null ? search.bestCounts : new int[modules.length];
+        ShipDesign design = materialize(shipClass, hullMultiplier, modules, counts, objective);
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        System.out.println("自动设计 " + design.getName() + ": " + objective.getDisplayName() + " "
+                + String.format("%.1f", objective.score(design)) + "，搜索 " + search.nodes.sum() + " 个节点，用时 "
+                + elapsed + " ms" + (search.timedOut ? "（超出时间预算）" : ""));
+        return new Plan(design, hullMultiplier, modules, counts);
+    }
+
+    private static ShipDesign createBaseDesign(ShipClass shipClass, float hullMultiplier, String prefix) {
+        ShipDesign design = new ShipDesign(prefix + shipClass.getDisplayName(), shipClass);
+        design.setHullSizeMultiplier(hullMultiplier);
+        design.getModules().clear();
+        ModuleLibrary.addBaseModules(design, shipClass);
+        return design;
+    }
+
+    private static ShipDesign materialize(ShipClass shipClass, float hullMultiplier, ShipModule[] modules, int[] counts,
+                                          Objective objective) {
+        ShipDesign design = createBaseDesign(shipClass, hullMultiplier, "自动" + objective.getDisplayName());
+        for (int i = 0; i < modules.length; i++) {
+            for (int c = 0; c < counts[i]; c++) {
+                design.addModule(modules[i].createCopy());
+            }
+        }
+        return design;
+    }
+
+    // 搜索结果：缓存的设计实例和重建设计所需的模块数量
+    private static final class Plan {
+        final ShipDesign design;
+        final float hullMultiplier;
+        final ShipModule[] modules;
+        final int[] counts;
+
+        Plan(ShipDesign design, float hullMultiplier, ShipModule[] modules, int[] counts) {
+            this.design = design;
+            this.hullMultiplier = hullMultiplier;
+            this.modules = modules;
+            this.counts = counts;
+        }
+    }
+
+    private static final class Item {
+        final ShipModule module;
+        final int size;
+        final int power; // 净能源消耗，发电模块为负
+        final float value;
+
+        Item(ShipModule module, int size, int power, float value) {
+            this.module = module;
+            this.size = size;
+            this.power = power;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 一次搜索的共享状态：物品数组、上界表和当前最优解
+     */
+    private static final class Search {
+        final int n;
+        final int[] size;
+        final int[] power;
+        final float[] value;
+        final int space;
+        final int availablePower;
+        final int producerCount; // 排在最前的发电模块数量
+        // 从第 i 个物品起的最大单位空间收益和单位能源收益（有不耗能的有益物品时为无穷大）
+        final double[] suffixSpaceDensity;
+        final double[] suffixPowerDensity;
+        final long deadline;
+
+        final LongAdder nodes = new LongAdder();
+        volatile boolean timedOut;
+        volatile double bestValue = 0;
+        int[] bestCounts;
+
+        Search(List<Item> items, int space, int power, long deadline) {
+            this.n = items.size();
+            this.size = new int[n];
+            this.power = new int[n];
+            this.value = new float[n];
+            for (int i = 0; i < n; i++) {
+                Item item = items.get(i);
+                this.size[i] = item.size;
+                this.power[i] = item.power;
+                this.value[i] = item.value;
+            }
+            this.space = space;
+            this.availablePower = power;
+            this.deadline = deadline;
+            int producers = 0;
+            while (producers < n && this.power[producers] < 0) {
+                producers++;
+            }
+            this.producerCount = producers;
+
+            suffixSpaceDensity = new double[n + 1];
+            suffixPowerDensity = new double[n + 1];
+            for (int i = n - 1; i >= 0; i--) {
+                double spaceDensity = 0;
+                double powerDensity = 0;
+                if (value[i] > 0) {
+                    spaceDensity = size[i] > 0 ? value[i] / (double) size[i] : Double.POSITIVE_INFINITY;
+                    powerDensity = this.power[i] > 0 ? value[i] / (double) this.power[i] : Double.POSITIVE_INFINITY;
+                }
+                suffixSpaceDensity[i] = Math.max(suffixSpaceDensity[i + 1], spaceDensity);
+                suffixPowerDensity[i] = Math.max(suffixPowerDensity[i + 1], powerDensity);
+            }
+        }
+
+        // 从第 i 个物品开始还能获得的收益上界
+        double bound(int i, int spaceLeft, int powerLeft) {
+            double bySpace = suffixSpaceDensity[i] * spaceLeft;
+            if (i >= producerCount) {
+                // 发电模块已经全部确定，能源预算也是上界
+                return Math.min(bySpace, suffixPowerDensity[i] * Math.max(0, powerLeft));
+            }
+            return bySpace;
+        }
+
+        synchronized void offer(double total, int[] counts) {
+            if (total > bestValue || bestCounts == null) {
+                bestValue = total;
+                bestCounts = counts.clone();
+            }
+        }
+
+        // 第 i 个物品最多能放几个
+        int maxCount(int i, int spaceLeft, int powerLeft) {
+            int max = size[i] > 0 ? spaceLeft / size[i] : 0;
+            if (power[i] > 0) {
+                max = Math.min(max, Math.max(0, powerLeft) / power[i]);
+            }
+            return max;
+        }
+    }
+
+    private static final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final int index;
+        private final int[] counts;
+        private final int spaceLeft;
+        private final int powerLeft;
+        private final double total;
+        private int visited;
+
+        SearchTask(Search search, int index, int[] counts, int spaceLeft, int powerLeft, double total) {
+            this.search = search;
+            this.index = index;
+            this.counts = counts;
+            this.spaceLeft = spaceLeft;
+            this.powerLeft = powerLeft;
+            this.total = total;
+        }
+
+        @Override
+        protected void compute() {
+            if (index >= PARALLEL_DEPTH || index >= search.n) {
+                dfs(index, counts, spaceLeft, powerLeft, total);
+                search.nodes.add(visited);
+                return;
+            }
+            int max = search.maxCount(index, spaceLeft, powerLeft);
+            List<SearchTask> tasks = new ArrayList<>(max + 1);
+            for (int c = max; c >= 0; c--) {
+                int[] child = Arrays.copyOf(counts, counts.length);
+                child[index] = c;
+                tasks.add(new SearchTask(search, index + 1, child,
+                        spaceLeft - c * search.size[index],
+                        powerLeft - c * search.power[index],
+                        total + c * search.value[index]));
+            }
+            invokeAll(tasks);
+        }
+
+        private void dfs(int i, int[] counts, int spaceLeft, int powerLeft, double total) {
+            Search s = search;
+            if (s.timedOut) {
+                return;
+            }
+            if ((++visited & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > s.deadline) {
+                s.timedOut = true;
+                return;
+            }
+            if (i == s.n) {
+                if (powerLeft >= 0) {
+                    s.offer(total, counts);
+                }
+                return;
+            }
+            if (total + s.bound(i, spaceLeft, powerLeft) <= s.bestValue && s.bestCounts != null) {
+                return;
+            }
+            int max = s.maxCount(i, spaceLeft, powerLeft);
+            for (int c = max; c >= 0; c--) {
+                counts[i] = c;
+                dfs(i + 1, counts, spaceLeft - c * s.size[i], powerLeft - c * s.power[i], total + c * s.value[i]);
+                if (s.timedOut) {
+                    break;
+                }
+            }
+            counts[i] = 0;
+        }
+    }
+}
@@ -3,10 +3,14 @@ package com.stellarcolonizer.model.fleet;
 import com.stellarcolonizer.model.faction.Faction;
 
 import com.stellarcolonizer.model.fleet.enums.ShipClass;
+import com.stellarcolonizer.model.galaxy.Galaxy;
 import com.stellarcolonizer.model.galaxy.Hex;
+import com.stellarcolonizer.model.galaxy.SupplyNetwork;
+import com.stellarcolonizer.model.economy.ResourceVector;
 import com.stellarcolonizer.model.galaxy.enums.ResourceType;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import java.util.*;
@@ -18,8 +22,19 @@ public class Fleet {
     private final ObjectProperty<Hex> currentHex;
 
     // 舰队组成
-    private final ObservableList<Ship> ships;
-    private final Map<ShipDesign, Integer> shipCountByDesign;
+    private final ObservableList<Ship> ships;                 // 独立舰船（包括从编队中展开的受损舰船）
+    private final Map<ShipDesign, ShipStack> stacks = new LinkedHashMap<>(); // 满状态同设计舰船的压缩编队
+    private int stackedShipCount = 0;
+    private final Map<ShipDesign, Integer> shipCountByDesign; // 含编队中的舰船
+
+    // 统计账本：随舰船列表变化增量维护，记录的设计统计版本变化时重建
+    private final FleetLedger ledger = new FleetLedger();
+    private final Map<ShipDesign, Integer> designStatsVersions = new HashMap<>();
+    private boolean ledgerDirty = false;
+
+    // 伤亡批处理：战斗中舰船列表的增删先记入工作集，提交时作为一次列表变更事件（见 beginCasualties）
+    private List<Ship> pendingAdded;
+    private Set<Ship> pendingRemoved;
 
     // 舰队属性
     private final FloatProperty totalCombatPower;
@@ -32,13 +47,22 @@ public class Fleet {
     private final ObjectProperty<Hex> destination;
     
     // 回合移动限制
-    private boolean movedThisTurn = false; // 每回合是否已经移动过
+    private boolean movedThisTurn = false; // 每回合是否已经下达过移动命令
+
+    // 航线与移动点数：移动命令只规划航线，实际移动在回合的移动阶段统一结算
+    private final List<Hex> route = new ArrayList<>(); // 途经的六边形（不含起点，含终点）
+    private int routeIndex = 0;                          // 下一个要进入的航线位置
+    private float movementPoints = 0;                    // 本回合剩余移动点数，不足一格的部分留到下回合
 
     // 指挥官
     private final ObjectProperty<FleetCommander> commander;
 
     // 补给
-    private final Map<ResourceType, Float> supplies;
+    private static final ResourceType[] SUPPLY_TYPES = {
+            ResourceType.FOOD, ResourceType.ENERGY, ResourceType.METAL, ResourceType.FUEL
+    };
+    private static final float SUPPLY_LINE_RATE = 0.25f; // 补给范围内每回合补足缺口的比例
+    private final ResourceVector supplies;
     private final FloatProperty supplyEfficiency;
 
     public Fleet(String name, Faction faction, Hex initialHex) {
@@ -48,6 +72,17 @@ public class Fleet {
 
         this.ships = FXCollections.observableArrayList();
         this.shipCountByDesign = new HashMap<>();
+        // 舰船列表的任何增删（包括战斗中直接移除）都同步到设计计数和统计账本
+        this.ships.addListener((ListChangeListener<Ship>) change -> {
+            while (change.next()) {
+                for (Ship removed : change.getRemoved()) {
+                    onShipsRemoved(removed, 1);
+                }
+                for (Ship added : change.getAddedSubList()) {
+                    onShipsAdded(added, 1);
+                }
+            }
+        });
 
         this.totalCombatPower = new SimpleFloatProperty(0);
         this.averageSpeed = new SimpleFloatProperty(0);
@@ -59,7 +94,7 @@ public class Fleet {
 
         this.commander = new SimpleObjectProperty<>(null);
 
-        this.supplies = new EnumMap<>(ResourceType.class);
+        this.supplies = new ResourceVector();
         initializeSupplies();
         this.supplyEfficiency = new SimpleFloatProperty(1.0f);
         
@@ -70,10 +105,10 @@ public class Fleet {
     }
 
     private void initializeSupplies() {
-        supplies.put(ResourceType.FOOD, 1000.0f);
-        supplies.put(ResourceType.ENERGY, 5000.0f);
-        supplies.put(ResourceType.METAL, 1000.0f);
-        supplies.put(ResourceType.FUEL, 5000.0f);
+        supplies.set(ResourceType.FOOD, 1000.0f);
+        supplies.set(ResourceType.ENERGY, 5000.0f);
+        supplies.set(ResourceType.METAL, 1000.0f);
+        supplies.set(ResourceType.FUEL, 5000.0f);
     }
 
     public boolean addShip(Ship ship) {
@@ -84,13 +119,220 @@ public class Fleet {
         ships.add(ship);
 
         // 更新统计数据
-        ShipDesign design = ship.getDesign();
-        shipCountByDesign.merge(design, 1, Integer::sum);
+        updateFleetStats();
+        return true;
+    }
+
+    /**
+     * 批量加入同一设计的舰船，以压缩编队保存，不逐艘创建 Ship 对象
+     * @return 数量无效时返回false
+     */
+    public boolean addShips(ShipDesign design, int count) {
+        if (design == null || count <= 0) {
+            return false;
+        }
+        ShipStack stack = stacks.get(design);
+        addStacked(stack != null ? stack.getRepresentative() : new Ship(design.getName(), design, faction.get()), count);
 
         updateFleetStats();
         return true;
     }
 
+    // 以代表舰加入编队；已有同设计编队时只增加数量
+    private void addStacked(Ship representative, int count) {
+        ShipDesign design = representative.getDesign();
+        ShipStack stack = stacks.get(design);
+        if (stack == null) {
+            stack = new ShipStack(representative);
+            stacks.put(design, stack);
+        }
+        stack.add(count);
+        stackedShipCount += count;
+        onShipsAdded(stack.getRepresentative(), count);
+    }
+
+    // 从编队中移除舰船（击毁或拆分），数量归零时删除编队
+    private void removeStacked(ShipStack stack, int count) {
+        stack.remove(count);
+        stackedShipCount -= count;
+        onShipsRemoved(stack.getRepresentative(), count);
+        if (stack.getCount() <= 0) {
+            stacks.remove(stack.getDesign());
+        }
+    }
+
+    // 从编队中展开一艘独立舰船（尚未加入舰船列表），number 为舰船编号
+    private Ship expandFromStack(ShipStack stack, int number) {
+        Ship ship = stack.expand(stack.getDesign().getName() + " #" + number);
+        removeStacked(stack, 1);
+        return ship;
+    }
+
+    // 从编队中展开一艘承受指定伤害的舰船；先扣生命值再加入列表，账本按受损后的状态计入
+    private void detachDamaged(ShipStack stack, float damage, int number) {
+        Ship ship = expandFromStack(stack, number);
+        ship.setHitPoints(ship.getHitPoints() - damage);
+        addToShipList(ship);
+    }
+
+    /**
+     * 从指定设计的编队中展开若干艘独立舰船
+     * @return 展开的舰船，编队不足时按实际数量
+     */
+    public List<Ship> expandStack(ShipDesign design, int count) {
+        List<Ship> expanded = new ArrayList<>();
+        ShipStack stack = stacks.get(design);
+        int firstNumber = shipCountByDesign.getOrDefault(design, 0) + 1;
+        while (stack != null && stack.getCount() > 0 && expanded.size() < count) {
+            expanded.add(expandFromStack(stack, firstNumber + expanded.size()));
+        }
+        if (!expanded.isEmpty()) {
+            ships.addAll(expanded); // 一次列表变更
+            updateFleetStats();
+        }
+        return expanded;
+    }
+
+    /**
+     * 开始批量写回伤亡：之后击毁和展开的舰船只记入工作集，在 commitCasualties() 时一次提交到舰船列表，
+     * 列表监听器（包括界面）只收到一次变更事件。批处理期间 getShips() 和舰船数量仍是开始时的状态
+     */
+    public void beginCasualties() {
+        if (pendingAdded == null) {
+            pendingAdded = new ArrayList<>();
+            pendingRemoved = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+    }
+
+    /**
+     * 提交批处理中的舰船增删，作为一次列表变更事件
+     */
+    public void commitCasualties() {
+        if (pendingAdded == null) {
+            return;
+        }
+        List<Ship> added = pendingAdded;
+        Set<Ship> removed = pendingRemoved;
+        pendingAdded = null;
+        pendingRemoved = null;
+
+        if (removed.isEmpty()) {
+            if (!added.isEmpty()) {
+                ships.addAll(added);
+            }
+        } else if (added.isEmpty()) {
+            ships.removeAll(removed);
+        } else {
+            // 同时有增删时整体替换，仍是一次变更
+            List<Ship> next = new ArrayList<>(ships.size() - removed.size() + added.size());
+            for (Ship ship : ships) {
+                if (!removed.contains(ship)) {
+                    next.add(ship);
+                }
+            }
+            next.addAll(added);
+            ships.setAll(next);
+        }
+    }
+
+    /**
+     * 移除被击毁的独立舰船；批处理中只记入工作集
+     */
+    public void removeDestroyed(Ship ship) {
+        if (pendingRemoved != null) {
+            if (!pendingAdded.remove(ship)) {
+                pendingRemoved.add(ship);
+            }
+        } else {
+            ships.remove(ship);
+        }
+    }
+
+    private void addToShipList(Ship ship) {
+        if (pendingAdded != null) {
+            pendingAdded.add(ship);
+        } else {
+            ships.add(ship);
+        }
+    }
+
+    /**
+     * 写回编队的战斗伤亡：击毁的只扣减数量，受损的展开为独立舰船后承受各自的伤害
+     * @param damageTaken 前 damagedCount 项为各受损舰船承受的伤害
+     */
+    public void applyStackCasualties(Ship representative, int destroyed, float[] damageTaken, int damagedCount) {
+        ShipStack stack = stacks.get(representative.getDesign());
+        if (stack == null || stack.getRepresentative() != representative) {
+            return;
+        }
+        destroyed = Math.min(destroyed, stack.getCount());
+        if (destroyed > 0) {
+            removeStacked(stack, destroyed);
+        }
+        int firstNumber = shipCountByDesign.getOrDefault(representative.getDesign(), 0) + 1;
+        for (int i = 0; i < damagedCount && stack.getCount() > 0; i++) {
+            detachDamaged(stack, damageTaken[i], firstNumber + i);
+        }
+    }
+
+    /**
+     * 把满状态的独立舰船压缩进同设计的编队（同设计至少两艘或已有编队时）
+     * @return 压缩的舰船数量
+     */
+    public int compactStacks() {
+        Map<ShipDesign, List<Ship>> pristineByDesign = new LinkedHashMap<>();
+        for (Ship ship : ships) {
+            if (ship.isPristine()) {
+                pristineByDesign.computeIfAbsent(ship.getDesign(), d -> new ArrayList<>()).add(ship);
+            }
+        }
+
+        int compacted = 0;
+        for (Map.Entry<ShipDesign, List<Ship>> entry : pristineByDesign.entrySet()) {
+            List<Ship> group = entry.getValue();
+            ShipStack existing = stacks.get(entry.getKey());
+            if (existing == null ? group.size() < 2 : !existing.getRepresentative().isPristine()) {
+                continue; // 已有编队的共享状态（士气、补给等）已经变化，并入会改变这些舰船的状态
+            }
+            ships.removeAll(group);
+            addStacked(group.get(0), group.size());
+            compacted += group.size();
+        }
+        if (compacted > 0) {
+            updateFleetStats();
+        }
+        return compacted;
+    }
+
+    private void onShipsAdded(Ship ship, int count) {
+        ShipDesign design = ship.getDesign();
+        shipCountByDesign.merge(design, count, Integer::sum);
+        Integer recordedVersion = designStatsVersions.putIfAbsent(design, design.getStatsVersion());
+        if (ledgerDirty || (recordedVersion != null && recordedVersion != design.getStatsVersion())) {
+            ledgerDirty = true; // 设计属性已变化，稍后整体重建
+        } else {
+            ledger.add(ship, count);
+        }
+    }
+
+    private void onShipsRemoved(Ship ship, int count) {
+        ShipDesign design = ship.getDesign();
+        Integer recordedVersion = designStatsVersions.get(design);
+        if (ledgerDirty || recordedVersion == null || recordedVersion != design.getStatsVersion()) {
+            ledgerDirty = true; // 设计属性已变化，移除的贡献与加入时不一致，稍后整体重建
+        } else {
+            ledger.remove(ship, count);
+        }
+
+        Integer current = shipCountByDesign.get(design);
+        if (current != null && current > count) {
+            shipCountByDesign.put(design, current - count);
+        } else {
+            shipCountByDesign.remove(design);
+            designStatsVersions.remove(design);
+        }
+    }
+
     /**
      * 根据舰船设计生成唯一的舰船名称
      * @param design 舰船设计
@@ -106,20 +348,75 @@ public class Fleet {
         boolean removed = ships.remove(ship);
 
         if (removed) {
-            ShipDesign design = ship.getDesign();
-            Integer count = shipCountByDesign.get(design);
-            if (count != null && count > 1) {
-                shipCountByDesign.put(design, count - 1);
-            } else {
-                shipCountByDesign.remove(design);
-            }
-
             updateFleetStats();
         }
 
         return removed;
     }
 
+    /**
+     * 对舰队中的舰船造成伤害，同时更新统计账本
+     */
+    public void applyDamage(Ship ship, float amount) {
+        ship.setHitPoints(ship.getHitPoints() - amount);
+        ledger.damage(amount);
+    }
+
+    /**
+     * 按顺序把伤害分配到舰船上：先独立舰船，再各编队。
+     * 编队中整艘被击毁时只扣减数量，剩余不足一艘的伤害才展开出一艘独立舰船承受
+     */
+    public void distributeDamage(float damage) {
+        // 击毁和展开的舰船先记入工作集，最后一次提交到舰船列表
+        boolean batch = pendingAdded == null;
+        if (batch) {
+            beginCasualties();
+        }
+
+        for (Ship ship : ships) {
+            if (damage <= 0) break; // 伤害已经分配完
+
+            float damageToApply = Math.min(damage, ship.getHitPoints());
+            applyDamage(ship, damageToApply);
+
+            // 生命值降至0或以下的舰船移出舰队
+            if (ship.getHitPoints() <= 0) {
+                removeDestroyed(ship);
+            }
+            damage -= damageToApply;
+        }
+
+        for (ShipStack stack : new ArrayList<>(stacks.values())) {
+            if (damage <= 0) break;
+
+            float shipHitPoints = stack.getRepresentative().getHitPoints();
+            if (shipHitPoints <= 0) continue;
+
+            int destroyed = (int) Math.min(stack.getCount(), Math.floor(damage / shipHitPoints));
+            if (destroyed > 0) {
+                removeStacked(stack, destroyed);
+                damage -= destroyed * shipHitPoints;
+            }
+            if (damage > 0 && stack.getCount() > 0) {
+                detachDamaged(stack, damage, shipCountByDesign.getOrDefault(stack.getDesign(), 0) + 1);
+                damage = 0;
+            }
+        }
+
+        if (batch) {
+            commitCasualties();
+        }
+    }
+
+    private boolean designStatsChanged() {
+        for (Map.Entry<ShipDesign, Integer> entry : designStatsVersions.entrySet()) {
+            if (entry.getKey().getStatsVersion() != entry.getValue()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void transferShip(Ship ship, Fleet targetFleet) {
         if (removeShip(ship)) {
             targetFleet.addShip(ship);
@@ -127,78 +424,67 @@ public class Fleet {
     }
 
     public void updateFleetStats() {
-        // 计算总战斗力 - 修复：使用舰船设计的综合战斗力计算
-        float combatPower = ships.stream()
-                .map(ship -> ship.getDesign().calculateCombatPower())
-                .reduce(0f, Float::sum);
-        totalCombatPower.set(combatPower);
-
-        // 计算平均速度
-        if (!ships.isEmpty()) {
-            float avgSpeed = (float) ships.stream()
-                    .mapToDouble(s -> s.getDesign().getWarpSpeed())
-                    .average()
-                    .orElse(0);
-            averageSpeed.set(avgSpeed);
+        // 设计属性变化或账本失效时一次遍历重建，否则直接读取增量维护的汇总值
+        if (ledgerDirty || designStatsChanged()) {
+            ledger.rebuild(ships, stacks.values());
+            designStatsVersions.clear();
+            for (ShipDesign design : shipCountByDesign.keySet()) {
+                designStatsVersions.put(design, design.getStatsVersion());
+            }
+            ledgerDirty = false;
+        }
+
+        int shipCount = getShipCount();
+        if (shipCount > 0) {
+            totalCombatPower.set(ledger.getCombatPowerSum());
+            averageSpeed.set(ledger.getSpeedSum() / shipCount);
         } else {
             // 如果舰队没有舰船了，将战斗力和速度设为0
             totalCombatPower.set(0);
             averageSpeed.set(0);
         }
 
-        // 计算探测范围
-        float maxDetection = ships.stream()
-                .map(s -> {
-                    // 这里应该计算每艘船的探测范围
-                    return 100.0f; // 基础值
-                })
-                .max(Float::compare)
-                .orElse(100.0f);
-        detectionRange.set(maxDetection);
-
-        // 计算燃料消耗
-        float totalConsumption = ships.stream()
-                .map(s -> {
-                    float shipConsumption = s.getDesign().getEnginePower() * 0.01f;
-                    if (s.isMoving()) {
-                        shipConsumption *= 2.0f; // 移动时消耗加倍
-                    }
-                    return shipConsumption;
-                })
-                .reduce(0f, Float::sum);
-        fuelConsumption.set(totalConsumption);
+        // 探测范围：暂时使用基础值
+        detectionRange.set(100.0f);
+
+        // 燃料消耗
+        fuelConsumption.set(shipCount == 0 ? 0 : ledger.getFuelConsumption());
     }
 
     public void processTurn() {
         // 重置回合移动标志
         movedThisTurn = false;
         
-        // 处理所有舰船
+        // 处理所有舰船，同时刷新账本中随回合变化的船员、生命值和移动状态
+        ledger.beginRuntimePass();
         for (Ship ship : ships) {
             ship.processTurn();
+            ledger.accumulateRuntime(ship);
+        }
+        // 编队只处理代表舰一次，按数量计入账本
+        for (ShipStack stack : stacks.values()) {
+            stack.getRepresentative().processTurn();
+            ledger.accumulateRuntime(stack.getRepresentative(), stack.getCount());
         }
 
         // 消耗舰队补给
         consumeSupplies();
 
-
-        
         // 自动补给
         autoResupply();
 
+        // 计算补给效率
+        calculateSupplyEfficiency();
+
         // 更新舰队统计
         updateFleetStats();
     }
 
     private void consumeSupplies() {
         // 计算总消耗
-        float foodConsumption = ships.stream()
-                .mapToInt(Ship::getCurrentCrew)
-                .sum() * 0.01f;
+        float foodConsumption = ledger.getCrewTotal() * 0.01f;
 
-        float energyConsumption = ships.stream()
-                .mapToInt(s -> s.getDesign().getModules().size())
-                .sum() * 0.1f;
+        float energyConsumption = ledger.getModuleCount() * 0.1f;
 
         float fuelConsumption = this.fuelConsumption.get();
 
@@ -206,28 +492,25 @@ public class Fleet {
         consumeResource(ResourceType.FOOD, foodConsumption);
         consumeResource(ResourceType.ENERGY, energyConsumption);
         consumeResource(ResourceType.FUEL, fuelConsumption);
-
-        // 计算补给效率
-        calculateSupplyEfficiency();
     }
 
     private void consumeResource(ResourceType type, float amount) {
-        float current = supplies.getOrDefault(type, 0f);
+        float current = supplies.get(type);
         if (current >= amount) {
-            supplies.put(type, current - amount);
+            supplies.set(type, current - amount);
         } else {
-            supplies.put(type, 0f);
+            supplies.set(type, 0f);
 
             // 资源不足的影响
             if (type == ResourceType.FOOD) {
                 // 食物不足降低士气
-                for (Ship ship : ships) {
-                    ship.moraleProperty().set(ship.getMorale() - 2.0f);
+                for (Ship ship : getShipEntries()) {
+                    ship.setMorale(ship.getMorale() - 2.0f);
                 }
             } else if (type == ResourceType.ENERGY) {
                 // 能源不足降低战斗准备度
-                for (Ship ship : ships) {
-                    ship.combatReadinessProperty().set(ship.getCombatReadiness() * 0.9f);
+                for (Ship ship : getShipEntries()) {
+                    ship.setCombatReadiness(ship.getCombatReadiness() * 0.9f);
                 }
             } else if (type == ResourceType.FUEL) {
                 // 燃料不足停止移动
@@ -239,9 +522,9 @@ public class Fleet {
     private void calculateSupplyEfficiency() {
         float efficiency = 1.0f;
 
-        // 检查各种资源充足率
-        for (ResourceType type : ResourceType.values()) {
-            float current = supplies.getOrDefault(type, 0f);
+        // 检查各种补给的充足率
+        for (ResourceType type : SUPPLY_TYPES) {
+            float current = supplies.get(type);
             float required = calculateDailyRequirement(type);
 
             if (required > 0) {
@@ -256,11 +539,9 @@ public class Fleet {
     private float calculateDailyRequirement(ResourceType type) {
         switch (type) {
             case FOOD:
-                return ships.stream().mapToInt(Ship::getCurrentCrew).sum() * 0.01f;
+                return ledger.getCrewTotal() * 0.01f;
             case ENERGY:
-                return ships.stream()
-                        .mapToInt(s -> s.getDesign().getModules().size())
-                        .sum() * 0.1f;
+                return ledger.getModuleCount() * 0.1f;
             case FUEL:
                 return fuelConsumption.get();
             default:
@@ -271,79 +552,206 @@ public class Fleet {
 
 
     private void autoResupply() {
-        // 如果位于友好殖民地，自动补给
+        // 如果位于友好殖民地，完全补给；在补给范围内则按补给线比例补充
         if (isAtFriendlyColony()) {
-            resupplyFromColony();
+            resupplyFromColony(1.0f);
+        } else if (isInSupply()) {
+            resupplyFromColony(SUPPLY_LINE_RATE);
         }
     }
 
-    private boolean isAtFriendlyColony() {
-        // 检查当前位置是否有友好殖民地
-        // 简化实现
-        return false;
+    private SupplyNetwork getSupplyNetwork() {
+        Faction owner = faction.get();
+        if (owner == null || owner.getGalaxy() == null) {
+            return null;
+        }
+        return owner.getGalaxy().getSupplyNetwork();
     }
 
-    private void resupplyFromColony() {
-        // 从殖民地获取补给
-        // 这里需要访问殖民地的资源
+    private boolean isAtFriendlyColony() {
+        // 检查当前位置是否有本派系的殖民地
+        SupplyNetwork network = getSupplyNetwork();
+        return network != null && network.hasColony(faction.get(), currentHex.get());
     }
 
+    /**
+     * 当前位置是否在本派系的补给范围内
+     */
+    public boolean isInSupply() {
+        SupplyNetwork network = getSupplyNetwork();
+        return network != null && network.isInSupply(faction.get(), currentHex.get());
+    }
 
+    private void resupplyFromColony(float rate) {
+        // 按比例补足到舰队最大容量，不会削减超出容量的存量
+        for (ResourceType type : SUPPLY_TYPES) {
+            float current = supplies.get(type);
+            float missing = getMaxCapacity(type) - current;
+            if (missing > 0) {
+                supplies.set(type, current + missing * rate);
+            }
+        }
+    }
 
+    /**
+     * 下达移动命令：沿星系连接规划到目的地的最短航线，
+     * 舰队在之后的移动阶段按移动点数逐格前进（见 MovementSystem）
+     * @return 目的地可到达时返回true
+     */
     public boolean moveTo(Hex destination) {
-        if (destination == null || destination.equals(currentHex.get())) return false;
+        Hex start = currentHex.get();
+        if (destination == null || start == null || destination.equals(start)) return false;
         
-        // 检查是否已经在此回合移动过
+        // 检查是否已经在此回合下达过移动命令
         if (movedThisTurn) {
             System.out.println("舰队 " + name.get() + " 本回合已移动过，无法再次移动");
             return false;
         }
 
-        // 从当前六边形中移除舰队
-        if (currentHex.get() != null) {
-            currentHex.get().removeEntity(this);
+        Galaxy galaxy = faction.get() != null ? faction.get().getGalaxy() : null;
+        if (galaxy == null || galaxy.getHexGrid() == null) {
+            return false;
         }
-        
-        this.destination.set(destination);
-        
-        // 立即更新舰队位置
-        currentHex.set(destination);
-        
-        // 确保舰队被添加到新的六边形中
-        if (destination != null) {
-            destination.addEntity(this);
+
+        if (galaxy.getReachability().findPath(start, destination, Integer.MAX_VALUE, route) <= 0) {
+            // 没有可达航线
+            stopMovement();
+            return false;
         }
+        routeIndex = 0;
+
+        this.destination.set(destination);
+        isMoving.set(true);
         
-        isMoving.set(false);
-        
-        // 标记为已移动
+        // 标记为已下达移动命令
         movedThisTurn = true;
         
         return true;
     }
 
+    /**
+     * 取消航线，舰队停留在当前位置
+     */
+    public void stopMovement() {
+        route.clear();
+        routeIndex = 0;
+        movementPoints = 0;
+        destination.set(null);
+        isMoving.set(false);
+    }
+
+    public boolean hasRoute() {
+        return routeIndex < route.size();
+    }
+
+    /**
+     * 航线上下一个要进入的六边形，没有航线时返回null
+     */
+    public Hex getNextRouteHex() {
+        return hasRoute() ? route.get(routeIndex) : null;
+    }
+
+    public int getRemainingRouteSteps() {
+        return route.size() - routeIndex;
+    }
+
+    /**
+     * 本回合可用的移动点数：上回合剩余的点数加上舰队平均速度，
+     * 上限为速度向上取整（至少1），无法移动时为0
+     */
+    public float getMovementAllowance() {
+        float speed = averageSpeed.get();
+        if (speed <= 0 || !canMove()) {
+            return 0;
+        }
+        return Math.min(movementPoints + speed, Math.max(1.0f, (float) Math.ceil(speed)));
+    }
+
+    /**
+     * 本回合可移动的格数
+     */
+    public int getMovementRange() {
+        return (int) (getMovementAllowance() + 1e-4f);
+    }
+
+    /**
+     * 按当前速度估算到达目的地所需的回合数；已到达返回0，无法移动返回-1
+     */
+    public int getEtaTurns() {
+        int remaining = getRemainingRouteSteps();
+        if (remaining <= 0) {
+            return 0;
+        }
+        float speed = averageSpeed.get();
+        if (speed <= 0 || !canMove()) {
+            return -1;
+        }
+        float cap = Math.max(1.0f, (float) Math.ceil(speed));
+        float points = movementPoints;
+        int turns = 0;
+        while (remaining > 0) {
+            turns++;
+            points = Math.min(points + speed, cap);
+            int steps = (int) (points + 1e-4f);
+            remaining -= steps;
+            points -= steps;
+        }
+        return turns;
+    }
+
+    /**
+     * 移动阶段开始：按速度补充本回合的移动点数
+     */
+    void beginMovementPhase() {
+        movementPoints = getMovementAllowance();
+    }
+
+    /**
+     * 本回合是否还能沿航线前进一格
+     */
+    boolean canAdvance() {
+        return hasRoute() && movementPoints + 1e-4f >= 1.0f;
+    }
+
+    /**
+     * 舰队被摧毁或解散：从所在六边形和派系舰队登记中移除
+     */
+    public void destroy() {
+        Hex hex = currentHex.get();
+        if (hex != null) {
+            hex.removeEntity(this);
+            if (hex.getFleetRegistry() != null) {
+                hex.getFleetRegistry().fleetDestroyed(this);
+            }
+            // 设置当前六边形为null，表示舰队已被摧毁
+            currentHex.set(null);
+        }
+        isMoving.set(false);
+    }
+
     public boolean canMove() {
         // 检查燃料和舰船状态
-        float totalFuel = supplies.getOrDefault(ResourceType.FUEL, 0f);
+        float totalFuel = supplies.get(ResourceType.FUEL);
         if (totalFuel <= 0) return false;
 
-        boolean anyShipCanMove = ships.stream().anyMatch(Ship::canMove);
+        boolean anyShipCanMove = ships.stream().anyMatch(Ship::canMove)
+                || stacks.values().stream().anyMatch(stack -> stack.getRepresentative().canMove());
         return anyShipCanMove;
     }
 
     public void resupply(ResourceType type, float amount) {
-        supplies.put(type, supplies.getOrDefault(type, 0f) + amount);
+        supplies.add(type, amount);
     }
 
     public void resupplyAll() {
         // 补充所有资源到最大值的50%
         for (ResourceType type : ResourceType.values()) {
             float maxCapacity = getMaxCapacity(type);
-            float current = supplies.getOrDefault(type, 0f);
+            float current = supplies.get(type);
             float needed = maxCapacity * 0.5f - current;
 
             if (needed > 0) {
-                supplies.put(type, current + needed);
+                supplies.set(type, current + needed);
             }
         }
     }
@@ -354,11 +762,15 @@ public class Fleet {
             case FOOD:
             case ENERGY:
             case METAL:
-                return ships.size() * 1000;
+                return getShipCount() * 1000;
             case FUEL:
-                return ships.stream()
+                long fuelCapacity = ships.stream()
                         .mapToLong(s -> s.getDesign().getFuelCapacity())
                         .sum();
+                for (ShipStack stack : stacks.values()) {
+                    fuelCapacity += (long) stack.getCount() * stack.getDesign().getFuelCapacity();
+                }
+                return fuelCapacity;
             default:
                 return 1000;
         }
@@ -374,26 +786,55 @@ public class Fleet {
             otherFleet.removeShip(ship);
             addShip(ship);
         }
+        for (ShipStack stack : new ArrayList<>(otherFleet.stacks.values())) {
+            int count = stack.getCount();
+            otherFleet.removeStacked(stack, count);
+            addStacked(stack.getRepresentative(), count);
+        }
+        otherFleet.updateFleetStats();
+
+        // 合并后把满状态的同设计舰船压缩成编队
+        compactStacks();
+        updateFleetStats();
 
         // 转移补给（部分）
-        for (Map.Entry<ResourceType, Float> entry : otherFleet.getSupplies().entrySet()) {
-            resupply(entry.getKey(), entry.getValue() * 0.5f);
-        }
+        supplies.addScaled(otherFleet.supplies, 0.5f);
     }
 
     public Fleet splitFleet(String newFleetName, List<Ship> shipsToTransfer) {
+        return splitFleet(newFleetName, shipsToTransfer, Collections.emptyMap());
+    }
+
+    /**
+     * 拆分舰队
+     * @param shipsToTransfer 转移的独立舰船；编队的代表舰表示整个编队一起转移
+     * @param stackedToTransfer 从各设计的编队中转移的数量，这些舰船展开为独立舰船后转移
+     */
+    public Fleet splitFleet(String newFleetName, List<Ship> shipsToTransfer, Map<ShipDesign, Integer> stackedToTransfer) {
         Fleet newFleet = new Fleet(newFleetName, faction.get(), currentHex.get());
 
-        for (Ship ship : shipsToTransfer) {
+        List<Ship> transfers = new ArrayList<>(shipsToTransfer);
+        for (Map.Entry<ShipDesign, Integer> entry : stackedToTransfer.entrySet()) {
+            transfers.addAll(expandStack(entry.getKey(), entry.getValue()));
+        }
+
+        for (Ship ship : transfers) {
+            ShipStack stack = stacks.get(ship.getDesign());
             if (ships.contains(ship)) {
                 removeShip(ship);
                 newFleet.addShip(ship);
+            } else if (stack != null && stack.getRepresentative() == ship) {
+                int count = stack.getCount();
+                removeStacked(stack, count);
+                newFleet.addStacked(ship, count);
             }
         }
+        updateFleetStats();
+        newFleet.updateFleetStats();
 
         // 分配部分补给
         for (ResourceType type : ResourceType.values()) {
-            float amount = supplies.getOrDefault(type, 0f) * 0.3f; // 分配30%补给
+            float amount = supplies.get(type) * 0.3f; // 分配30%补给
             if (amount > 0) {
                 consumeResource(type, amount);
                 newFleet.resupply(type, amount);
@@ -411,6 +852,10 @@ public class Fleet {
             totalHealth += ship.getHitPoints();
             maxHealth += ship.getDesign().getHitPoints();
         }
+        for (ShipStack stack : stacks.values()) {
+            totalHealth += stack.getPooledHitPoints();
+            maxHealth += stack.getCount() * stack.getDesign().getHitPoints();
+        }
 
         if (maxHealth <= 0) return 0;
         return totalHealth / maxHealth * 100;
@@ -419,14 +864,42 @@ public class Fleet {
     public Map<ShipClass, Integer> getShipCountByClass() {
         Map<ShipClass, Integer> countByClass = new EnumMap<>(ShipClass.class);
 
-        for (Ship ship : ships) {
-            ShipClass shipClass = ship.getDesign().getShipClass();
-            countByClass.merge(shipClass, 1, Integer::sum);
+        // 按设计计数汇总（含编队），与舰船数量无关
+        for (Map.Entry<ShipDesign, Integer> entry : shipCountByDesign.entrySet()) {
+            countByClass.merge(entry.getKey().getShipClass(), entry.getValue(), Integer::sum);
         }
 
         return countByClass;
     }
 
+    /**
+     * 当前总生命值（含编队）
+     */
+    public float getCurrentHitPoints() {
+        float total = 0;
+        for (Ship ship : ships) {
+            total += ship.getHitPoints();
+        }
+        for (ShipStack stack : stacks.values()) {
+            total += stack.getPooledHitPoints();
+        }
+        return total;
+    }
+
+    /**
+     * 按设计装甲值汇总的总装甲（含编队）
+     */
+    public float getTotalArmor() {
+        float total = 0;
+        for (Ship ship : ships) {
+            total += ship.getDesign().getArmor();
+        }
+        for (ShipStack stack : stacks.values()) {
+            total += stack.getCount() * stack.getDesign().getArmor();
+        }
+        return total;
+    }
+
     public String getCompositionSummary() {
         Map<ShipClass, Integer> byClass = getShipCountByClass();
         StringBuilder summary = new StringBuilder();
@@ -441,7 +914,7 @@ public class Fleet {
 
         summary.append("\n总战斗力: ").append(String.format("%.0f", totalCombatPower.get()));
         summary.append("\n平均速度: ").append(String.format("%.1f", averageSpeed.get()));
-        summary.append("\n燃料储备: ").append(String.format("%.0f", supplies.getOrDefault(ResourceType.FUEL, 0f)));
+        summary.append("\n燃料储备: ").append(String.format("%.0f", supplies.get(ResourceType.FUEL)));
         summary.append("\n健康状况: ").append(String.format("%.1f%%", calculateTotalHealth()));
 
         return summary.toString();
@@ -461,7 +934,41 @@ public class Fleet {
     public ObjectProperty<Hex> currentHexProperty() { return currentHex; }
     public void setCurrentHex(Hex hex) { currentHex.set(hex); }
 
+    /**
+     * 独立舰船列表，不含编队中的舰船
+     */
     public ObservableList<Ship> getShips() { return ships; }
+
+    /**
+     * 独立舰船加上各编队的代表舰，用于界面列表和按舰船施加的效果；
+     * 代表舰对应的舰船数量见 getStackSize
+     */
+    public List<Ship> getShipEntries() {
+        List<Ship> entries = new ArrayList<>(ships.size() + stacks.size());
+        entries.addAll(ships);
+        for (ShipStack stack : stacks.values()) {
+            entries.add(stack.getRepresentative());
+        }
+        return entries;
+    }
+
+    /**
+     * 条目代表的舰船数量：编队代表舰返回编队数量，独立舰船返回1
+     */
+    public int getStackSize(Ship entry) {
+        return isStackRepresentative(entry) ? stacks.get(entry.getDesign()).getCount() : 1;
+    }
+
+    /**
+     * 是否为某个编队的代表舰
+     */
+    public boolean isStackRepresentative(Ship ship) {
+        ShipStack stack = stacks.get(ship.getDesign());
+        return stack != null && stack.getRepresentative() == ship;
+    }
+
+    public int getStackedShipCount() { return stackedShipCount; }
+
     public Map<ShipDesign, Integer> getShipCountByDesign() { return new HashMap<>(shipCountByDesign); }
 
     public float getTotalCombatPower() { return totalCombatPower.get(); }
@@ -488,36 +995,42 @@ public class Fleet {
     public void setCommander(FleetCommander commander) { this.commander.set(commander); }
     public ObjectProperty<FleetCommander> commanderProperty() { return commander; }
 
-    public Map<ResourceType, Float> getSupplies() { return new EnumMap<>(supplies); }
+    public Map<ResourceType, Float> getSupplies() { return supplies.toMap(); }
     public float getSupplyEfficiency() { return supplyEfficiency.get(); }
     public FloatProperty supplyEfficiencyProperty() { return supplyEfficiency; }
 
-    public int getShipCount() { return ships.size(); }
+    public int getShipCount() { return ships.size() + stackedShipCount; }
     public int getTotalCrew() {
-        return ships.stream().mapToInt(Ship::getCurrentCrew).sum();
+        return ledger.getCrewTotal();
     }
     
     public int getTotalHitPoints() {
-        return ships.stream().mapToInt(ship -> (int) ship.getHitPoints()).sum();
+        return (int) ledger.getHitPointsSum();
     }
     
-    public void moveTowardsDestination() {
-        if (destination.get() != null && !currentHex.get().equals(destination.get())) {
-            // 从当前六边形中移除舰队
-            if (currentHex.get() != null) {
-                currentHex.get().removeEntity(this);
-            }
-            
-            // 将舰队移动到目的地六边形
-            currentHex.set(destination.get());
-            
-            // 确保舰队被添加到新的六边形中
-            if (destination.get() != null) {
-                destination.get().addEntity(this);
-            }
-            
-            // 停止移动标志
-            isMoving.set(false);
+    /**
+     * 沿航线前进一格：消耗1点移动点数和一格的燃料，到达终点时结束移动
+     * @return 进入的六边形；没有航线或移动点数不足时返回null
+     */
+    public Hex moveTowardsDestination() {
+        if (!canAdvance() || !canMove()) {
+            return null;
+        }
+        Hex next = route.get(routeIndex++);
+
+        // 从当前六边形中移除舰队，并添加到下一个六边形
+        if (currentHex.get() != null) {
+            currentHex.get().removeEntity(this);
+        }
+        next.addEntity(this);
+
+        movementPoints -= 1.0f;
+        consumeResource(ResourceType.FUEL, fuelConsumption.get());
+
+        if (!hasRoute()) {
+            // 到达目的地
+            stopMovement();
         }
+        return next;
     }
-}
\ No newline at end of file
+}
@@ -75,8 +75,8 @@ class FleetCommander {
 
         // 领导能力影响士气
         float leadershipBonus = leadership.get() / 100.0f;
-        for (Ship ship : fleet.getShips()) {
-            ship.moraleProperty().set(ship.getMorale() * (1 + leadershipBonus * 0.1f));
+        for (Ship ship : fleet.getShipEntries()) {
+            ship.setMorale(ship.getMorale() * (1 + leadershipBonus * 0.1f));
         }
 
         // 后勤能力影响补给效率
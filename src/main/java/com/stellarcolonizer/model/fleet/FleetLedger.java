@@ -0,0 +1,109 @@
+package com.stellarcolonizer.model.fleet;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 舰队统计账本
+ * 增删舰船和受到伤害时增量维护，设计属性变化时一次遍历重建；
+ * 回合结算时随舰船处理顺带刷新船员、生命值和移动状态，舰队维护不再需要多次遍历舰船列表
+ */
+class FleetLedger {
+
+    private int crewTotal;
+    private int moduleCount;
+    private float enginePowerSum;
+    private float movingEnginePowerSum; // 移动中舰船的引擎功率，燃料消耗加倍
+    private float combatPowerSum;
+    private float speedSum;
+    private float hitPointsSum;
+
+    void add(Ship ship) {
+        apply(ship, 1);
+    }
+
+    void remove(Ship ship) {
+        apply(ship, -1);
+    }
+
+    /**
+     * 编队：按代表舰的状态计入 count 艘舰船
+     */
+    void add(Ship representative, int count) {
+        apply(representative, count);
+    }
+
+    void remove(Ship representative, int count) {
+        apply(representative, -count);
+    }
+
+    private void apply(Ship ship, int weight) {
+        ShipDesign design = ship.getDesign();
+        crewTotal += weight * ship.getCurrentCrew();
+        moduleCount += weight * design.getModules().size();
+        enginePowerSum += weight * design.getEnginePower();
+        if (ship.isMoving()) {
+            movingEnginePowerSum += weight * design.getEnginePower();
+        }
+        combatPowerSum += weight * design.calculateCombatPower();
+        speedSum += weight * design.getWarpSpeed();
+        hitPointsSum += weight * ship.getHitPoints();
+    }
+
+    /**
+     * 一次遍历重建全部统计
+     */
+    void rebuild(List<Ship> ships, Collection<ShipStack> stacks) {
+        crewTotal = 0;
+        moduleCount = 0;
+        enginePowerSum = 0;
+        movingEnginePowerSum = 0;
+        combatPowerSum = 0;
+        speedSum = 0;
+        hitPointsSum = 0;
+        for (Ship ship : ships) {
+            add(ship);
+        }
+        for (ShipStack stack : stacks) {
+            add(stack.getRepresentative(), stack.getCount());
+        }
+    }
+
+    /**
+     * 开始回合刷新：随后对每艘舰船调用 accumulateRuntime
+     */
+    void beginRuntimePass() {
+        crewTotal = 0;
+        movingEnginePowerSum = 0;
+        hitPointsSum = 0;
+    }
+
+    void accumulateRuntime(Ship ship) {
+        accumulateRuntime(ship, 1);
+    }
+
+    void accumulateRuntime(Ship ship, int count) {
+        crewTotal += count * ship.getCurrentCrew();
+        if (ship.isMoving()) {
+            movingEnginePowerSum += count * ship.getDesign().getEnginePower();
+        }
+        hitPointsSum += count * ship.getHitPoints();
+    }
+
+    void damage(float amount) {
+        hitPointsSum -= amount;
+    }
+
+    int getCrewTotal() { return crewTotal; }
+    int getModuleCount() { return moduleCount; }
+    float getCombatPowerSum() { return combatPowerSum; }
+    float getSpeedSum() { return speedSum; }
+    float getHitPointsSum() { return hitPointsSum; }
+
+    /**
+     * 每回合燃料消耗：引擎功率的1%，移动中的舰船加倍
+     */
+    float getFuelConsumption() {
+        return (enginePowerSum + movingEnginePowerSum) * 0.01f;
+    }
+}
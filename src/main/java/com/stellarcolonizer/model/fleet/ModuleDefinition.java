@@ -0,0 +1,151 @@
+// ModuleDefinition.java - 不可变的模块定义
+package com.stellarcolonizer.model.fleet;
+
+import com.stellarcolonizer.model.fleet.enums.DefenseType;
+import com.stellarcolonizer.model.fleet.enums.ModuleType;
+import com.stellarcolonizer.model.galaxy.enums.ResourceType;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模块的不可变享元定义，只保存战斗和回合结算需要的数值。
+ * 数值相同的模块（不论属于哪个设计、哪个派系）共享同一个实例，可以用 == 比较；
+ * 舰船按槽位保存运行时状态（激活、完整性、弹药），不再为每个模块创建状态对象。
+ */
+public final class ModuleDefinition {
+
+    // 全局目录：所有设计和派系共享
+    private static final ConcurrentHashMap<ModuleDefinition, ModuleDefinition> CATALOG = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final ModuleType type;
+    private final int size;
+    private final int powerRequirement;
+    private final float weight;
+
+    // 武器数值（非武器为0）
+    private final boolean weapon;
+    private final float damage;
+    private final float damagePerSecond;
+    private final float accuracy;
+    private final ResourceType ammoType; // 不使用弹药时为null
+    private final int ammoCapacity;
+    private final int ammoConsumption;
+
+    // 防御数值（非防御模块类型为null）
+    private final DefenseType defenseType;
+    private final float defenseValue;
+    private final float rechargeRate;
+
+    private final int hash;
+
+    private ModuleDefinition(ShipModule module) {
+        this.name = module.getName();
+        this.type = module.getType();
+        this.size = module.getSize();
+        this.powerRequirement = module.getPowerRequirement();
+        this.weight = module.getWeight();
+
+        if (module instanceof WeaponModule) {
+            WeaponModule w = (WeaponModule) module;
+            this.weapon = true;
+            this.damage = w.getDamage();
+            this.damagePerSecond = w.calculateDamagePerSecond();
+            this.accuracy = w.getAccuracy();
+            this.ammoType = w.usesAmmo() ? w.getAmmoType() : null;
+            this.ammoCapacity = w.usesAmmo() ? w.getAmmoCapacity() : 0;
+            this.ammoConsumption = w.usesAmmo() ? w.getAmmoConsumption() : 0;
+        } else {
+            this.weapon = false;
+            this.damage = 0;
+            this.damagePerSecond = 0;
+            this.accuracy = 0;
+            this.ammoType = null;
+            this.ammoCapacity = 0;
+            this.ammoConsumption = 0;
+        }
+
+        if (module instanceof DefenseModule) {
+            DefenseModule d = (DefenseModule) module;
+            this.defenseType = d.getDefenseType();
+            this.defenseValue = d.getDefenseValue();
+            this.rechargeRate = d.getRechargeRate();
+        } else {
+            this.defenseType = null;
+            this.defenseValue = 0;
+            this.rechargeRate = 0;
+        }
+
+        this.hash = Objects.hash(name, type, size, powerRequirement, weight, weapon, damage, damagePerSecond,
+                accuracy, ammoType, ammoCapacity, ammoConsumption, defenseType, defenseValue, rechargeRate);
+    }
+
+    /**
+     * 获取模块当前数值对应的共享定义
+     */
+    public static ModuleDefinition of(ShipModule module) {
+        ModuleDefinition definition = new ModuleDefinition(module);
+        ModuleDefinition existing = CATALOG.putIfAbsent(definition, definition);
+        return existing != null ? existing : definition;
+    }
+
+    /**
+     * 目录中不同定义的数量
+     */
+    public static int getCatalogSize() {
+        return CATALOG.size();
+    }
+
+    public String getName() { return name; }
+    public ModuleType getType() { return type; }
+    public int getSize() { return size; }
+    public int getPowerRequirement() { return powerRequirement; }
+    public float getWeight() { return weight; }
+
+    public boolean isWeapon() { return weapon; }
+    public float getDamage() { return damage; }
+    public float getDamagePerSecond() { return damagePerSecond; }
+    public float getAccuracy() { return accuracy; }
+    public boolean usesAmmo() { return ammoType != null; }
+    public ResourceType getAmmoType() { return ammoType; }
+    public int getAmmoCapacity() { return ammoCapacity; }
+    public int getAmmoConsumption() { return ammoConsumption; }
+
+    public DefenseType getDefenseType() { return defenseType; }
+    public float getDefenseValue() { return defenseValue; }
+    public float getRechargeRate() { return rechargeRate; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ModuleDefinition)) return false;
+        ModuleDefinition that = (ModuleDefinition) o;
+        return hash == that.hash
+                && size == that.size
+                && powerRequirement == that.powerRequirement
+                && Float.compare(weight, that.weight) == 0
+                && weapon == that.weapon
+                && Float.compare(damage, that.damage) == 0
+                && Float.compare(damagePerSecond, that.damagePerSecond) == 0
+                && Float.compare(accuracy, that.accuracy) == 0
+                && ammoCapacity == that.ammoCapacity
+                && ammoConsumption == that.ammoConsumption
+                && Float.compare(defenseValue, that.defenseValue) == 0
+                && Float.compare(rechargeRate, that.rechargeRate) == 0
+                && type == that.type
+                && ammoType == that.ammoType
+                && defenseType == that.defenseType
+                && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
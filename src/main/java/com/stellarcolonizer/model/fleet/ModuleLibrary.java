@@ -0,0 +1,105 @@
+// ModuleLibrary.java - 标准模块库
+package com.stellarcolonizer.model.fleet;
+
+import com.stellarcolonizer.model.fleet.enums.DefenseType;
+import com.stellarcolonizer.model.fleet.enums.ShipClass;
+import com.stellarcolonizer.model.fleet.enums.UtilityType;
+import com.stellarcolonizer.model.fleet.enums.WeaponType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 标准模块库：舰船设计器和自动设计共用的模块列表、各舰船等级的基础配置和解锁规则。
+ * 数值来自 ShipCatalog（data/ships.json）。
+ */
+public final class ModuleLibrary {
+
+    private ModuleLibrary() {
+    }
+
+    /**
+     * 创建全部标准模块（每次返回新实例，调用方可以自由修改）
+     */
+    public static List<ShipModule> createDefaultModules() {
+        List<ShipCatalog.ModuleSpec> specs = ShipCatalog.get().getModules();
+        List<ShipModule> modules = new ArrayList<>(specs.size());
+        for (ShipCatalog.ModuleSpec spec : specs) {
+            modules.add(createModule(spec));
+        }
+        return modules;
+    }
+
+    /**
+     * 按数据定义创建模块
+     */
+    public static ShipModule createModule(ShipCatalog.ModuleSpec spec) {
+        ShipModule module;
+        switch (spec.getType()) {
+            case WEAPON:
+                module = new WeaponModule(spec.getName(), WeaponType.valueOf(spec.getSubtype()), spec.getValue(), spec.getFireRate());
+                break;
+            case DEFENSE:
+                module = new DefenseModule(spec.getName(), DefenseType.valueOf(spec.getSubtype()), spec.getValue());
+                break;
+            case UTILITY:
+                module = new UtilityModule(spec.getName(), UtilityType.valueOf(spec.getSubtype()), spec.getValue());
+                break;
+            case ENGINE:
+                module = new EngineModule(spec.getValue());
+                break;
+            case POWER:
+                module = new PowerModule((int) spec.getValue());
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的模块类型: " + spec.getType());
+        }
+        module.name.set(spec.getName());
+        module.size.set(spec.getSize());
+        module.techLevel.set(spec.getTechLevel());
+        module.setRequiredTechnology(spec.getRequiredTech());
+        return module;
+    }
+
+    /**
+     * 为设计添加舰船等级对应的船体、引擎和发电机
+     */
+    public static void addBaseModules(ShipDesign design, ShipClass shipClass) {
+        ShipCatalog.HullSpec hull = ShipCatalog.get().getHull(shipClass);
+        HullModule hullModule = new HullModule(hull.getHullSize());
+        hullModule.setRequiredTechnology(hull.getHullTech());
+        design.addModule(hullModule);
+        design.addModule(new EngineModule(hull.getEnginePower()));
+        design.addModule(new PowerModule(hull.getPowerOutput()));
+    }
+
+    /**
+     * 舰船等级是否已由科技解锁
+     */
+    public static boolean isShipClassUnlocked(ShipClass shipClass, Set<String> researchedTechs) {
+        String unlockTech = ShipCatalog.get().getHull(shipClass).getUnlockTech();
+        return unlockTech == null || researchedTechs.contains(unlockTech);
+    }
+
+    /**
+     * 根据已研发的科技计算船体空间乘数
+     * @param researchedTechs 已研发的科技ID集合
+     * @return 船体空间乘数
+     */
+    public static float calculateHullSizeMultiplier(Set<String> researchedTechs) {
+        float multiplier = 1.0f;
+
+        // 船体强化科技提供1.2倍加成
+        if (researchedTechs.contains("hull_reinforcement")) {
+            multiplier += 0.2f;
+        }
+
+        // 高级船体强化科技额外提供0.3倍加成
+        if (researchedTechs.contains("advanced_hull_reinforcement")) {
+            multiplier += 0.3f;
+        }
+
+        return multiplier;
+    }
+}
@@ -0,0 +1,141 @@
+package com.stellarcolonizer.model.fleet;
+
+import com.stellarcolonizer.model.battle.BattleSystem;
+import com.stellarcolonizer.model.faction.Faction;
+import com.stellarcolonizer.model.galaxy.Galaxy;
+import com.stellarcolonizer.model.galaxy.Hex;
+
+import java.util.*;
+
+/**
+ * 移动阶段
+ * 每回合统一推进所有有航线的舰队：舰队按平均速度获得移动点数，
+ * 以"一格一步"的节拍同步前进，每进入一个六边形就通过六边形上的舰队索引检查敌对舰队，
+ * 相遇的舰队停止移动并记录为拦截，无需两两比较舰队。
+ * 同一节拍内敌对舰队沿同一条边相向穿过时，后穿过的一方退回边的起点，与对方在该格相遇。
+ */
+public class MovementSystem {
+
+    // 复用的临时列表，避免每回合分配
+    private final List<Fleet> movers = new ArrayList<>();
+    private final List<Fleet> nextMovers = new ArrayList<>();
+    // 本节拍的边穿越记录：起点 -> 终点 -> 穿过的舰队
+    private final Map<Hex, Map<Hex, List<Fleet>>> crossings = new HashMap<>();
+
+    /**
+     * 拦截记录：某个六边形上相遇的敌对舰队
+     */
+    public static class Interception {
+        private final Hex hex;
+        private final List<Fleet> fleets = new ArrayList<>();
+
+        Interception(Hex hex) {
+            this.hex = hex;
+        }
+
+        private void addFleet(Fleet fleet) {
+            if (!fleets.contains(fleet)) {
+                fleets.add(fleet);
+            }
+        }
+
+        public Hex getHex() { return hex; }
+        public List<Fleet> getFleets() { return Collections.unmodifiableList(fleets); }
+    }
+
+    /**
+     * 推进所有派系的舰队
+     * @param galaxy 银河系
+     * @return 本回合发生的拦截，按发生顺序排列
+     */
+    public List<Interception> advanceFleets(Galaxy galaxy) {
+        movers.clear();
+        for (Faction faction : galaxy.getFactions()) {
+            for (Fleet fleet : faction.getFleetsView()) {
+                if (fleet.hasRoute() && fleet.getCurrentHex() != null) {
+                    fleet.beginMovementPhase();
+                    movers.add(fleet);
+                }
+            }
+        }
+
+        Map<Hex, Interception> interceptions = new LinkedHashMap<>();
+
+        // 每个节拍所有舰队各前进一格，先出发的舰队不会"跳过"后出发的舰队
+        while (!movers.isEmpty()) {
+            nextMovers.clear();
+            crossings.clear();
+            for (Fleet fleet : movers) {
+                if (!fleet.hasRoute()) {
+                    continue; // 本节拍内已被拦截
+                }
+                Hex from = fleet.getCurrentHex();
+                Hex entered = fleet.moveTowardsDestination();
+                if (entered == null) {
+                    continue; // 移动点数或燃料不足，等待下回合
+                }
+                if (checkEdgeCrossing(fleet, from, entered, interceptions)
+                        || checkInterception(fleet, entered, interceptions)) {
+                    continue;
+                }
+                crossings.computeIfAbsent(from, h -> new HashMap<>())
+                        .computeIfAbsent(entered, h -> new ArrayList<>())
+                        .add(fleet);
+                if (fleet.canAdvance()) {
+                    nextMovers.add(fleet);
+                }
+            }
+            movers.clear();
+            movers.addAll(nextMovers);
+        }
+        nextMovers.clear();
+        crossings.clear();
+
+        return new ArrayList<>(interceptions.values());
+    }
+
+    /**
+     * 检查本节拍内是否有敌对舰队沿同一条边反向穿过，有则舰队退回起点，与对方在起点相遇
+     */
+    private boolean checkEdgeCrossing(Fleet fleet, Hex from, Hex entered, Map<Hex, Interception> interceptions) {
+        Map<Hex, List<Fleet>> fromEntered = crossings.get(entered);
+        List<Fleet> opposing = fromEntered != null ? fromEntered.get(from) : null;
+        if (opposing == null) {
+            return false;
+        }
+        for (Fleet other : opposing) {
+            if (BattleSystem.areHostile(fleet.getFaction(), other.getFaction())) {
+                // 双方在边上相遇，后穿过的一方退回起点（移动点数和燃料已消耗）
+                entered.removeEntity(fleet);
+                from.addEntity(fleet);
+                return checkInterception(fleet, from, interceptions);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 检查舰队进入的六边形上是否有敌对舰队，有则双方停止移动
+     */
+    private boolean checkInterception(Fleet fleet, Hex hex, Map<Hex, Interception> interceptions) {
+        Interception interception = null;
+        for (Fleet other : hex.getFleetsView()) {
+            if (other == fleet || !BattleSystem.areHostile(fleet.getFaction(), other.getFaction())) {
+                continue;
+            }
+            if (interception == null) {
+                interception = interceptions.computeIfAbsent(hex, Interception::new);
+                interception.addFleet(fleet);
+            }
+            interception.addFleet(other);
+            if (other.hasRoute()) {
+                other.stopMovement();
+            }
+        }
+        if (interception != null) {
+            fleet.stopMovement();
+            return true;
+        }
+        return false;
+    }
+}
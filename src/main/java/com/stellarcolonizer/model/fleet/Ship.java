@@ -3,7 +3,6 @@ package com.stellarcolonizer.model.fleet;
 
 import com.stellarcolonizer.model.faction.Faction;
 import com.stellarcolonizer.model.fleet.enums.DamageType;
-import com.stellarcolonizer.model.fleet.enums.DefenseType;
 import com.stellarcolonizer.model.fleet.enums.WeaponType;
 import com.stellarcolonizer.model.galaxy.Hex;
 import com.stellarcolonizer.model.galaxy.enums.ResourceType;
@@ -13,87 +12,114 @@ import java.util.*;
 
 public class Ship {
 
-    private final StringProperty name;
-    private final ObjectProperty<ShipDesign> design;
-    private final ObjectProperty<Faction> faction;
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final float INITIAL_MORALE = 80.0f; // 初始士气80%
+    private static final float INITIAL_FOOD_SUPPLY = 100.0f;
+    private static final float INITIAL_ENERGY_SUPPLY = 500.0f;
+
+    // 运行时状态使用基本类型字段保存，战斗和回合结算不经过属性监听器；
+    // 界面需要绑定时才通过 xxxProperty() 按需创建 JavaFX 属性（见 PropertyAdapters）
+    private String name;
+    private ShipDesign design;
+    private Faction faction;
 
     // 状态
-    private final FloatProperty hitPoints;
-    private final FloatProperty currentShield;
-    private final FloatProperty currentArmor;
-    private final FloatProperty integrity; // 总体完整性（0-100%）
+    private float hitPoints;
+    private float currentShield;
+    private float currentArmor;
+    private float integrity; // 总体完整性（0-100%）
 
     // 移动
-    private final ObjectProperty<Hex> currentHex;
-    private final FloatProperty fuel;
-    private final BooleanProperty isMoving;
+    private Hex currentHex;
+    private float fuel;
+    private boolean moving;
 
     // 船员
-    private final IntegerProperty currentCrew;
-    private final FloatProperty morale; // 士气（0-100%）
+    private int currentCrew;
+    private float morale; // 士气（0-100%）
 
     // 战斗状态
-    private final BooleanProperty inCombat;
-    private final FloatProperty combatReadiness; // 战斗准备度（0-100%）
+    private boolean inCombat;
+    private float combatReadiness; // 战斗准备度（0-100%）
+
+    // 模块状态：按设计槽位索引的并行数组，槽位定义来自共享的 ModuleDefinition
+    private ModuleDefinition[] slotDefinitions;
+    private boolean[] moduleActive;
+    private float[] moduleIntegrity; // 0-100%
+    private float[] slotAmmo;        // 每个武器槽位自己的弹药
+    private ShipDesign slotDesign;
+    private int slotVersion = -1;
 
-    // 模块状态
-    private final Map<ShipModule, ModuleStatus> moduleStatus;
+    // 补给，按资源类型序号索引
+    private final float[] supplies;
 
-    // 弹药和补给
-    private final Map<ResourceType, Float> ammunition;
-    private final Map<ResourceType, Float> supplies;
+    // 按需创建的属性适配器，未被界面绑定的舰船为null
+    private PropertyAdapters properties;
 
     public Ship(String name, ShipDesign design, Faction faction) {
-        this.name = new SimpleStringProperty(name);
-        this.design = new SimpleObjectProperty<>(design);
-        this.faction = new SimpleObjectProperty<>(faction);
+        this.name = name;
+        this.design = design;
+        this.faction = faction;
 
         // 初始化状态
-        this.hitPoints = new SimpleFloatProperty(design.getHitPoints());
-        this.currentShield = new SimpleFloatProperty(design.getShieldStrength());
-        this.currentArmor = new SimpleFloatProperty(design.getArmor());
-        this.integrity = new SimpleFloatProperty(100.0f);
+        this.hitPoints = design.getHitPoints();
+        this.currentShield = design.getShieldStrength();
+        this.currentArmor = design.getArmor();
+        this.integrity = 100.0f;
 
         // 初始化移动
-        this.currentHex = new SimpleObjectProperty<>(null);
-        this.fuel = new SimpleFloatProperty(design.getFuelCapacity());
-        this.isMoving = new SimpleBooleanProperty(false);
+        this.currentHex = null;
+        this.fuel = design.getFuelCapacity();
+        this.moving = false;
 
         // 初始化船员
-        this.currentCrew = new SimpleIntegerProperty(design.getCrewCapacity());
-        this.morale = new SimpleFloatProperty(80.0f); // 初始士气80%
+        this.currentCrew = design.getCrewCapacity();
+        this.morale = INITIAL_MORALE;
 
         // 初始化战斗状态
-        this.inCombat = new SimpleBooleanProperty(false);
-        this.combatReadiness = new SimpleFloatProperty(100.0f);
-
-        // 初始化模块状态
-        this.moduleStatus = new HashMap<>();
-        for (ShipModule module : design.getModules()) {
-            moduleStatus.put(module, new ModuleStatus(module));
-        }
+        this.inCombat = false;
+        this.combatReadiness = 100.0f;
 
-        // 初始化弹药和补给
-        this.ammunition = new EnumMap<>(ResourceType.class);
-        this.supplies = new EnumMap<>(ResourceType.class);
-        initializeAmmunition();
+        // 初始化模块状态（弹药装满）和补给
+        ensureSlots();
+        this.supplies = new float[RESOURCE_TYPES.length];
         initializeSupplies();
     }
 
-    private void initializeAmmunition() {
-        for (ShipModule module : design.get().getModules()) {
-            if (module instanceof WeaponModule) {
-                WeaponModule weapon = (WeaponModule) module;
-                if (weapon.usesAmmo()) {
-                    ammunition.put(weapon.getAmmoType(), (float) weapon.getAmmoCapacity());
-                }
+    /**
+     * 使槽位数组与设计对齐；设计属性版本变化时重建，
+     * 与旧槽位定义相同（同一共享实例）的槽位保留原有状态，新增槽位以满状态开始
+     */
+    private void ensureSlots() {
+        if (slotDesign == design && slotVersion == design.getStatsVersion()) {
+            return;
+        }
+        ModuleDefinition[] definitions = design.getSlotDefinitions();
+        boolean[] active = new boolean[definitions.length];
+        float[] slotIntegrity = new float[definitions.length];
+        float[] ammo = new float[definitions.length];
+        for (int i = 0; i < definitions.length; i++) {
+            if (slotDefinitions != null && i < slotDefinitions.length && slotDefinitions[i] == definitions[i]) {
+                active[i] = moduleActive[i];
+                slotIntegrity[i] = moduleIntegrity[i];
+                ammo[i] = slotAmmo[i];
+            } else {
+                active[i] = true;
+                slotIntegrity[i] = 100.0f;
+                ammo[i] = definitions[i].getAmmoCapacity();
             }
         }
+        slotDefinitions = definitions;
+        moduleActive = active;
+        moduleIntegrity = slotIntegrity;
+        slotAmmo = ammo;
+        slotDesign = design;
+        slotVersion = design.getStatsVersion();
     }
 
     private void initializeSupplies() {
-        supplies.put(ResourceType.FOOD, 100.0f); // 初始100单位食物
-        supplies.put(ResourceType.ENERGY, 500.0f); // 初始500单位能源
+        supplies[ResourceType.FOOD.ordinal()] = INITIAL_FOOD_SUPPLY; // 初始100单位食物
+        supplies[ResourceType.ENERGY.ordinal()] = INITIAL_ENERGY_SUPPLY; // 初始500单位能源
     }
 
     public void processTurn() {
@@ -126,99 +152,75 @@ public class Ship {
     }
 
     private void recoverShield() {
-        if (!inCombat.get()) {
+        if (!inCombat) {
             float rechargeRate = calculateShieldRechargeRate();
-            float newShield = Math.min(
-                    design.get().getShieldStrength(),
-                    currentShield.get() + rechargeRate
-            );
-            currentShield.set(newShield);
+            setCurrentShield(Math.min(design.getShieldStrength(), currentShield + rechargeRate));
         }
     }
 
     private float calculateShieldRechargeRate() {
-        float baseRate = 0;
-        for (ShipModule module : design.get().getModules()) {
-            if (module instanceof DefenseModule) {
-                DefenseModule defense = (DefenseModule) module;
-                if (defense.getDefenseType() == DefenseType.SHIELD) {
-                    baseRate += defense.getRechargeRate();
-                }
-            }
-        }
+        float baseRate = design.getShieldRechargeRate();
 
         // 能源充足性影响
         float energySufficiency = getEnergySufficiency();
         baseRate *= energySufficiency;
 
         // 完整性影响
-        baseRate *= integrity.get() / 100.0f;
+        baseRate *= integrity / 100.0f;
 
         return baseRate;
     }
 
     private void recoverArmor() {
-        if (!inCombat.get()) {
+        if (!inCombat) {
             float repairRate = calculateArmorRepairRate();
-            float newArmor = Math.min(
-                    design.get().getArmor(),
-                    currentArmor.get() + repairRate
-            );
-            currentArmor.set(newArmor);
+            setCurrentArmor(Math.min(design.getArmor(), currentArmor + repairRate));
         }
     }
 
     private float calculateArmorRepairRate() {
-        float baseRate = 0;
-        for (ShipModule module : design.get().getModules()) {
-            if (module instanceof DefenseModule) {
-                DefenseModule defense = (DefenseModule) module;
-                if (defense.getDefenseType() == DefenseType.ARMOR) {
-                    baseRate += defense.getRechargeRate();
-                }
-            }
-        }
+        float baseRate = design.getArmorRepairRate();
 
         // 需要金属资源
-        float metalAvailable = supplies.getOrDefault(ResourceType.METAL, 0f);
-        if (metalAvailable < 1.0f) {
+        int metal = ResourceType.METAL.ordinal();
+        if (supplies[metal] < 1.0f) {
             baseRate *= 0.1f; // 金属不足时修复速度大幅降低
         } else {
-            supplies.put(ResourceType.METAL, metalAvailable - 0.1f); // 消耗金属
+            supplies[metal] -= 0.1f; // 消耗金属
         }
 
         return baseRate;
     }
 
     private void recoverIntegrity() {
-        if (integrity.get() < 100.0f && !inCombat.get()) {
+        if (integrity < 100.0f && !inCombat) {
             float repairRate = 0.5f; // 每天恢复0.5%
 
             // 船员充足性影响
-            float crewRatio = (float) currentCrew.get() / design.get().getCrewCapacity();
+            float crewRatio = (float) currentCrew / design.getCrewCapacity();
             repairRate *= crewRatio;
 
             // 士气影响
-            repairRate *= morale.get() / 100.0f;
+            repairRate *= morale / 100.0f;
 
-            integrity.set(Math.min(100.0f, integrity.get() + repairRate));
+            setIntegrity(Math.min(100.0f, integrity + repairRate));
         }
     }
 
     private void consumeFuel() {
-        if (isMoving.get()) {
+        if (moving) {
             float fuelConsumption = calculateFuelConsumption();
-            fuel.set(fuel.get() - fuelConsumption);
+            setFuel(fuel - fuelConsumption);
 
-            if (fuel.get() <= 0) {
-                fuel.set(0);
-                isMoving.set(false);
+            if (fuel <= 0) {
+                setFuel(0);
+                setMoving(false);
             }
         }
     }
 
     private float calculateFuelConsumption() {
-        float baseConsumption = design.get().getEnginePower() * 0.01f;
+        float baseConsumption = design.getEnginePower() * 0.01f;
 
         // 舰船重量影响
         float weight = calculateTotalWeight();
@@ -228,95 +230,91 @@ public class Ship {
     }
 
     private float calculateTotalWeight() {
-        float totalWeight = 0;
-        for (ShipModule module : design.get().getModules()) {
-            totalWeight += module.getWeight();
-        }
-        return totalWeight;
+        return design.getTotalWeight();
     }
 
     private void consumeSupplies() {
         // 消耗食物
-        float foodConsumption = currentCrew.get() * 0.01f; // 每人每天0.01单位食物
-        float foodAvailable = supplies.getOrDefault(ResourceType.FOOD, 0f);
+        int food = ResourceType.FOOD.ordinal();
+        float foodConsumption = currentCrew * 0.01f; // 每人每天0.01单位食物
 
-        if (foodAvailable >= foodConsumption) {
-            supplies.put(ResourceType.FOOD, foodAvailable - foodConsumption);
+        if (supplies[food] >= foodConsumption) {
+            supplies[food] -= foodConsumption;
         } else {
             // 食物不足，士气下降
-            morale.set(morale.get() - 5.0f);
-            supplies.put(ResourceType.FOOD, 0f);
+            setMorale(morale - 5.0f);
+            supplies[food] = 0f;
         }
 
         // 消耗能源（维持系统运行）
-        float energyConsumption = design.get().getModules().stream()
-                .mapToInt(ShipModule::getPowerRequirement)
-                .sum() * 0.01f;
+        int energy = ResourceType.ENERGY.ordinal();
+        float energyConsumption = getPowerRequirement() * 0.01f;
 
-        float energyAvailable = supplies.getOrDefault(ResourceType.ENERGY, 0f);
-        if (energyAvailable >= energyConsumption) {
-            supplies.put(ResourceType.ENERGY, energyAvailable - energyConsumption);
+        if (supplies[energy] >= energyConsumption) {
+            supplies[energy] -= energyConsumption;
         } else {
             // 能源不足，系统效能降低
-            combatReadiness.set(combatReadiness.get() * 0.8f);
-            supplies.put(ResourceType.ENERGY, 0f);
+            setCombatReadiness(combatReadiness * 0.8f);
+            supplies[energy] = 0f;
         }
     }
 
+    private int getPowerRequirement() {
+        return design.getTotalPowerRequirement();
+    }
+
     private void updateMorale() {
-        float newMorale = morale.get();
+        float newMorale = morale;
 
         // 船员充足性影响
-        float crewRatio = (float) currentCrew.get() / design.get().getCrewCapacity();
+        float crewRatio = (float) currentCrew / design.getCrewCapacity();
         if (crewRatio < 0.8f) {
             newMorale -= (0.8f - crewRatio) * 10;
         }
 
         // 完整性影响
-        if (integrity.get() < 50.0f) {
-            newMorale -= (50.0f - integrity.get()) * 0.5f;
+        if (integrity < 50.0f) {
+            newMorale -= (50.0f - integrity) * 0.5f;
         }
 
         // 战斗状态影响
-        if (inCombat.get()) {
+        if (inCombat) {
             newMorale -= 2.0f;
         }
 
         // 食物充足性影响
-        float foodRatio = supplies.getOrDefault(ResourceType.FOOD, 0f) / (currentCrew.get() * 10.0f);
+        float foodRatio = supplies[ResourceType.FOOD.ordinal()] / (currentCrew * 10.0f);
         if (foodRatio < 0.5f) {
             newMorale -= (0.5f - foodRatio) * 20;
         }
 
         // 限制范围
         newMorale = Math.max(0.0f, Math.min(100.0f, newMorale));
-        morale.set(newMorale);
+        setMorale(newMorale);
     }
 
     private void updateCombatReadiness() {
-        float readiness = combatReadiness.get();
+        float readiness = combatReadiness;
 
         // 完整性影响
-        readiness *= integrity.get() / 100.0f;
+        readiness *= integrity / 100.0f;
 
         // 士气影响
-        readiness *= morale.get() / 100.0f;
+        readiness *= morale / 100.0f;
 
         // 船员充足性影响
-        float crewRatio = (float) currentCrew.get() / design.get().getCrewCapacity();
+        float crewRatio = (float) currentCrew / design.getCrewCapacity();
         readiness *= crewRatio;
 
         // 能源充足性影响
         readiness *= getEnergySufficiency();
 
-        combatReadiness.set(readiness);
+        setCombatReadiness(readiness);
     }
 
     private float getEnergySufficiency() {
-        float energyRequired = design.get().getModules().stream()
-                .mapToInt(ShipModule::getPowerRequirement)
-                .sum();
-        float energyAvailable = supplies.getOrDefault(ResourceType.ENERGY, 0f);
+        float energyRequired = getPowerRequirement();
+        float energyAvailable = supplies[ResourceType.ENERGY.ordinal()];
 
         if (energyRequired <= 0) return 1.0f;
         return Math.min(1.0f, energyAvailable / energyRequired);
@@ -329,7 +327,7 @@ public class Ship {
 
     private void checkShipStatus() {
         // 检查是否被摧毁 (仅检查生命值和船员)
-        if (hitPoints.get() <= 0 || currentCrew.get() <= 0) {
+        if (hitPoints <= 0 || currentCrew <= 0) {
             destroy();
         }
     }
@@ -340,10 +338,10 @@ public class Ship {
         float damageAmount = Math.max(1.0f, damage.getAmount() - getCurrentArmor());
         
         // 直接减少生命值
-        hitPoints.set(hitPoints.get() - damageAmount);
+        setHitPoints(hitPoints - damageAmount);
         
         // 进入战斗状态
-        inCombat.set(true);
+        setInCombat(true);
     }
 
     public float calculateDamageOutput() {
@@ -352,28 +350,24 @@ public class Ship {
         // 基于舰船等级的初始攻击力
         float baseDamage = calculateBaseDamage();
         
-        for (Map.Entry<ShipModule, ModuleStatus> entry : moduleStatus.entrySet()) {
-            ShipModule module = entry.getKey();
-            ModuleStatus status = entry.getValue();
-
-            if (module instanceof WeaponModule && status.isActive()) {
-                WeaponModule weapon = (WeaponModule) module;
-
-                // 检查弹药
-                if (weapon.usesAmmo()) {
-                    float ammo = ammunition.getOrDefault(weapon.getAmmoType(), 0f);
-                    if (ammo <= 0) continue;
-                }
-
-                // 计算有效伤害 - 仅基于武器本身属性，不受其他状态影响
-                float moduleDamage = weapon.calculateDamagePerSecond();
-                
-                // 不再应用状态修正
-                // moduleDamage *= status.getEffectiveness();
-                // moduleDamage *= combatReadiness.get() / 100.0f;
-
-                totalDamage += moduleDamage;
+        ensureSlots();
+        for (int slot : design.getWeaponSlots()) {
+            ModuleDefinition weapon = slotDefinitions[slot];
+            if (!moduleActive[slot]) continue;
+
+            // 检查弹药
+            if (weapon.usesAmmo()) {
+                if (slotAmmo[slot] <= 0) continue;
             }
+
+            // 计算有效伤害 - 仅基于武器本身属性，不受其他状态影响
+            float moduleDamage = weapon.getDamagePerSecond();
+            
+            // 不再应用状态修正
+            // moduleDamage *= moduleIntegrity[slot] / 100.0f;
+            // moduleDamage *= combatReadiness / 100.0f;
+
+            totalDamage += moduleDamage;
         }
 
         // 如果没有武器模块，返回基础攻击力；否则返回基础攻击力加上武器模块攻击力
@@ -382,47 +376,42 @@ public class Ship {
     
     private float calculateBaseDamage() {
         // 使用舰船设计中的基础伤害值计算方法
-        return design.get().calculateBaseDamage();
+        return design.calculateBaseDamage();
     }
 
     public void fireWeapons(Ship target) {
         boolean firedAnyWeapon = false;
         
-        for (Map.Entry<ShipModule, ModuleStatus> entry : moduleStatus.entrySet()) {
-            ShipModule module = entry.getKey();
-            ModuleStatus status = entry.getValue();
+        ensureSlots();
+        for (int slot : design.getWeaponSlots()) {
+            ModuleDefinition weapon = slotDefinitions[slot];
+            if (!moduleActive[slot]) continue;
 
-            if (module instanceof WeaponModule && status.isActive()) {
-                WeaponModule weapon = (WeaponModule) module;
+            // 检查弹药
+            if (weapon.usesAmmo()) {
+                if (slotAmmo[slot] <= 0) continue;
 
-                // 检查弹药
-                if (weapon.usesAmmo()) {
-                    ResourceType ammoType = weapon.getAmmoType();
-                    float currentAmmo = ammunition.getOrDefault(ammoType, 0f);
-                    if (currentAmmo <= 0) continue;
-
-                    // 消耗弹药
-                    ammunition.put(ammoType, currentAmmo - weapon.getAmmoConsumption());
-                }
+                // 消耗弹药
+                slotAmmo[slot] -= weapon.getAmmoConsumption();
+            }
 
-                // 简化攻击：必定命中，直接造成伤害
-                // 攻击力仅受武器种类影响，不受其他属性影响
-                float damage = weapon.getDamage();
+            // 简化攻击：必定命中，直接造成伤害
+            // 攻击力仅受武器种类影响，不受其他属性影响
+            float damage = weapon.getDamage();
 
-                // 应用准确性修正（武器自身属性）
-                damage *= weapon.getAccuracy() / 100.0f;
+            // 应用准确性修正（武器自身属性）
+            damage *= weapon.getAccuracy() / 100.0f;
 
-                // 不再应用状态修正
-                // damage *= status.getEffectiveness();
-                // damage *= combatReadiness.get() / 100.0f;
+            // 不再应用状态修正
+            // damage *= moduleIntegrity[slot] / 100.0f;
+            // damage *= combatReadiness / 100.0f;
 
-                // 创建伤害对象（装甲值现在作为防御力）
-                Damage weaponDamage = new Damage(damage, DamageType.KINETIC, 0);
+            // 创建伤害对象（装甲值现在作为防御力）
+            Damage weaponDamage = new Damage(damage, DamageType.KINETIC, 0);
 
-                // 对目标造成伤害
-                target.takeDamage(weaponDamage);
-                firedAnyWeapon = true;
-            }
+            // 对目标造成伤害
+            target.takeDamage(weaponDamage);
+            firedAnyWeapon = true;
         }
         
         // 如果没有武器模块或没有武器可以开火，使用基础攻击
@@ -472,137 +461,420 @@ public class Ship {
     }
 
     public void moveTo(Hex destination) {
-        if (currentHex.get() == null || destination == null) return;
+        if (currentHex == null || destination == null) return;
 
-        if (fuel.get() > 0) {
-            currentHex.set(destination);
-            isMoving.set(true);
+        if (fuel > 0) {
+            setCurrentHex(destination);
+            setMoving(true);
         }
     }
 
     public boolean canMove() {
-        return fuel.get() > 0 && integrity.get() > 30.0f && currentCrew.get() > 0;
+        return fuel > 0 && integrity > 30.0f && currentCrew > 0;
     }
 
     public void refuel(float amount) {
-        float maxFuel = design.get().getFuelCapacity();
-        fuel.set(Math.min(maxFuel, fuel.get() + amount));
+        float maxFuel = design.getFuelCapacity();
+        setFuel(Math.min(maxFuel, fuel + amount));
     }
 
     public void resupply(ResourceType type, float amount) {
-        supplies.put(type, supplies.getOrDefault(type, 0f) + amount);
+        supplies[type.ordinal()] += amount;
     }
 
+    /**
+     * 装填弹药：按槽位顺序补满使用该弹药的武器，超出弹药容量的部分丢弃
+     */
     public void loadAmmunition(ResourceType type, float amount) {
-        ammunition.put(type, ammunition.getOrDefault(type, 0f) + amount);
+        ensureSlots();
+        for (int slot : design.getWeaponSlots()) {
+            if (amount <= 0) break;
+            ModuleDefinition weapon = slotDefinitions[slot];
+            if (weapon.getAmmoType() != type) continue;
+            float loaded = Math.min(amount, weapon.getAmmoCapacity() - slotAmmo[slot]);
+            if (loaded > 0) {
+                slotAmmo[slot] += loaded;
+                amount -= loaded;
+            }
+        }
     }
 
     public void embarkCrew(int amount) {
-        int maxCrew = design.get().getCrewCapacity();
-        currentCrew.set(Math.min(maxCrew, currentCrew.get() + amount));
+        int maxCrew = design.getCrewCapacity();
+        setCurrentCrew(Math.min(maxCrew, currentCrew + amount));
     }
 
     public void disembarkCrew(int amount) {
-        currentCrew.set(Math.max(0, currentCrew.get() - amount));
+        setCurrentCrew(Math.max(0, currentCrew - amount));
     }
 
     private void destroy() {
         // 标记为被摧毁
-        integrity.set(0);
-        hitPoints.set(0);
-        currentCrew.set(0);
+        setIntegrity(0);
+        setHitPoints(0);
+        setCurrentCrew(0);
 
         // 触发被摧毁事件
         // 这里可以发送事件到游戏引擎
     }
 
+    /**
+     * 槽位模块受损：完整性低于30%时失效，降到0时损毁
+     */
+    public void damageModule(int slot, float amount) {
+        ensureSlots();
+        float value = Math.max(0, moduleIntegrity[slot] - amount);
+        moduleIntegrity[slot] = value;
+        if (value < 30) {
+            moduleActive[slot] = false;
+        }
+    }
+
+    /**
+     * 修理槽位模块：完整性恢复到30%以上时重新激活
+     */
+    public void repairModule(int slot, float amount) {
+        ensureSlots();
+        float value = Math.min(100, moduleIntegrity[slot] + amount);
+        moduleIntegrity[slot] = value;
+        if (value > 30) {
+            moduleActive[slot] = true;
+        }
+    }
+
+    /**
+     * 是否处于满状态：所有运行时状态都与新建的同设计舰船相同（生命值、护盾、装甲、完整性、燃料、船员、
+     * 士气、战备、补给、模块和弹药，且不在战斗或移动中）。满状态的同设计舰船可以压缩进舰队的编队，
+     * 展开时按新舰船重建（见 ShipStack），所以任何一项不同都不能压缩
+     */
+    public boolean isPristine() {
+        if (hitPoints < design.getHitPoints() || currentShield < design.getShieldStrength()
+                || currentArmor < design.getArmor() || integrity < 100.0f) {
+            return false;
+        }
+        if (fuel != design.getFuelCapacity() || currentCrew != design.getCrewCapacity()
+                || morale != INITIAL_MORALE || combatReadiness != 100.0f || inCombat || moving) {
+            return false;
+        }
+        for (int i = 0; i < supplies.length; i++) {
+            float initial = i == ResourceType.FOOD.ordinal() ? INITIAL_FOOD_SUPPLY
+                    : i == ResourceType.ENERGY.ordinal() ? INITIAL_ENERGY_SUPPLY : 0f;
+            if (supplies[i] != initial) {
+                return false;
+            }
+        }
+        ensureSlots();
+        for (int i = 0; i < slotDefinitions.length; i++) {
+            if (!moduleActive[i] || moduleIntegrity[i] < 100.0f || slotAmmo[i] < slotDefinitions[i].getAmmoCapacity()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 复制同设计舰船的运行时状态：护盾、装甲、完整性、燃料、船员、士气、战备、补给、模块和弹药。
+     * 编队展开时使用（见 ShipStack），生命值、位置和战斗、移动状态不复制
+     */
+    void copyRuntimeStateFrom(Ship source) {
+        setCurrentShield(source.currentShield);
+        setCurrentArmor(source.currentArmor);
+        setIntegrity(source.integrity);
+        setFuel(source.fuel);
+        setCurrentCrew(source.currentCrew);
+        setMorale(source.morale);
+        setCombatReadiness(source.combatReadiness);
+        System.arraycopy(source.supplies, 0, supplies, 0, supplies.length);
+        ensureSlots();
+        source.ensureSlots();
+        if (source.slotDefinitions == slotDefinitions) {
+            System.arraycopy(source.moduleActive, 0, moduleActive, 0, moduleActive.length);
+            System.arraycopy(source.moduleIntegrity, 0, moduleIntegrity, 0, moduleIntegrity.length);
+            System.arraycopy(source.slotAmmo, 0, slotAmmo, 0, slotAmmo.length);
+        }
+    }
+
     private void damageRandomModule(float damageAmount) {
         // 简化机制：不再损伤模块
         return;
     }
 
+    /**
+     * 按需创建的 JavaFX 属性，创建时以当前值初始化；
+     * 属性被修改时写回基本类型字段，字段通过 setter 修改时同步到已创建的属性
+     */
+    private static class PropertyAdapters {
+        StringProperty name;
+        ObjectProperty<ShipDesign> design;
+        ObjectProperty<Faction> faction;
+        FloatProperty hitPoints;
+        FloatProperty currentShield;
+        FloatProperty currentArmor;
+        FloatProperty integrity;
+        ObjectProperty<Hex> currentHex;
+        FloatProperty fuel;
+        BooleanProperty moving;
+        IntegerProperty currentCrew;
+        FloatProperty morale;
+        BooleanProperty inCombat;
+        FloatProperty combatReadiness;
+    }
+
+    private PropertyAdapters adapters() {
+        if (properties == null) {
+            properties = new PropertyAdapters();
+        }
+        return properties;
+    }
+
     // Getter 方法
-    public String getName() { return name.get(); }
-    public StringProperty nameProperty() { return name; }
+    public String getName() { return name; }
+    public StringProperty nameProperty() {
+        PropertyAdapters p = adapters();
+        if (p.name == null) {
+            p.name = new SimpleStringProperty(name);
+            p.name.addListener((obs, oldVal, newVal) -> name = newVal);
+        }
+        return p.name;
+    }
 
-    public ShipDesign getDesign() { return design.get(); }
-    public ObjectProperty<ShipDesign> designProperty() { return design; }
+    public ShipDesign getDesign() { return design; }
+    public ObjectProperty<ShipDesign> designProperty() {
+        PropertyAdapters p = adapters();
+        if (p.design == null) {
+            p.design = new SimpleObjectProperty<>(design);
+            p.design.addListener((obs, oldVal, newVal) -> design = newVal);
+        }
+        return p.design;
+    }
 
-    public Faction getFaction() { return faction.get(); }
-    public ObjectProperty<Faction> factionProperty() { return faction; }
+    public Faction getFaction() { return faction; }
+    public ObjectProperty<Faction> factionProperty() {
+        PropertyAdapters p = adapters();
+        if (p.faction == null) {
+            p.faction = new SimpleObjectProperty<>(faction);
+            p.faction.addListener((obs, oldVal, newVal) -> faction = newVal);
+        }
+        return p.faction;
+    }
 
-    public float getHitPoints() { return hitPoints.get(); }
-    public FloatProperty hitPointsProperty() { return hitPoints; }
+    public float getHitPoints() { return hitPoints; }
+    public void setHitPoints(float value) {
+        hitPoints = value;
+        if (properties != null && properties.hitPoints != null) properties.hitPoints.set(value);
+    }
+    public FloatProperty hitPointsProperty() {
+        PropertyAdapters p = adapters();
+        if (p.hitPoints == null) {
+            p.hitPoints = new SimpleFloatProperty(hitPoints);
+            p.hitPoints.addListener((obs, oldVal, newVal) -> hitPoints = newVal.floatValue());
+        }
+        return p.hitPoints;
+    }
 
-    public float getCurrentShield() { return currentShield.get(); }
-    public FloatProperty currentShieldProperty() { return currentShield; }
+    public float getCurrentShield() { return currentShield; }
+    public void setCurrentShield(float value) {
+        currentShield = value;
+        if (properties != null && properties.currentShield != null) properties.currentShield.set(value);
+    }
+    public FloatProperty currentShieldProperty() {
+        PropertyAdapters p = adapters();
+        if (p.currentShield == null) {
+            p.currentShield = new SimpleFloatProperty(currentShield);
+            p.currentShield.addListener((obs, oldVal, newVal) -> currentShield = newVal.floatValue());
+        }
+        return p.currentShield;
+    }
 
-    public float getCurrentArmor() { return currentArmor.get(); }
-    public FloatProperty currentArmorProperty() { return currentArmor; }
+    public float getCurrentArmor() { return currentArmor; }
+    public void setCurrentArmor(float value) {
+        currentArmor = value;
+        if (properties != null && properties.currentArmor != null) properties.currentArmor.set(value);
+    }
+    public FloatProperty currentArmorProperty() {
+        PropertyAdapters p = adapters();
+        if (p.currentArmor == null) {
+            p.currentArmor = new SimpleFloatProperty(currentArmor);
+            p.currentArmor.addListener((obs, oldVal, newVal) -> currentArmor = newVal.floatValue());
+        }
+        return p.currentArmor;
+    }
 
-    public float getIntegrity() { return integrity.get(); }
-    public FloatProperty integrityProperty() { return integrity; }
+    public float getIntegrity() { return integrity; }
+    private void setIntegrity(float value) {
+        integrity = value;
+        if (properties != null && properties.integrity != null) properties.integrity.set(value);
+    }
+    public FloatProperty integrityProperty() {
+        PropertyAdapters p = adapters();
+        if (p.integrity == null) {
+            p.integrity = new SimpleFloatProperty(integrity);
+            p.integrity.addListener((obs, oldVal, newVal) -> integrity = newVal.floatValue());
+        }
+        return p.integrity;
+    }
 
-    public Hex getCurrentHex() { return currentHex.get(); }
-    public ObjectProperty<Hex> currentHexProperty() { return currentHex; }
-    public void setCurrentHex(Hex hex) { currentHex.set(hex); }
+    public Hex getCurrentHex() { return currentHex; }
+    public void setCurrentHex(Hex hex) {
+        currentHex = hex;
+        if (properties != null && properties.currentHex != null) properties.currentHex.set(hex);
+    }
+    public ObjectProperty<Hex> currentHexProperty() {
+        PropertyAdapters p = adapters();
+        if (p.currentHex == null) {
+            p.currentHex = new SimpleObjectProperty<>(currentHex);
+            p.currentHex.addListener((obs, oldVal, newVal) -> currentHex = newVal);
+        }
+        return p.currentHex;
+    }
 
-    public float getFuel() { return fuel.get(); }
-    public FloatProperty fuelProperty() { return fuel; }
+    public float getFuel() { return fuel; }
+    private void setFuel(float value) {
+        fuel = value;
+        if (properties != null && properties.fuel != null) properties.fuel.set(value);
+    }
+    public FloatProperty fuelProperty() {
+        PropertyAdapters p = adapters();
+        if (p.fuel == null) {
+            p.fuel = new SimpleFloatProperty(fuel);
+            p.fuel.addListener((obs, oldVal, newVal) -> fuel = newVal.floatValue());
+        }
+        return p.fuel;
+    }
 
-    public boolean isMoving() { return isMoving.get(); }
-    public BooleanProperty movingProperty() { return isMoving; }
+    public boolean isMoving() { return moving; }
+    private void setMoving(boolean value) {
+        moving = value;
+        if (properties != null && properties.moving != null) properties.moving.set(value);
+    }
+    public BooleanProperty movingProperty() {
+        PropertyAdapters p = adapters();
+        if (p.moving == null) {
+            p.moving = new SimpleBooleanProperty(moving);
+            p.moving.addListener((obs, oldVal, newVal) -> moving = newVal);
+        }
+        return p.moving;
+    }
 
-    public int getCurrentCrew() { return currentCrew.get(); }
-    public IntegerProperty currentCrewProperty() { return currentCrew; }
+    public int getCurrentCrew() { return currentCrew; }
+    private void setCurrentCrew(int value) {
+        currentCrew = value;
+        if (properties != null && properties.currentCrew != null) properties.currentCrew.set(value);
+    }
+    public IntegerProperty currentCrewProperty() {
+        PropertyAdapters p = adapters();
+        if (p.currentCrew == null) {
+            p.currentCrew = new SimpleIntegerProperty(currentCrew);
+            p.currentCrew.addListener((obs, oldVal, newVal) -> currentCrew = newVal.intValue());
+        }
+        return p.currentCrew;
+    }
 
-    public float getMorale() { return morale.get(); }
-    public FloatProperty moraleProperty() { return morale; }
+    public float getMorale() { return morale; }
+    public void setMorale(float value) {
+        morale = value;
+        if (properties != null && properties.morale != null) properties.morale.set(value);
+    }
+    public FloatProperty moraleProperty() {
+        PropertyAdapters p = adapters();
+        if (p.morale == null) {
+            p.morale = new SimpleFloatProperty(morale);
+            p.morale.addListener((obs, oldVal, newVal) -> morale = newVal.floatValue());
+        }
+        return p.morale;
+    }
 
-    public boolean isInCombat() { return inCombat.get(); }
-    public BooleanProperty inCombatProperty() { return inCombat; }
+    public boolean isInCombat() { return inCombat; }
+    public void setInCombat(boolean value) {
+        inCombat = value;
+        if (properties != null && properties.inCombat != null) properties.inCombat.set(value);
+    }
+    public BooleanProperty inCombatProperty() {
+        PropertyAdapters p = adapters();
+        if (p.inCombat == null) {
+            p.inCombat = new SimpleBooleanProperty(inCombat);
+            p.inCombat.addListener((obs, oldVal, newVal) -> inCombat = newVal);
+        }
+        return p.inCombat;
+    }
 
-    public float getCombatReadiness() { return combatReadiness.get(); }
-    public FloatProperty combatReadinessProperty() { return combatReadiness; }
+    public float getCombatReadiness() { return combatReadiness; }
+    public void setCombatReadiness(float value) {
+        combatReadiness = value;
+        if (properties != null && properties.combatReadiness != null) properties.combatReadiness.set(value);
+    }
+    public FloatProperty combatReadinessProperty() {
+        PropertyAdapters p = adapters();
+        if (p.combatReadiness == null) {
+            p.combatReadiness = new SimpleFloatProperty(combatReadiness);
+            p.combatReadiness.addListener((obs, oldVal, newVal) -> combatReadiness = newVal.floatValue());
+        }
+        return p.combatReadiness;
+    }
+
+    // 模块状态，槽位序号与 design.getModules() 一致
+    public int getSlotCount() { ensureSlots(); return slotDefinitions.length; }
+    public ModuleDefinition getSlotDefinition(int slot) { ensureSlots(); return slotDefinitions[slot]; }
+    public boolean isModuleActive(int slot) { ensureSlots(); return moduleActive[slot]; }
+    public float getModuleIntegrity(int slot) { ensureSlots(); return moduleIntegrity[slot]; }
+    public float getSlotAmmo(int slot) { ensureSlots(); return slotAmmo[slot]; }
+
+    /**
+     * 按弹药类型汇总各武器槽位的弹药
+     */
+    public Map<ResourceType, Float> getAmmunition() {
+        ensureSlots();
+        float[] ammunition = new float[RESOURCE_TYPES.length];
+        for (int slot : design.getWeaponSlots()) {
+            ResourceType type = slotDefinitions[slot].getAmmoType();
+            if (type != null) {
+                ammunition[type.ordinal()] += slotAmmo[slot];
+            }
+        }
+        return toResourceMap(ammunition);
+    }
+
+    public Map<ResourceType, Float> getSupplies() { return toResourceMap(supplies); }
 
-    public Map<ShipModule, ModuleStatus> getModuleStatus() { return new HashMap<>(moduleStatus); }
-    public Map<ResourceType, Float> getAmmunition() { return new EnumMap<>(ammunition); }
-    public Map<ResourceType, Float> getSupplies() { return new EnumMap<>(supplies); }
+    private static Map<ResourceType, Float> toResourceMap(float[] amounts) {
+        Map<ResourceType, Float> result = new EnumMap<>(ResourceType.class);
+        for (int i = 0; i < amounts.length; i++) {
+            if (amounts[i] != 0) {
+                result.put(RESOURCE_TYPES[i], amounts[i]);
+            }
+        }
+        return result;
+    }
 
     public float getShieldPercentage() {
-        return design.get().getShieldStrength() > 0 ?
-                currentShield.get() / design.get().getShieldStrength() * 100 : 0;
+        return design.getShieldStrength() > 0 ?
+                currentShield / design.getShieldStrength() * 100 : 0;
     }
 
     public float getArmorPercentage() {
-        return design.get().getArmor() > 0 ?
-                currentArmor.get() / design.get().getArmor() * 100 : 0;
+        return design.getArmor() > 0 ?
+                currentArmor / design.getArmor() * 100 : 0;
     }
 
     public float getHitPointPercentage() {
-        return design.get().getHitPoints() > 0 ?
-                hitPoints.get() / design.get().getHitPoints() * 100 : 0;
+        return design.getHitPoints() > 0 ?
+                hitPoints / design.getHitPoints() * 100 : 0;
     }
 
     public float getFuelPercentage() {
-        return design.get().getFuelCapacity() > 0 ?
-                fuel.get() / design.get().getFuelCapacity() * 100 : 0;
+        return design.getFuelCapacity() > 0 ?
+                fuel / design.getFuelCapacity() * 100 : 0;
     }
 
     public String getStatus() {
-        if (integrity.get() <= 0) return "被摧毁";
-        if (hitPoints.get() <= 0) return "被摧毁";
-        if (currentCrew.get() <= 0) return "弃船";
-        if (fuel.get() <= 0) return "燃料耗尽";
-        if (isMoving.get()) return "移动中";
-        if (inCombat.get()) return "战斗中";
-        if (integrity.get() < 50) return "严重损伤";
-        if (morale.get() < 30) return "士气低落";
+        if (integrity <= 0) return "被摧毁";
+        if (hitPoints <= 0) return "被摧毁";
+        if (currentCrew <= 0) return "弃船";
+        if (fuel <= 0) return "燃料耗尽";
+        if (moving) return "移动中";
+        if (inCombat) return "战斗中";
+        if (integrity < 50) return "严重损伤";
+        if (morale < 30) return "士气低落";
         return "就绪";
     }
 }
-
-
-
-
-// 伤害类
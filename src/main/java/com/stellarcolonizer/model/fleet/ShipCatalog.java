@@ -0,0 +1,254 @@
+// ShipCatalog.java - 船体和模块数据目录
+package com.stellarcolonizer.model.fleet;
+
+import com.stellarcolonizer.model.fleet.enums.ModuleType;
+import com.stellarcolonizer.model.fleet.enums.ShipClass;
+import com.stellarcolonizer.util.io.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 船体和模块的数据目录，启动时从 data/ships.json 流式读取一次，之后只读。
+ * 所有派系和设计共享同一份目录，调整数值只需修改数据文件，无需重新编译。
+ */
+public final class ShipCatalog {
+
+    public static final String RESOURCE_PATH = "/data/ships.json";
+
+    private final HullSpec[] hulls = new HullSpec[ShipClass.values().length];
+    private final List<ModuleSpec> modules;
+    private final Map<String, ModuleSpec> modulesByName;
+    private final long loadTimeNanos;
+
+    // 首次访问时加载（类持有者惰性初始化，线程安全）
+    private static final class Holder {
+        static final ShipCatalog INSTANCE = load();
+    }
+
+    public static ShipCatalog get() {
+        return Holder.INSTANCE;
+    }
+
+    private static ShipCatalog load() {
+        long start = System.nanoTime();
+        InputStream stream = ShipCatalog.class.getResourceAsStream(RESOURCE_PATH);
+        if (stream == null) {
+            throw new IllegalStateException("找不到舰船数据文件: " + RESOURCE_PATH);
+        }
+        try (JsonReader reader = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            ShipCatalog catalog = new ShipCatalog(reader, start);
+            System.out.println("舰船目录已加载: " + catalog.getHullCount() + " 种船体，" + catalog.modules.size()
+                    + " 种模块，用时 " + String.format("%.2f", catalog.loadTimeNanos / 1_000_000.0) + " ms");
+            return catalog;
+        } catch (IOException e) {
+            throw new IllegalStateException("读取舰船数据文件失败: " + e.getMessage(), e);
+        }
+    }
+
+    private ShipCatalog(JsonReader reader, long start) throws IOException {
+        List<ModuleSpec> moduleList = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("hulls")) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    HullSpec hull = readHull(reader);
+                    hulls[hull.shipClass.ordinal()] = hull;
+                }
+                reader.endArray();
+            } else if (name.equals("modules")) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    moduleList.add(readModule(reader));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        for (ShipClass shipClass : ShipClass.values()) {
+            if (hulls[shipClass.ordinal()] == null) {
+                throw new IOException("缺少舰船等级 " + shipClass + " 的船体数据");
+            }
+        }
+        Map<String, ModuleSpec> byName = new HashMap<>();
+        for (ModuleSpec spec : moduleList) {
+            if (byName.put(spec.name, spec) != null) {
+                throw new IOException("模块名称重复: " + spec.name);
+            }
+        }
+        this.modules = Collections.unmodifiableList(moduleList);
+        this.modulesByName = Collections.unmodifiableMap(byName);
+        this.loadTimeNanos = System.nanoTime() - start;
+    }
+
+    private static HullSpec readHull(JsonReader reader) throws IOException {
+        HullSpec hull = new HullSpec();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            switch (field) {
+                case "class": hull.shipClass = ShipClass.valueOf(reader.nextString()); break;
+                case "hullSize": hull.hullSize = reader.nextInt(); break;
+                case "powerOutput": hull.powerOutput = reader.nextInt(); break;
+                case "crew": hull.crew = reader.nextInt(); break;
+                case "cargo": hull.cargo = reader.nextInt(); break;
+                case "fuel": hull.fuel = reader.nextInt(); break;
+                case "hitPoints": hull.hitPoints = (float) reader.nextDouble(); break;
+                case "armor": hull.armor = (float) reader.nextDouble(); break;
+                case "shieldStrength": hull.shieldStrength = (float) reader.nextDouble(); break;
+                case "evasion": hull.evasion = (float) reader.nextDouble(); break;
+                case "enginePower": hull.enginePower = (float) reader.nextDouble(); break;
+                case "warpSpeed": hull.warpSpeed = (float) reader.nextDouble(); break;
+                case "maneuverability": hull.maneuverability = (float) reader.nextDouble(); break;
+                case "maxModules": hull.maxModules = reader.nextInt(); break;
+                case "maxWeapons": hull.maxWeapons = reader.nextInt(); break;
+                case "maxUtility": hull.maxUtility = reader.nextInt(); break;
+                case "hullTech": hull.hullTech = reader.nextString(); break;
+                case "unlockTech": hull.unlockTech = reader.nextStringOrNull(); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        if (hull.shipClass == null) {
+            throw new IOException("船体数据缺少 class 字段（第 " + reader.getLine() + " 行）");
+        }
+        return hull;
+    }
+
+    private static ModuleSpec readModule(JsonReader reader) throws IOException {
+        ModuleSpec spec = new ModuleSpec();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            switch (field) {
+                case "type": spec.type = ModuleType.valueOf(reader.nextString()); break;
+                case "name": spec.name = reader.nextString(); break;
+                case "size": spec.size = reader.nextInt(); break;
+                case "techLevel": spec.techLevel = reader.nextInt(); break;
+                case "requiredTech": spec.requiredTech = reader.nextString(); break;
+                case "weaponType":
+                case "defenseType":
+                case "utilityType":
+                    spec.subtype = reader.nextString();
+                    break;
+                case "damage":
+                case "value":
+                case "thrust":
+                case "output":
+                    spec.value = (float) reader.nextDouble();
+                    break;
+                case "fireRate": spec.fireRate = (float) reader.nextDouble(); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        if (spec.type == null || spec.name == null) {
+            throw new IOException("模块数据缺少 type 或 name 字段（第 " + reader.getLine() + " 行）");
+        }
+        return spec;
+    }
+
+    public HullSpec getHull(ShipClass shipClass) {
+        return hulls[shipClass.ordinal()];
+    }
+
+    public int getHullCount() {
+        return hulls.length;
+    }
+
+    public List<ModuleSpec> getModules() {
+        return modules;
+    }
+
+    public ModuleSpec getModule(String name) {
+        return modulesByName.get(name);
+    }
+
+    public long getLoadTimeNanos() {
+        return loadTimeNanos;
+    }
+
+    /**
+     * 舰船等级的船体基础数值
+     */
+    public static final class HullSpec {
+        private ShipClass shipClass;
+        private int hullSize;
+        private int powerOutput;
+        private int crew;
+        private int cargo;
+        private int fuel;
+        private float hitPoints;
+        private float armor;
+        private float shieldStrength;
+        private float evasion;
+        private float enginePower;
+        private float warpSpeed;
+        private float maneuverability;
+        private int maxModules = Integer.MAX_VALUE;
+        private int maxWeapons = Integer.MAX_VALUE;
+        private int maxUtility = Integer.MAX_VALUE;
+        private String hullTech = "BASIC_MODULE";
+        private String unlockTech; // 为null时始终解锁
+
+        private HullSpec() {
+        }
+
+        public ShipClass getShipClass() { return shipClass; }
+        public int getHullSize() { return hullSize; }
+        public int getPowerOutput() { return powerOutput; }
+        public int getCrew() { return crew; }
+        public int getCargo() { return cargo; }
+        public int getFuel() { return fuel; }
+        public float getHitPoints() { return hitPoints; }
+        public float getArmor() { return armor; }
+        public float getShieldStrength() { return shieldStrength; }
+        public float getEvasion() { return evasion; }
+        public float getEnginePower() { return enginePower; }
+        public float getWarpSpeed() { return warpSpeed; }
+        public float getManeuverability() { return maneuverability; }
+        public int getMaxModules() { return maxModules; }
+        public int getMaxWeapons() { return maxWeapons; }
+        public int getMaxUtility() { return maxUtility; }
+        public String getHullTech() { return hullTech; }
+        public String getUnlockTech() { return unlockTech; }
+    }
+
+    /**
+     * 模块的数据定义，由 ModuleLibrary 据此创建可编辑的 ShipModule
+     */
+    public static final class ModuleSpec {
+        private ModuleType type;
+        private String name;
+        private String subtype;   // 武器、防御或功能类型
+        private float value;      // 伤害、防御值、功能值、推力或发电量
+        private float fireRate;
+        private int size;
+        private int techLevel = 1;
+        private String requiredTech = "BASIC_MODULE";
+
+        private ModuleSpec() {
+        }
+
+        public ModuleType getType() { return type; }
+        public String getName() { return name; }
+        public String getSubtype() { return subtype; }
+        public float getValue() { return value; }
+        public float getFireRate() { return fireRate; }
+        public int getSize() { return size; }
+        public int getTechLevel() { return techLevel; }
+        public String getRequiredTech() { return requiredTech; }
+    }
+}
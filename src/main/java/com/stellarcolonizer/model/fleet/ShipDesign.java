@@ -1,9 +1,13 @@
 package com.stellarcolonizer.model.fleet;
 
+import com.stellarcolonizer.model.fleet.enums.DefenseType;
+import com.stellarcolonizer.model.fleet.enums.ModuleType;
 import com.stellarcolonizer.model.fleet.enums.ShipClass;
+import com.stellarcolonizer.model.economy.ResourceVector;
 import com.stellarcolonizer.model.galaxy.enums.ResourceType;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import java.util.*;
@@ -31,8 +35,8 @@ public class ShipDesign {
 
     private final ObservableList<ShipModule> modules;
 
-    private final Map<ResourceType, Float> constructionCost;
-    private final Map<ResourceType, Float> maintenanceCost;
+    private final ResourceVector constructionCost;
+    private final ResourceVector maintenanceCost;
 
     private IntegerProperty maxModules;
     private IntegerProperty maxWeapons;
@@ -44,6 +48,24 @@ public class ShipDesign {
     // 科技加成
     private FloatProperty hullSizeMultiplier; // 船体空间加成乘数
 
+    // 派生属性缓存：模块列表或科技加成变化时失效，舰队通过统计版本号判断是否需要刷新
+    private int statsVersion = 0;
+    private boolean statsValid = false;
+    private float cachedCombatPower;
+    private float cachedStrategicValue;
+    private float cachedWeaponDamage;
+    private float cachedShieldRechargeRate;
+    private float cachedArmorRepairRate;
+    private int cachedPowerRequirement;
+    private float cachedTotalWeight;
+    private final Map<ModuleType, Integer> moduleCountByType = new EnumMap<>(ModuleType.class);
+
+    // 按模块列表顺序排列的共享模块定义（槽位），以及武器所在的槽位序号
+    private static final ModuleDefinition[] NO_SLOTS = new ModuleDefinition[0];
+    private static final int[] NO_SLOT_INDICES = new int[0];
+    private ModuleDefinition[] slotDefinitions = NO_SLOTS;
+    private int[] weaponSlots = NO_SLOT_INDICES;
+
     public ShipDesign(String name, ShipClass shipClass) {
         this.name = new SimpleStringProperty(name);
         this.shipClass = new SimpleObjectProperty<>(shipClass);
@@ -53,8 +75,8 @@ public class ShipDesign {
 
         this.modules = FXCollections.observableArrayList();
 
-        this.constructionCost = new EnumMap<>(ResourceType.class);
-        this.maintenanceCost = new EnumMap<>(ResourceType.class);
+        this.constructionCost = new ResourceVector();
+        this.maintenanceCost = new ResourceVector();
 
         initializeDesignLimits(shipClass);
 
@@ -64,152 +86,39 @@ public class ShipDesign {
         // 初始化科技加成
         this.hullSizeMultiplier = new SimpleFloatProperty(1.0f);
 
+        // 模块列表（包括外部直接修改）和科技加成变化时使缓存失效
+        this.modules.addListener((ListChangeListener<ShipModule>) change -> invalidateStats());
+        this.hullSizeMultiplier.addListener((obs, oldVal, newVal) -> invalidateStats());
+        this.shipClass.addListener((obs, oldVal, newVal) -> invalidateStats());
+
         addDefaultModules();
         updateDesign();
     }
 
+    // 船体基础数值来自舰船目录（data/ships.json）
     private void initializeBaseStats(ShipClass shipClass) {
-        switch (shipClass) {
-            case CORVETTE:
-                hullSize =  new  SimpleIntegerProperty(900);
-                powerOutput = new SimpleIntegerProperty(500);
-                crewCapacity = new SimpleIntegerProperty(50);
-                cargoCapacity = new SimpleIntegerProperty(100);
-                fuelCapacity = new SimpleIntegerProperty(200);
-
-                hitPoints = new SimpleFloatProperty(1000);
-                armor = new SimpleFloatProperty(50);
-                shieldStrength = new SimpleFloatProperty(100);
-                evasion = new SimpleFloatProperty(30);
-
-                enginePower = new SimpleFloatProperty(150);
-                warpSpeed = new SimpleFloatProperty(1.0f);
-                maneuverability = new SimpleFloatProperty(80);
-                break;
-
-            case FRIGATE:
-                hullSize = new SimpleIntegerProperty(1800);
-                powerOutput = new SimpleIntegerProperty(1200);
-                crewCapacity = new SimpleIntegerProperty(120);
-                cargoCapacity = new SimpleIntegerProperty(250);
-                fuelCapacity = new SimpleIntegerProperty(400);
-
-                hitPoints = new SimpleFloatProperty(2500);
-                armor = new SimpleFloatProperty(100);
-                shieldStrength = new SimpleFloatProperty(250);
-                evasion = new SimpleFloatProperty(20);
-
-                enginePower = new SimpleFloatProperty(120);
-                warpSpeed = new SimpleFloatProperty(1.2f);
-                maneuverability = new SimpleFloatProperty(60);
-                break;
-
-            case DESTROYER:
-                hullSize = new SimpleIntegerProperty(3500);
-                powerOutput = new SimpleIntegerProperty(2500);
-                crewCapacity = new SimpleIntegerProperty(250);
-                cargoCapacity = new SimpleIntegerProperty(500);
-                fuelCapacity = new SimpleIntegerProperty(800);
-
-                hitPoints = new SimpleFloatProperty(5000);
-                armor = new SimpleFloatProperty(200);
-                shieldStrength = new SimpleFloatProperty(500);
-                evasion = new SimpleFloatProperty(15);
-
-                enginePower = new SimpleFloatProperty(100);
-                warpSpeed = new SimpleFloatProperty(1.5f);
-                maneuverability = new SimpleFloatProperty(40);
-                break;
-
-            case CRUISER:
-                hullSize = new SimpleIntegerProperty(8000);
-                powerOutput = new SimpleIntegerProperty(5000);
-                crewCapacity = new SimpleIntegerProperty(500);
-                cargoCapacity = new SimpleIntegerProperty(1000);
-                fuelCapacity = new SimpleIntegerProperty(1500);
-
-                hitPoints = new SimpleFloatProperty(10000);
-                armor = new SimpleFloatProperty(400);
-                shieldStrength = new SimpleFloatProperty(1000);
-                evasion = new SimpleFloatProperty(10);
-
-                enginePower = new SimpleFloatProperty(80);
-                warpSpeed = new SimpleFloatProperty(2.0f);
-                maneuverability = new SimpleFloatProperty(30);
-                break;
-
-            case BATTLESHIP:
-                hullSize = new SimpleIntegerProperty(18000);
-                powerOutput = new SimpleIntegerProperty(10000);
-                crewCapacity = new SimpleIntegerProperty(1000);
-                cargoCapacity = new SimpleIntegerProperty(2000);
-                fuelCapacity = new SimpleIntegerProperty(3000);
-
-                hitPoints = new SimpleFloatProperty(20000);
-                armor = new SimpleFloatProperty(800);
-                shieldStrength = new SimpleFloatProperty(2000);
-                evasion = new SimpleFloatProperty(5);
-
-                enginePower = new SimpleFloatProperty(60);
-                warpSpeed = new SimpleFloatProperty(2.5f);
-                maneuverability = new SimpleFloatProperty(20);
-                break;
-
-            case CARRIER:
-                hullSize = new SimpleIntegerProperty(28000);
-                powerOutput = new SimpleIntegerProperty(15000);
-                crewCapacity = new SimpleIntegerProperty(1500);
-                cargoCapacity = new SimpleIntegerProperty(5000);
-                fuelCapacity = new SimpleIntegerProperty(5000);
-
-                hitPoints = new SimpleFloatProperty(30000);
-                armor = new SimpleFloatProperty(600);
-                shieldStrength = new SimpleFloatProperty(1500);
-                evasion = new SimpleFloatProperty(3);
-
-                enginePower = new SimpleFloatProperty(50);
-                warpSpeed = new SimpleFloatProperty(2.2f);
-                maneuverability = new SimpleFloatProperty(15);
-                break;
-
-            default:
-                throw new IllegalArgumentException("未知的舰船等级: " + shipClass);
-        }
+        ShipCatalog.HullSpec hull = ShipCatalog.get().getHull(shipClass);
+        hullSize = new SimpleIntegerProperty(hull.getHullSize());
+        powerOutput = new SimpleIntegerProperty(hull.getPowerOutput());
+        crewCapacity = new SimpleIntegerProperty(hull.getCrew());
+        cargoCapacity = new SimpleIntegerProperty(hull.getCargo());
+        fuelCapacity = new SimpleIntegerProperty(hull.getFuel());
+
+        hitPoints = new SimpleFloatProperty(hull.getHitPoints());
+        armor = new SimpleFloatProperty(hull.getArmor());
+        shieldStrength = new SimpleFloatProperty(hull.getShieldStrength());
+        evasion = new SimpleFloatProperty(hull.getEvasion());
+
+        enginePower = new SimpleFloatProperty(hull.getEnginePower());
+        warpSpeed = new SimpleFloatProperty(hull.getWarpSpeed());
+        maneuverability = new SimpleFloatProperty(hull.getManeuverability());
     }
 
     private void initializeDesignLimits(ShipClass shipClass) {
-        switch (shipClass) {
-            case CORVETTE:
-                maxModules = new SimpleIntegerProperty(Integer.MAX_VALUE); // 移除限制
-                maxWeapons = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                maxUtility = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                break;
-            case FRIGATE:
-                maxModules = new SimpleIntegerProperty(Integer.MAX_VALUE); // 移除限制
-                maxWeapons = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                maxUtility = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                break;
-            case DESTROYER:
-                maxModules = new SimpleIntegerProperty(Integer.MAX_VALUE); // 移除限制
-                maxWeapons = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                maxUtility = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                break;
-            case CRUISER:
-                maxModules = new SimpleIntegerProperty(Integer.MAX_VALUE); // 移除限制
-                maxWeapons = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                maxUtility = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                break;
-            case BATTLESHIP:
-                maxModules = new SimpleIntegerProperty(Integer.MAX_VALUE); // 移除限制
-                maxWeapons = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                maxUtility = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                break;
-            case CARRIER:
-                maxModules = new SimpleIntegerProperty(Integer.MAX_VALUE); // 移除限制
-                maxWeapons = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                maxUtility = new SimpleIntegerProperty(Integer.MAX_VALUE);  // 移除限制
-                break;
-        }
+        ShipCatalog.HullSpec hull = ShipCatalog.get().getHull(shipClass);
+        maxModules = new SimpleIntegerProperty(hull.getMaxModules());
+        maxWeapons = new SimpleIntegerProperty(hull.getMaxWeapons());
+        maxUtility = new SimpleIntegerProperty(hull.getMaxUtility());
     }
 
     private void addDefaultModules() {
@@ -318,17 +227,106 @@ public class ShipDesign {
         recalculateStats();
         recalculateCosts();
         validateDesign();
+        invalidateStats();
+    }
+
+    /**
+     * 使派生属性缓存失效；模块属性被科技等外部修改后需要调用
+     */
+    public void invalidateStats() {
+        statsValid = false;
+        statsVersion++;
+    }
+
+    /**
+     * 派生属性的版本号，每次缓存失效时递增
+     */
+    public int getStatsVersion() {
+        return statsVersion;
+    }
+
+    // 一次遍历模块计算所有派生属性
+    private void ensureStats() {
+        if (statsValid) {
+            return;
+        }
+
+        float weaponPower = 0;
+        float defensePower = 0;
+        float utilityValue = 0;
+        float weaponDamage = 0;
+        float shieldRecharge = 0;
+        float armorRepair = 0;
+        int powerRequirement = 0;
+        float totalWeight = 0;
+        moduleCountByType.clear();
+        ModuleDefinition[] slots = new ModuleDefinition[modules.size()];
+        int[] weaponSlotBuffer = new int[modules.size()];
+        int weaponSlotCount = 0;
+
+        for (int slot = 0; slot < slots.length; slot++) {
+            ShipModule module = modules.get(slot);
+            slots[slot] = ModuleDefinition.of(module);
+            if (module.getType() != null) {
+                moduleCountByType.merge(module.getType(), 1, Integer::sum);
+            }
+            powerRequirement += module.getPowerRequirement();
+            totalWeight += module.getWeight();
+            if (module instanceof WeaponModule) {
+                WeaponModule weapon = (WeaponModule) module;
+                weaponPower += weapon.calculateDamagePerSecond() * 5;
+                weaponPower += weapon.getRange() * 0.1f;
+                weaponPower += weapon.getAccuracy() * 0.5f;
+                weaponDamage += weapon.getDamage();
+                weaponSlotBuffer[weaponSlotCount++] = slot;
+            } else if (module instanceof DefenseModule) {
+                DefenseModule defense = (DefenseModule) module;
+                defensePower += defense.getDefenseBonus() * 3;
+                if (defense.getDefenseType() == DefenseType.SHIELD) {
+                    shieldRecharge += defense.getRechargeRate();
+                } else if (defense.getDefenseType() == DefenseType.ARMOR) {
+                    armorRepair += defense.getRechargeRate();
+                }
+            } else if (module instanceof UtilityModule) {
+                utilityValue += ((UtilityModule) module).getUtilityValue() * 10;
+            }
+        }
+
+        float combatPower = 0;
+        combatPower += hitPoints.get() * 0.1f;
+        combatPower += armor.get() * 0.5f;
+        combatPower += shieldStrength.get() * 0.8f;
+        combatPower += evasion.get() * 2.0f;
+        cachedCombatPower = combatPower + weaponPower + defensePower;
+
+        float strategicValue = 0;
+        strategicValue += warpSpeed.get() * 100;
+        strategicValue += enginePower.get() * 5;
+        strategicValue += maneuverability.get() * 2;
+        strategicValue += cargoCapacity.get() * 0.1f;
+        strategicValue += fuelCapacity.get() * 0.05f;
+        cachedStrategicValue = strategicValue + utilityValue;
+
+        cachedWeaponDamage = weaponDamage;
+        cachedShieldRechargeRate = shieldRecharge;
+        cachedArmorRepairRate = armorRepair;
+        cachedPowerRequirement = powerRequirement;
+        cachedTotalWeight = totalWeight;
+        slotDefinitions = slots;
+        weaponSlots = Arrays.copyOf(weaponSlotBuffer, weaponSlotCount);
+        statsValid = true;
     }
 
     private void recalculateStats() {
         // 从基础值开始重新计算，而不是从当前值
-        float baseHitPoints = getBaseValueForType("hitPoints");
-        float baseArmor = getBaseValueForType("armor");
-        float baseShield = getBaseValueForType("shieldStrength");
-        float baseEvasion = getBaseValueForType("evasion");
-        float baseEnginePower = getBaseValueForType("enginePower");
-        float baseWarpSpeed = getBaseValueForType("warpSpeed");
-        float baseManeuverability = getBaseValueForType("maneuverability");
+        ShipCatalog.HullSpec hull = ShipCatalog.get().getHull(shipClass.get());
+        float baseHitPoints = hull.getHitPoints();
+        float baseArmor = hull.getArmor();
+        float baseShield = hull.getShieldStrength();
+        float baseEvasion = hull.getEvasion();
+        float baseEnginePower = hull.getEnginePower();
+        float baseWarpSpeed = hull.getWarpSpeed();
+        float baseManeuverability = hull.getManeuverability();
 
         for (ShipModule module : modules) {
             baseHitPoints += module.getHitPointBonus();
@@ -351,85 +349,12 @@ public class ShipDesign {
         recalculateCapacities();
     }
 
-    // 根据舰船等级获取基础属性值
-    private float getBaseValueForType(String type) {
-        switch (shipClass.get()) {
-            case CORVETTE:
-                return switch (type) {
-                    case "hitPoints" -> 1000;
-                    case "armor" -> 50;
-                    case "shieldStrength" -> 100;
-                    case "evasion" -> 30;
-                    case "enginePower" -> 150;
-                    case "warpSpeed" -> 1.0f;
-                    case "maneuverability" -> 80;
-                    default -> 0;
-                };
-            case FRIGATE:
-                return switch (type) {
-                    case "hitPoints" -> 2500;
-                    case "armor" -> 100;
-                    case "shieldStrength" -> 250;
-                    case "evasion" -> 20;
-                    case "enginePower" -> 120;
-                    case "warpSpeed" -> 1.2f;
-                    case "maneuverability" -> 60;
-                    default -> 0;
-                };
-            case DESTROYER:
-                return switch (type) {
-                    case "hitPoints" -> 5000;
-                    case "armor" -> 200;
-                    case "shieldStrength" -> 500;
-                    case "evasion" -> 15;
-                    case "enginePower" -> 100;
-                    case "warpSpeed" -> 1.5f;
-                    case "maneuverability" -> 40;
-                    default -> 0;
-                };
-            case CRUISER:
-                return switch (type) {
-                    case "hitPoints" -> 10000;
-                    case "armor" -> 400;
-                    case "shieldStrength" -> 1000;
-                    case "evasion" -> 10;
-                    case "enginePower" -> 80;
-                    case "warpSpeed" -> 2.0f;
-                    case "maneuverability" -> 30;
-                    default -> 0;
-                };
-            case BATTLESHIP:
-                return switch (type) {
-                    case "hitPoints" -> 20000;
-                    case "armor" -> 800;
-                    case "shieldStrength" -> 2000;
-                    case "evasion" -> 5;
-                    case "enginePower" -> 60;
-                    case "warpSpeed" -> 2.5f;
-                    case "maneuverability" -> 20;
-                    default -> 0;
-                };
-            case CARRIER:
-                return switch (type) {
-                    case "hitPoints" -> 30000;
-                    case "armor" -> 600;
-                    case "shieldStrength" -> 1500;
-                    case "evasion" -> 3;
-                    case "enginePower" -> 50;
-                    case "warpSpeed" -> 2.2f;
-                    case "maneuverability" -> 15;
-                    default -> 0;
-                };
-            default:
-                return 0;
-        }
-    }
-
     private void recalculateCapacities() {
         // 从基础值开始重新计算，而不是从当前值
-        int baseCrew = getBaseCapacityValueForType("crew");
-        int baseCargo = getBaseCapacityValueForType("cargo");
-        int baseFuel = getBaseCapacityValueForType("fuel");
+        ShipCatalog.HullSpec hull = ShipCatalog.get().getHull(shipClass.get());
+        int baseCrew = hull.getCrew();
+        int baseCargo = hull.getCargo();
+        int baseFuel = hull.getFuel();
 
         for (ShipModule module : modules) {
             baseCrew += module.getCrewBonus();
@@ -442,56 +367,6 @@ public class ShipDesign {
         fuelCapacity.set(Math.max(100, baseFuel));
     }
     
-    // 根据舰船等级获取基础容量值
-    private int getBaseCapacityValueForType(String type) {
-        switch (shipClass.get()) {
-            case CORVETTE:
-                return switch (type) {
-                    case "crew" -> 50;
-                    case "cargo" -> 100;
-                    case "fuel" -> 200;
-                    default -> 0;
-                };
-            case FRIGATE:
-                return switch (type) {
-                    case "crew" -> 120;
-                    case "cargo" -> 250;
-                    case "fuel" -> 400;
-                    default -> 0;
-                };
-            case DESTROYER:
-                return switch (type) {
-                    case "crew" -> 250;
-                    case "cargo" -> 500;
-                    case "fuel" -> 800;
-                    default -> 0;
-                };
-            case CRUISER:
-                return switch (type) {
-                    case "crew" -> 500;
-                    case "cargo" -> 1000;
-                    case "fuel" -> 1500;
-                    default -> 0;
-                };
-            case BATTLESHIP:
-                return switch (type) {
-                    case "crew" -> 1000;
-                    case "cargo" -> 2000;
-                    case "fuel" -> 3000;
-                    default -> 0;
-                };
-            case CARRIER:
-                return switch (type) {
-                    case "crew" -> 1500;
-                    case "cargo" -> 5000;
-                    case "fuel" -> 5000;
-                    default -> 0;
-                };
-            default:
-                return 0;
-        }
-    }
-
     private void recalculateCosts() {
         constructionCost.clear();
         maintenanceCost.clear();
@@ -499,12 +374,12 @@ public class ShipDesign {
         for (ShipModule module : modules) {
             Map<ResourceType, Float> moduleCost = module.getConstructionCost();
             for (Map.Entry<ResourceType, Float> entry : moduleCost.entrySet()) {
-                constructionCost.merge(entry.getKey(), entry.getValue(), Float::sum);
+                constructionCost.add(entry.getKey(), entry.getValue());
             }
 
             Map<ResourceType, Float> moduleMaintenance = module.getMaintenanceCost();
             for (Map.Entry<ResourceType, Float> entry : moduleMaintenance.entrySet()) {
-                maintenanceCost.merge(entry.getKey(), entry.getValue(), Float::sum);
+                maintenanceCost.add(entry.getKey(), entry.getValue());
             }
         }
     }
@@ -531,73 +406,79 @@ public class ShipDesign {
     }
 
     public float calculateCombatPower() {
-        float combatPower = 0;
-
-        combatPower += hitPoints.get() * 0.1f;
-        combatPower += armor.get() * 0.5f;
-        combatPower += shieldStrength.get() * 0.8f;
-        combatPower += evasion.get() * 2.0f;
-
-        float weaponPower = 0;
-        for (ShipModule module : modules) {
-            if (module instanceof WeaponModule) {
-                WeaponModule weapon = (WeaponModule) module;
-                weaponPower += weapon.calculateDamagePerSecond() * 5;
-                weaponPower += weapon.getRange() * 0.1f;
-                weaponPower += weapon.getAccuracy() * 0.5f;
-            }
-        }
-
-        combatPower += weaponPower;
+        ensureStats();
+        return cachedCombatPower;
+    }
 
-        for (ShipModule module : modules) {
-            if (module instanceof DefenseModule) {
-                DefenseModule defense = (DefenseModule) module;
-                combatPower += defense.getDefenseBonus() * 3;
-            }
-        }
+    public float calculateStrategicValue() {
+        ensureStats();
+        return cachedStrategicValue;
+    }
+    
+    /**
+     * 计算舰船的总伤害输出
+     * @return 舰船的总伤害值
+     */
+    public float calculateTotalDamage() {
+        ensureStats();
+        // 武器伤害加上基于舰船等级的基础伤害值
+        return cachedWeaponDamage + calculateBaseDamage();
+    }
 
-        return combatPower;
+    /**
+     * 所有护盾模块的充能速度之和
+     */
+    public float getShieldRechargeRate() {
+        ensureStats();
+        return cachedShieldRechargeRate;
     }
 
-    public float calculateStrategicValue() {
-        float strategicValue = 0;
+    /**
+     * 所有装甲模块的修复速度之和
+     */
+    public float getArmorRepairRate() {
+        ensureStats();
+        return cachedArmorRepairRate;
+    }
 
-        strategicValue += warpSpeed.get() * 100;
-        strategicValue += enginePower.get() * 5;
-        strategicValue += maneuverability.get() * 2;
+    /**
+     * 所有模块的能源需求之和
+     */
+    public int getTotalPowerRequirement() {
+        ensureStats();
+        return cachedPowerRequirement;
+    }
 
-        strategicValue += cargoCapacity.get() * 0.1f;
-        strategicValue += fuelCapacity.get() * 0.05f;
+    /**
+     * 所有模块的重量之和
+     */
+    public float getTotalWeight() {
+        ensureStats();
+        return cachedTotalWeight;
+    }
 
-        for (ShipModule module : modules) {
-            if (module instanceof UtilityModule) {
-                UtilityModule utility = (UtilityModule) module;
-                strategicValue += utility.getUtilityValue() * 10;
-            }
-        }
+    /**
+     * 各槽位的共享模块定义，与模块列表一一对应；调用方不得修改
+     */
+    public ModuleDefinition[] getSlotDefinitions() {
+        ensureStats();
+        return slotDefinitions;
+    }
 
-        return strategicValue;
+    /**
+     * 武器模块所在的槽位序号；调用方不得修改
+     */
+    public int[] getWeaponSlots() {
+        ensureStats();
+        return weaponSlots;
     }
-    
+
     /**
-     * 计算舰船的总伤害输出
-     * @return 舰船的总伤害值
+     * 指定类型的模块数量
      */
-    public float calculateTotalDamage() {
-        float totalDamage = 0;
-        
-        for (ShipModule module : modules) {
-            if (module instanceof WeaponModule) {
-                WeaponModule weapon = (WeaponModule) module;
-                totalDamage += weapon.getDamage();
-            }
-        }
-        
-        // 添加基于舰船等级的基础伤害值
-        float baseDamage = calculateBaseDamage();
-        
-        return totalDamage + baseDamage;
+    public int getModuleCount(ModuleType type) {
+        ensureStats();
+        return moduleCountByType.getOrDefault(type, 0);
     }
     
     /**
@@ -723,8 +604,9 @@ public class ShipDesign {
 
     public ObservableList<ShipModule> getModules() { return modules; }
 
-    public Map<ResourceType, Float> getConstructionCost() { return new EnumMap<>(constructionCost); }
-    public Map<ResourceType, Float> getMaintenanceCost() { return new EnumMap<>(maintenanceCost); }
+    // 造价和维护费向量在模块变化时重新计算，调用方不要修改
+    public ResourceVector getConstructionCost() { return constructionCost; }
+    public ResourceVector getMaintenanceCost() { return maintenanceCost; }
 
     public boolean isValidDesign() { return isValidDesign.get(); }
     public BooleanProperty validDesignProperty() { return isValidDesign; }
@@ -0,0 +1,53 @@
+// ShipStack.java - 同设计舰船的压缩编队
+package com.stellarcolonizer.model.fleet;
+
+/**
+ * 同一设计、满状态舰船的压缩表示：一艘代表舰保存编队共享的运行时状态（士气、战备、补给等），
+ * 另记舰船数量，编队生命值为 数量 × 单舰生命值。
+ * 战斗、维护和界面计数按数量当作多艘舰船处理；只有某一艘受到单独的损伤或被拆分出去时才展开为独立的 Ship。
+ */
+final class ShipStack {
+
+    private final Ship representative;
+    private int count;
+
+    ShipStack(Ship representative) {
+        this.representative = representative;
+    }
+
+    Ship getRepresentative() {
+        return representative;
+    }
+
+    ShipDesign getDesign() {
+        return representative.getDesign();
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    void add(int amount) {
+        count += amount;
+    }
+
+    void remove(int amount) {
+        count -= amount;
+    }
+
+    /**
+     * 编队合计生命值
+     */
+    float getPooledHitPoints() {
+        return count * representative.getHitPoints();
+    }
+
+    /**
+     * 按代表舰的共享状态（包括燃料、船员、补给和弹药）创建一艘独立舰船（数量由调用方扣减）
+     */
+    Ship expand(String name) {
+        Ship ship = new Ship(name, getDesign(), representative.getFaction());
+        ship.copyRuntimeStateFrom(representative);
+        return ship;
+    }
+}
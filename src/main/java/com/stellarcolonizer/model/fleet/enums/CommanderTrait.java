@@ -18,9 +18,9 @@ public enum CommanderTrait {
         @Override
         public void applyEffect(Fleet fleet) {
             // 提高舰队生存能力
-            for (Ship ship : fleet.getShips()) {
-                ship.currentShieldProperty().set(ship.getCurrentShield() * 1.1f);
-                ship.currentArmorProperty().set(ship.getCurrentArmor() * 1.1f);
+            for (Ship ship : fleet.getShipEntries()) {
+                ship.setCurrentShield(ship.getCurrentShield() * 1.1f);
+                ship.setCurrentArmor(ship.getCurrentArmor() * 1.1f);
             }
         }
     },
@@ -44,8 +44,8 @@ public enum CommanderTrait {
     CHARISMATIC("魅力型", "+30领导", "大幅提高士气") {
         @Override
         public void applyEffect(Fleet fleet) {
-            for (Ship ship : fleet.getShips()) {
-                ship.moraleProperty().set(ship.getMorale() * 1.3f);
+            for (Ship ship : fleet.getShipEntries()) {
+                ship.setMorale(ship.getMorale() * 1.3f);
             }
         }
     };
@@ -0,0 +1,90 @@
+// FleetRegistry.java - 舰队登记表与六边形占用索引
+package com.stellarcolonizer.model.galaxy;
+
+import com.stellarcolonizer.model.faction.Faction;
+import com.stellarcolonizer.model.fleet.Fleet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按派系登记地图上的舰队，并记录当前有舰队驻留的六边形。
+ * 由 Hex.addEntity/removeEntity 和 Fleet.destroy 维护，
+ * 使"某派系的全部舰队"和"有舰队的六边形"无需遍历整个网格即可获得。
+ * 每个六边形上的舰队列表由 Hex 自身保存（见 Hex.getFleetsView()）。
+ */
+public class FleetRegistry {
+
+    private final Map<Faction, Set<Fleet>> fleetsByFaction;
+    private final Set<Hex> occupiedHexes;
+
+    public FleetRegistry() {
+        this.fleetsByFaction = new HashMap<>();
+        this.occupiedHexes = new LinkedHashSet<>();
+    }
+
+    /**
+     * 舰队进入六边形：首次出现在地图上的舰队会登记到其派系
+     */
+    void fleetEntered(Hex hex, Fleet fleet) {
+        occupiedHexes.add(hex);
+        if (fleet.getFaction() != null) {
+            fleetsByFaction.computeIfAbsent(fleet.getFaction(), k -> new LinkedHashSet<>()).add(fleet);
+        }
+    }
+
+    /**
+     * 舰队离开六边形：只更新占用索引，派系登记保持不变（移动途中舰队仍属于派系）
+     */
+    void fleetLeft(Hex hex, Fleet fleet) {
+        if (hex.getFleetsView().isEmpty()) {
+            occupiedHexes.remove(hex);
+        }
+    }
+
+    /**
+     * 舰队被摧毁或解散，从派系登记中移除
+     */
+    public void fleetDestroyed(Fleet fleet) {
+        Set<Fleet> fleets = fleetsByFaction.get(fleet.getFaction());
+        if (fleets != null) {
+            fleets.remove(fleet);
+            if (fleets.isEmpty()) {
+                fleetsByFaction.remove(fleet.getFaction());
+            }
+        }
+    }
+
+    /**
+     * 获取派系所有舰队的只读视图（O(1)），遍历期间不要增删舰队
+     */
+    public Collection<Fleet> getFleetsView(Faction faction) {
+        Set<Fleet> fleets = fleetsByFaction.get(faction);
+        return fleets != null ? Collections.unmodifiableSet(fleets) : Collections.emptySet();
+    }
+
+    /**
+     * 获取派系所有舰队的副本，可在遍历时增删舰队
+     */
+    public List<Fleet> getFleets(Faction faction) {
+        return new ArrayList<>(getFleetsView(faction));
+    }
+
+    public int getFleetCount(Faction faction) {
+        Set<Fleet> fleets = fleetsByFaction.get(faction);
+        return fleets != null ? fleets.size() : 0;
+    }
+
+    /**
+     * 获取当前有舰队驻留的六边形的只读视图
+     */
+    public Set<Hex> getOccupiedHexes() {
+        return Collections.unmodifiableSet(occupiedHexes);
+    }
+}
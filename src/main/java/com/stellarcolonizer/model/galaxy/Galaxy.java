@@ -240,6 +240,7 @@ public class Galaxy {
         
         // 将这个信息存储起来供视图使用
         this.hexConnections = hexConnections;
+        this.connectionVersion++;
     }
     
     /**
@@ -253,6 +254,22 @@ public class Galaxy {
     // 添加字段来存储六边形连接
     private Map<Hex, Set<Hex>> hexConnections = new HashMap<>();
     
+    // 连接关系的版本号，每次重新生成连接时递增，供缓存判断是否失效
+    private int connectionVersion = 0;
+    
+    // 共享的可达性搜索器及其对应的连接版本
+    private HexReachability reachability;
+    private int reachabilityVersion = -1;
+    
+    // 派系补给网络，每回合由 GameEngine 更新
+    private SupplyNetwork supplyNetwork;
+    
+    // 星系间跳数距离表及其对应的连接版本，超过内存上限时不使用
+    private SystemDistanceTable distanceTable;
+    private int distanceTableVersion = -1;
+    private long distanceTableMaxBytes = SystemDistanceTable.DEFAULT_MAX_BYTES;
+    private final List<Hex> pathBuffer = new ArrayList<>();
+    
     /**
      * 获取六边形连接信息
      */
@@ -260,6 +277,76 @@ public class Galaxy {
         return hexConnections;
     }
     
+    public int getConnectionVersion() {
+        return connectionVersion;
+    }
+    
+    /**
+     * 获取基于当前连接关系的可达性搜索器，连接变化后自动重建邻接表
+     */
+    public HexReachability getReachability() {
+        if (reachability == null || reachability.getHexGrid() != hexGrid) {
+            reachability = new HexReachability(hexGrid, hexConnections);
+            reachabilityVersion = connectionVersion;
+        } else if (reachabilityVersion != connectionVersion) {
+            reachability.rebuild(hexConnections);
+            reachabilityVersion = connectionVersion;
+        }
+        return reachability;
+    }
+    
+    /**
+     * 获取星系间跳数距离表，连接变化后自动重建；星系过多（超过内存上限）时返回null
+     */
+    public SystemDistanceTable getDistanceTable() {
+        if (hexGrid == null) {
+            return null;
+        }
+        if (distanceTable == null || distanceTableVersion != connectionVersion) {
+            distanceTable = new SystemDistanceTable(hexGrid, hexConnections, distanceTableMaxBytes);
+            distanceTableVersion = connectionVersion;
+        }
+        return distanceTable.isEnabled() ? distanceTable : null;
+    }
+    
+    /**
+     * 设置距离表的内存上限，0表示不使用距离表
+     */
+    public void setDistanceTableMaxBytes(long maxBytes) {
+        this.distanceTableMaxBytes = maxBytes;
+        this.distanceTable = null;
+    }
+    
+    /**
+     * 获取两个星系之间沿连接的跳数距离，不可达时返回 -1。
+     * 优先查距离表，距离表停用时按需搜索
+     */
+    public int getHopDistance(StarSystem from, StarSystem to) {
+        SystemDistanceTable table = getDistanceTable();
+        if (table != null) {
+            int distance = table.getDistance(from, to);
+            if (distance >= -1) {
+                return distance;
+            }
+        }
+        Hex fromHex = getHexForStarSystem(from);
+        Hex toHex = getHexForStarSystem(to);
+        if (fromHex == null || toHex == null) {
+            return -1;
+        }
+        return getReachability().findPath(fromHex, toHex, Integer.MAX_VALUE, pathBuffer);
+    }
+    
+    /**
+     * 获取派系补给网络
+     */
+    public SupplyNetwork getSupplyNetwork() {
+        if (supplyNetwork == null) {
+            supplyNetwork = new SupplyNetwork(this);
+        }
+        return supplyNetwork;
+    }
+    
     /**
      * 计算两个六边形坐标之间的距离
      */
@@ -317,6 +404,7 @@ public class Galaxy {
     public void setName(String name) { this.name = name; }
 
     public HexGrid getHexGrid() { return hexGrid; }
+    public FleetRegistry getFleetRegistry() { return hexGrid != null ? hexGrid.getFleetRegistry() : null; }
     public void setHexGrid(HexGrid hexGrid) { this.hexGrid = hexGrid; }
 
     public List<StarSystem> getStarSystems() { return new ArrayList<>(starSystems); }
@@ -6,6 +6,7 @@ import com.stellarcolonizer.model.fleet.Fleet;
 import com.stellarcolonizer.model.galaxy.enums.HexType;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Hex {
@@ -14,13 +15,17 @@ public class Hex {
     private HexType type;
     private StarSystem starSystem; // 如果该六边形有星系
     private List<Fleet> entities;
+    private List<Fleet> entitiesView; // entities 的只读视图
+    private FleetRegistry fleetRegistry; // 所属网格的舰队登记表
     private float visibility; // 0-1，战争迷雾
     private Faction exploredBy; // 探索过的派系
+    private int index = -1; // 在HexGrid中的整数编号，供数组化的搜索使用
 
     public Hex(CubeCoord coord) {
         this.coord = coord;
         this.type = HexType.EMPTY;
         this.entities = new ArrayList<>();
+        this.entitiesView = Collections.unmodifiableList(entities);
         this.visibility = 0.0f;
     }
 
@@ -29,12 +34,19 @@ public class Hex {
     }
 
     public void addEntity(Fleet entity) {
-        entities.add(entity);
+        if (!entities.contains(entity)) {
+            entities.add(entity);
+            if (fleetRegistry != null) {
+                fleetRegistry.fleetEntered(this, entity);
+            }
+        }
         entity.setCurrentHex(this); // 设置舰队位置
     }
 
     public void removeEntity(Fleet entity) {
-        entities.remove(entity);
+        if (entities.remove(entity) && fleetRegistry != null) {
+            fleetRegistry.fleetLeft(this, entity);
+        }
         // 不再设置为null，保持舰队的最后位置信息
     }
 
@@ -47,6 +59,13 @@ public class Hex {
         return new ArrayList<>(entities);
     }
 
+    /**
+     * 获取该六边形中舰队的只读视图（不复制），遍历期间不要增删舰队
+     */
+    public List<Fleet> getFleetsView() {
+        return entitiesView;
+    }
+
     public void updateVisibility(Faction faction, float sensorStrength) {
         // 计算该派系对这个六边形的可见度
         // 基于距离、传感器科技、是否有单位等
@@ -78,6 +97,12 @@ public class Hex {
     // Getter 和 Setter
     public CubeCoord getCoord() { return coord; }
 
+    public int getIndex() { return index; }
+    void setIndex(int index) { this.index = index; }
+
+    public FleetRegistry getFleetRegistry() { return fleetRegistry; }
+    void setFleetRegistry(FleetRegistry fleetRegistry) { this.fleetRegistry = fleetRegistry; }
+
     public HexType getType() { return type; }
     public void setType(HexType type) { this.type = type; }
 
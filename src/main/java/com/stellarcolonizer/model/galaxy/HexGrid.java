@@ -11,6 +11,8 @@ public class HexGrid {
     };
 
     private Map<CubeCoord, Hex> hexMap;
+    private List<Hex> hexesByIndex; // 按编号排列的六边形，编号即下标
+    private FleetRegistry fleetRegistry; // 网格上所有舰队的登记表
     private int radius;
     private double hexSize;
 
@@ -18,6 +20,8 @@ public class HexGrid {
         this.radius = radius;
         this.hexSize = hexSize;
         this.hexMap = new HashMap<>();
+        this.hexesByIndex = new ArrayList<>();
+        this.fleetRegistry = new FleetRegistry();
         generateGrid();
     }
 
@@ -29,6 +33,9 @@ public class HexGrid {
             for (int r = r1; r <= r2; r++) {
                 CubeCoord coord = new CubeCoord(q, r, -q - r);
                 Hex hex = new Hex(coord);
+                hex.setIndex(hexesByIndex.size());
+                hex.setFleetRegistry(fleetRegistry);
+                hexesByIndex.add(hex);
                 hexMap.put(coord, hex);
             }
         }
@@ -114,6 +121,19 @@ public class HexGrid {
         return new ArrayList<>(hexMap.values());
     }
 
+    /**
+     * 按编号获取六边形，编号范围为 [0, getHexCount())
+     */
+    public Hex getHexByIndex(int index) {
+        return hexesByIndex.get(index);
+    }
+
+    public int getHexCount() {
+        return hexesByIndex.size();
+    }
+
+    public FleetRegistry getFleetRegistry() { return fleetRegistry; }
+
     public int getRadius() { return radius; }
     public double getHexSize() { return hexSize; }
 }
\ No newline at end of file
@@ -0,0 +1,252 @@
+// HexReachability.java - 有限步数的可达性搜索
+package com.stellarcolonizer.model.galaxy;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于六边形连接图的有限范围广度优先搜索。
+ * 邻接关系以压缩数组（CSR）形式保存，队列、距离和访问标记都是按六边形编号索引的整数数组，
+ * 并在多次查询之间复用：访问标记使用"代数"戳记，每次查询只需递增代数而无需清空数组。
+ * 因此重复的范围查询不会产生任何分配。
+ *
+ * 实例内部持有可变的临时缓冲区，不是线程安全的；并行场景下每个线程应使用各自的实例。
+ */
+public class HexReachability {
+
+    private final HexGrid hexGrid;
+
+    // 邻接表（CSR）：hex i 的邻居为 adjacency[adjacencyStart[i] .. adjacencyStart[i + 1])
+    private int[] adjacencyStart;
+    private int[] adjacency;
+
+    // 查询用的临时缓冲区
+    private final int[] queue;
+    private final int[] distance;
+    private final int[] parent;
+    private final int[] visitedStamp;
+    private int generation;
+
+    /**
+     * 使用六边形网格的几何邻接关系（所有相邻六边形均视为连通）创建搜索器
+     */
+    public HexReachability(HexGrid hexGrid) {
+        this(hexGrid, null);
+    }
+
+    /**
+     * 使用指定的连接关系创建搜索器；连接关系为空时退化为几何邻接
+     */
+    public HexReachability(HexGrid hexGrid, Map<Hex, Set<Hex>> connections) {
+        this.hexGrid = hexGrid;
+        int hexCount = hexGrid.getHexCount();
+        this.queue = new int[hexCount];
+        this.distance = new int[hexCount];
+        this.parent = new int[hexCount];
+        this.visitedStamp = new int[hexCount];
+        this.generation = 0;
+        rebuild(connections);
+    }
+
+    /**
+     * 根据连接关系重建邻接表，连接变化后调用
+     */
+    public void rebuild(Map<Hex, Set<Hex>> connections) {
+        int hexCount = hexGrid.getHexCount();
+        boolean useConnections = connections != null && !connections.isEmpty();
+
+        adjacencyStart = new int[hexCount + 1];
+        int edgeCount = 0;
+        for (int i = 0; i < hexCount; i++) {
+            adjacencyStart[i] = edgeCount;
+            edgeCount += neighborsOf(hexGrid.getHexByIndex(i), connections, useConnections).size();
+        }
+        adjacencyStart[hexCount] = edgeCount;
+
+        adjacency = new int[edgeCount];
+        for (int i = 0; i < hexCount; i++) {
+            int cursor = adjacencyStart[i];
+            for (Hex neighbor : neighborsOf(hexGrid.getHexByIndex(i), connections, useConnections)) {
+                adjacency[cursor++] = neighbor.getIndex();
+            }
+        }
+    }
+
+    private Collection<Hex> neighborsOf(Hex hex, Map<Hex, Set<Hex>> connections, boolean useConnections) {
+        if (!useConnections) {
+            return hexGrid.getNeighbors(hex);
+        }
+        Set<Hex> connected = connections.get(hex);
+        return connected != null ? connected : Set.of();
+    }
+
+    /**
+     * 查找从起点出发在指定步数内可到达的六边形
+     *
+     * @param start 起点
+     * @param range 最大步数
+     * @param out   调用方提供的结果缓冲区，会被清空后按BFS顺序填充（第一个元素为起点）
+     * @return 可到达的六边形数量（包含起点）
+     */
+    public int findReachable(Hex start, int range, List<Hex> out) {
+        out.clear();
+        if (start == null || start.getIndex() < 0) {
+            return 0;
+        }
+        queue[0] = start.getIndex();
+        return search(1, range, out);
+    }
+
+    /**
+     * 多源搜索：查找距任一起点不超过指定步数的六边形
+     *
+     * @param sources 起点集合
+     * @param range   最大步数
+     * @param out     调用方提供的结果缓冲区，会被清空后填充
+     * @return 可到达的六边形数量
+     */
+    public int findReachable(Collection<Hex> sources, int range, List<Hex> out) {
+        out.clear();
+        nextGeneration();
+        int sourceCount = 0;
+        for (Hex source : sources) {
+            int index = source.getIndex();
+            if (index >= 0 && visitedStamp[index] != generation) {
+                visitedStamp[index] = generation;
+                queue[sourceCount++] = index;
+            }
+        }
+        return expand(sourceCount, range, out);
+    }
+
+    /**
+     * 查找从起点到终点的最短路径（按连接步数）
+     *
+     * @param start    起点
+     * @param goal     终点
+     * @param maxSteps 允许的最大步数
+     * @param out      调用方提供的路径缓冲区，会被清空后依次填入途经的六边形（不含起点，含终点）
+     * @return 路径步数；不可达时返回 -1，起点与终点相同时返回 0
+     */
+    public int findPath(Hex start, Hex goal, int maxSteps, List<Hex> out) {
+        out.clear();
+        if (start == null || goal == null || start.getIndex() < 0 || goal.getIndex() < 0) {
+            return -1;
+        }
+        int goalIndex = goal.getIndex();
+        if (start.getIndex() == goalIndex) {
+            return 0;
+        }
+
+        nextGeneration();
+        queue[0] = start.getIndex();
+        visitedStamp[queue[0]] = generation;
+        distance[queue[0]] = 0;
+        parent[queue[0]] = -1;
+
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int current = queue[head++];
+            int currentDistance = distance[current];
+            if (currentDistance >= maxSteps) {
+                continue;
+            }
+            for (int e = adjacencyStart[current], end = adjacencyStart[current + 1]; e < end; e++) {
+                int neighbor = adjacency[e];
+                if (visitedStamp[neighbor] != generation) {
+                    visitedStamp[neighbor] = generation;
+                    distance[neighbor] = currentDistance + 1;
+                    parent[neighbor] = current;
+                    if (neighbor == goalIndex) {
+                        return tracePath(goalIndex, out);
+                    }
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int tracePath(int goalIndex, List<Hex> out) {
+        int steps = distance[goalIndex];
+        for (int i = 0; i < steps; i++) {
+            out.add(null);
+        }
+        int node = goalIndex;
+        for (int i = steps - 1; i >= 0; i--) {
+            out.set(i, hexGrid.getHexByIndex(node));
+            node = parent[node];
+        }
+        return steps;
+    }
+
+    private int search(int sourceCount, int range, List<Hex> out) {
+        nextGeneration();
+        for (int i = 0; i < sourceCount; i++) {
+            visitedStamp[queue[i]] = generation;
+        }
+        return expand(sourceCount, range, out);
+    }
+
+    private int expand(int sourceCount, int range, List<Hex> out) {
+        for (int i = 0; i < sourceCount; i++) {
+            distance[queue[i]] = 0;
+        }
+
+        int head = 0;
+        int tail = sourceCount;
+        while (head < tail) {
+            int current = queue[head++];
+            int currentDistance = distance[current];
+            if (out != null) {
+                out.add(hexGrid.getHexByIndex(current));
+            }
+
+            if (currentDistance >= range) {
+                continue; // 已达到最大距离，不再扩展
+            }
+
+            for (int e = adjacencyStart[current], end = adjacencyStart[current + 1]; e < end; e++) {
+                int neighbor = adjacency[e];
+                if (visitedStamp[neighbor] != generation) {
+                    visitedStamp[neighbor] = generation;
+                    distance[neighbor] = currentDistance + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private void nextGeneration() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // 代数溢出前重置戳记
+            Arrays.fill(visitedStamp, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * 返回最近一次查询中到指定六边形的步数，未到达时返回 -1
+     */
+    public int getDistance(Hex hex) {
+        if (hex == null || hex.getIndex() < 0 || visitedStamp[hex.getIndex()] != generation) {
+            return -1;
+        }
+        return distance[hex.getIndex()];
+    }
+
+    /**
+     * 最近一次查询中是否到达了指定六边形
+     */
+    public boolean isReached(Hex hex) {
+        return getDistance(hex) >= 0;
+    }
+
+    public HexGrid getHexGrid() { return hexGrid; }
+}
@@ -1,6 +1,7 @@
 package com.stellarcolonizer.model.galaxy;
 
 import com.stellarcolonizer.model.colony.Colony;
+import com.stellarcolonizer.model.economy.ResourceVector;
 import com.stellarcolonizer.model.faction.Faction;
 import com.stellarcolonizer.model.galaxy.enums.PlanetTrait;
 import com.stellarcolonizer.model.galaxy.enums.PlanetType;
@@ -18,7 +19,7 @@ public class Planet {
     private Colony colony;
 
     // 资源储量
-    private Map<ResourceType, Float> resources;
+    private final ResourceVector resources;
 
     // 特性（正面和负面）
     private List<PlanetTrait> traits;
@@ -34,7 +35,7 @@ public class Planet {
         this.type = type;
         this.size = size;
         this.orbitDistance = orbitDistance;
-        this.resources = new HashMap<>();
+        this.resources = new ResourceVector();
         this.traits = new ArrayList<>();
         initializeResources();
         generateTraits();
@@ -45,14 +46,14 @@ public class Planet {
         Random random = new Random(name.hashCode());
 
         // 基础资源
-        resources.put(ResourceType.METAL, type.getBaseMetal() * size * (0.8f + random.nextFloat() * 0.4f));
-        resources.put(ResourceType.ENERGY, type.getBaseEnergy() * (0.8f + random.nextFloat() * 0.4f));
+        resources.set(ResourceType.METAL, type.getBaseMetal() * size * (0.8f + random.nextFloat() * 0.4f));
+        resources.set(ResourceType.ENERGY, type.getBaseEnergy() * (0.8f + random.nextFloat() * 0.4f));
 
         // 稀有资源（几率生成）
         for (ResourceType rareResource : ResourceType.getRareResources()) {
             if (random.nextFloat() < type.getRareResourceChance()) {
                 float amount = 10 + random.nextFloat() * 90;
-                resources.put(rareResource, amount);
+                resources.set(rareResource, amount);
             }
         }
     }
@@ -105,7 +106,7 @@ public class Planet {
     }
 
     public float getResourceOutput(ResourceType resource) {
-        float base = resources.getOrDefault(resource, 0f);
+        float base = resources.get(resource);
 
         // 殖民地加成
         if (colony != null) {
@@ -129,8 +130,8 @@ public class Planet {
     }
 
     // 计算殖民成本
-    public Map<ResourceType, Float> calculateColonizationCost() {
-        Map<ResourceType, Float> cost = new EnumMap<>(ResourceType.class);
+    public ResourceVector calculateColonizationCost() {
+        ResourceVector cost = new ResourceVector();
         float baseCost = 50.0f; // 降低基础成本从100到50
 
         // 根据行星大小调整成本
@@ -174,10 +175,10 @@ public class Planet {
         }
 
         // 分配到不同资源类型
-        cost.put(ResourceType.METAL, baseCost * 0.3f);      // 30% 金属（降低从40%到30%）
-        cost.put(ResourceType.ENERGY, baseCost * 0.25f);     // 25% 能量（降低从30%到25%）
-        cost.put(ResourceType.FOOD, baseCost * 0.25f);       // 25% 食物（增加从20%到25%）
-        cost.put(ResourceType.FUEL, baseCost * 0.2f);       // 20% 燃料（增加从10%到20%）
+        cost.set(ResourceType.METAL, baseCost * 0.3f);      // 30% 金属（降低从40%到30%）
+        cost.set(ResourceType.ENERGY, baseCost * 0.25f);     // 25% 能量（降低从30%到25%）
+        cost.set(ResourceType.FOOD, baseCost * 0.25f);       // 25% 食物（增加从20%到25%）
+        cost.set(ResourceType.FUEL, baseCost * 0.2f);       // 20% 燃料（增加从10%到20%）
 
         return cost;
     }
@@ -225,8 +226,8 @@ public class Planet {
         }
     }
 
-    public Map<ResourceType, Float> getResources() { return new HashMap<>(resources); }
-    public float getResource(ResourceType type) { return resources.getOrDefault(type, 0f); }
+    public Map<ResourceType, Float> getResources() { return resources.toMap(); }
+    public float getResource(ResourceType type) { return resources.get(type); }
 
     public List<PlanetTrait> getTraits() { return new ArrayList<>(traits); }
 
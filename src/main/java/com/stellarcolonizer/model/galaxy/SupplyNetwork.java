@@ -0,0 +1,118 @@
+// SupplyNetwork.java - 派系补给网络
+package com.stellarcolonizer.model.galaxy;
+
+import com.stellarcolonizer.model.colony.Colony;
+import com.stellarcolonizer.model.faction.Faction;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 缓存每个派系的补给范围。
+ * 每回合对每个派系以其所有殖民地所在六边形为起点做一次多源广度优先搜索（沿星系连接），
+ * 补给范围内的六边形记录在按六边形编号索引的位图中，舰队查询补给状态为 O(1)。
+ */
+public class SupplyNetwork {
+
+    public static final int DEFAULT_SUPPLY_RANGE = 3;
+
+    private final Galaxy galaxy;
+    private int supplyRange = DEFAULT_SUPPLY_RANGE;
+
+    private final Map<Faction, BitSet> suppliedHexes = new HashMap<>();
+    private final Map<Faction, BitSet> colonyHexes = new HashMap<>();
+
+    // 复用的临时缓冲区
+    private final Map<Faction, List<Hex>> sourcesByFaction = new HashMap<>();
+    private final List<Hex> reachableBuffer = new ArrayList<>();
+
+    public SupplyNetwork(Galaxy galaxy) {
+        this.galaxy = galaxy;
+    }
+
+    /**
+     * 重新计算所有派系的补给范围，每回合在舰队结算前调用一次
+     */
+    public void update() {
+        suppliedHexes.clear();
+        colonyHexes.clear();
+        HexGrid hexGrid = galaxy.getHexGrid();
+        if (hexGrid == null) {
+            return;
+        }
+
+        // 一次遍历收集所有派系的殖民地六边形
+        for (List<Hex> sources : sourcesByFaction.values()) {
+            sources.clear();
+        }
+        for (Hex hex : hexGrid.getAllHexes()) {
+            if (!hex.hasStarSystem()) {
+                continue;
+            }
+            for (Planet planet : hex.getStarSystem().getPlanets()) {
+                Colony colony = planet.getColony();
+                if (colony == null || colony.getFaction() == null) {
+                    continue;
+                }
+                Faction owner = colony.getFaction();
+                BitSet colonies = colonyHexes.computeIfAbsent(owner, k -> new BitSet(hexGrid.getHexCount()));
+                if (!colonies.get(hex.getIndex())) {
+                    colonies.set(hex.getIndex());
+                    sourcesByFaction.computeIfAbsent(owner, k -> new ArrayList<>()).add(hex);
+                }
+            }
+        }
+
+        // 每个派系一次多源搜索
+        HexReachability reachability = galaxy.getReachability();
+        for (Map.Entry<Faction, List<Hex>> entry : sourcesByFaction.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            int count = reachability.findReachable(entry.getValue(), supplyRange, reachableBuffer);
+            BitSet supplied = new BitSet(hexGrid.getHexCount());
+            for (int i = 0; i < count; i++) {
+                supplied.set(reachableBuffer.get(i).getIndex());
+            }
+            suppliedHexes.put(entry.getKey(), supplied);
+        }
+        sourcesByFaction.values().removeIf(List::isEmpty);
+        reachableBuffer.clear();
+    }
+
+    /**
+     * 六边形是否在派系的补给范围内
+     */
+    public boolean isInSupply(Faction faction, Hex hex) {
+        return contains(suppliedHexes, faction, hex);
+    }
+
+    /**
+     * 六边形上是否有派系的殖民地
+     */
+    public boolean hasColony(Faction faction, Hex hex) {
+        return contains(colonyHexes, faction, hex);
+    }
+
+    private boolean contains(Map<Faction, BitSet> bits, Faction faction, Hex hex) {
+        if (faction == null || hex == null || hex.getIndex() < 0) {
+            return false;
+        }
+        BitSet set = bits.get(faction);
+        return set != null && set.get(hex.getIndex());
+    }
+
+    /**
+     * 派系补给范围覆盖的六边形数量
+     */
+    public int getSuppliedHexCount(Faction faction) {
+        BitSet set = suppliedHexes.get(faction);
+        return set != null ? set.cardinality() : 0;
+    }
+
+    public int getSupplyRange() { return supplyRange; }
+    public void setSupplyRange(int supplyRange) { this.supplyRange = Math.max(0, supplyRange); }
+}
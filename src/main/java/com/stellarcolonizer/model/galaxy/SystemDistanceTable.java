@@ -0,0 +1,144 @@
+// SystemDistanceTable.java - 星系间跳数距离表
+package com.stellarcolonizer.model.galaxy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * 预先计算的星系两两之间的跳数距离（沿六边形连接的最少步数）。
+ * 从每个星系并行做一次广度优先搜索，结果按上三角压缩存储：
+ * 最大距离不超过 254 时使用 byte[]，否则使用 short[]，不可达记为最大值。
+ * 表的大小超过内存上限时自动停用，调用方应回退到按需搜索（见 Galaxy.getHopDistance）。
+ */
+public class SystemDistanceTable {
+
+    // 默认内存上限：约可容纳 5000 个星系的 short 距离表
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private static final int BYTE_UNREACHABLE = 0xFF;
+    private static final int SHORT_UNREACHABLE = 0xFFFF;
+
+    private final Map<StarSystem, Integer> systemIndex = new HashMap<>();
+    private final int systemCount;
+    private final boolean enabled;
+
+    private byte[] byteDistances;
+    private short[] shortDistances;
+
+    /**
+     * 构建距离表
+     *
+     * @param hexGrid     六边形网格
+     * @param connections 六边形连接关系
+     * @param maxBytes    允许的最大内存占用，超过时不构建
+     */
+    public SystemDistanceTable(HexGrid hexGrid, Map<Hex, Set<Hex>> connections, long maxBytes) {
+        List<Hex> systemHexes = new ArrayList<>();
+        for (Hex hex : hexGrid.getAllHexes()) {
+            if (hex.hasStarSystem() && !systemIndex.containsKey(hex.getStarSystem())) {
+                systemIndex.put(hex.getStarSystem(), systemHexes.size());
+                systemHexes.add(hex);
+            }
+        }
+        this.systemCount = systemHexes.size();
+
+        long pairCount = (long) systemCount * (systemCount - 1) / 2;
+        if (pairCount * Short.BYTES > maxBytes || pairCount > Integer.MAX_VALUE) {
+            this.enabled = false;
+            System.out.println("星系距离表已停用: " + systemCount + " 个星系需要 "
+                    + (pairCount * Short.BYTES / 1024) + " KB，超过上限 " + (maxBytes / 1024) + " KB");
+            return;
+        }
+        this.enabled = true;
+
+        int[] hexIndex = new int[systemCount];
+        for (int i = 0; i < systemCount; i++) {
+            hexIndex[i] = systemHexes.get(i).getIndex();
+        }
+
+        // 每个工作线程使用各自的搜索器，各行写入互不重叠的区间
+        short[] distances = new short[(int) pairCount];
+        ThreadLocal<HexReachability> searchers = ThreadLocal.withInitial(() -> new HexReachability(hexGrid, connections));
+        ThreadLocal<List<Hex>> buffers = ThreadLocal.withInitial(ArrayList::new);
+        int maxDistance = IntStream.range(0, systemCount).parallel().map(i -> {
+            HexReachability searcher = searchers.get();
+            searcher.findReachable(systemHexes.get(i), Integer.MAX_VALUE, buffers.get());
+            int rowMax = 0;
+            int offset = rowOffset(i);
+            for (int j = i + 1; j < systemCount; j++) {
+                int d = searcher.getDistance(hexGrid.getHexByIndex(hexIndex[j]));
+                if (d < 0 || d >= SHORT_UNREACHABLE) {
+                    distances[offset + j - i - 1] = (short) SHORT_UNREACHABLE;
+                } else {
+                    distances[offset + j - i - 1] = (short) d;
+                    rowMax = Math.max(rowMax, d);
+                }
+            }
+            buffers.get().clear();
+            return rowMax;
+        }).max().orElse(0);
+
+        // 距离较小时压缩为 byte
+        if (maxDistance < BYTE_UNREACHABLE) {
+            byteDistances = new byte[distances.length];
+            for (int k = 0; k < distances.length; k++) {
+                int d = distances[k] & 0xFFFF;
+                byteDistances[k] = (byte) (d == SHORT_UNREACHABLE ? BYTE_UNREACHABLE : d);
+            }
+        } else {
+            shortDistances = distances;
+        }
+
+        System.out.println("星系距离表已构建: " + systemCount + " 个星系，占用 " + (getMemoryBytes() / 1024) + " KB");
+    }
+
+    // 上三角中第 i 行（j > i）的起始位置
+    private int rowOffset(int i) {
+        return (int) ((long) i * (2L * systemCount - i - 1) / 2);
+    }
+
+    /**
+     * 获取两个星系之间的跳数距离
+     *
+     * @return 跳数；不可达返回 -1；星系不在表中或表已停用返回 -2
+     */
+    public int getDistance(StarSystem a, StarSystem b) {
+        if (!enabled) {
+            return -2;
+        }
+        Integer ia = systemIndex.get(a);
+        Integer ib = systemIndex.get(b);
+        if (ia == null || ib == null) {
+            return -2;
+        }
+        int i = Math.min(ia, ib);
+        int j = Math.max(ia, ib);
+        if (i == j) {
+            return 0;
+        }
+        int k = rowOffset(i) + j - i - 1;
+        if (byteDistances != null) {
+            int d = byteDistances[k] & 0xFF;
+            return d == BYTE_UNREACHABLE ? -1 : d;
+        }
+        int d = shortDistances[k] & 0xFFFF;
+        return d == SHORT_UNREACHABLE ? -1 : d;
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public int getSystemCount() { return systemCount; }
+
+    /**
+     * 距离数组占用的字节数
+     */
+    public long getMemoryBytes() {
+        if (byteDistances != null) {
+            return byteDistances.length;
+        }
+        return shortDistances != null ? (long) shortDistances.length * Short.BYTES : 0;
+    }
+}
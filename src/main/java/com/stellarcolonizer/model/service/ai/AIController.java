@@ -1,14 +1,18 @@
 package com.stellarcolonizer.model.service.ai;
 
 import com.stellarcolonizer.core.GameEngine;
+import com.stellarcolonizer.model.battle.BattleEstimator;
 import com.stellarcolonizer.model.colony.Colony;
 import com.stellarcolonizer.model.colony.BasicBuilding;
+import com.stellarcolonizer.model.colony.EconomyForecast;
 import com.stellarcolonizer.model.colony.enums.BuildingType;
 import com.stellarcolonizer.model.colony.ResourceRequirement;
 import com.stellarcolonizer.model.diplomacy.DiplomaticRelationship;
 import com.stellarcolonizer.model.economy.ResourceStockpile;
 import com.stellarcolonizer.model.faction.Faction;
+import com.stellarcolonizer.model.fleet.AutoDesigner;
 import com.stellarcolonizer.model.fleet.Fleet;
+import com.stellarcolonizer.model.fleet.ModuleLibrary;
 import com.stellarcolonizer.model.fleet.Ship;
 import com.stellarcolonizer.model.fleet.ShipDesign;
 import com.stellarcolonizer.model.fleet.enums.ShipClass;
@@ -40,6 +44,19 @@ public class AIController {
     // 外交决策计数器
     private int diplomaticDecisionCounter;
     private final int diplomaticDecisionInterval; // 外交决策间隔回合数
+    
+    // 经济预测中资源在多少回合内耗尽时提前建造对应的生产建筑
+    private static final int DEPLETION_HORIZON = 10;
+
+    // 可达性查询的复用缓冲区
+    private final List<Hex> reachableBuffer = new ArrayList<>();
+
+    // 舰队不在星系中时，在多少步以内查找最近的星系作为距离起点
+    private static final int ORIGIN_SEARCH_RANGE = 10;
+
+    // 自动设计的舰船，研究完成后重新获取（AutoDesigner 只在解锁了新模块时才重新搜索）
+    private List<ShipDesign> autoDesigns = Collections.emptyList();
+    private boolean autoDesignsOutdated = true;
 
     public AIController(Faction faction, EventBus eventBus) {
         this.faction = faction;
@@ -55,6 +72,10 @@ public class AIController {
         // 初始化外交决策计数器
         this.diplomaticDecisionCounter = 0;
         this.diplomaticDecisionInterval = 3 + random.nextInt(4); // 随机3-6回合进行一次外交决策
+
+        if (faction.getTechTree() != null) {
+            faction.getTechTree().addResearchCompletedListener(techId -> autoDesignsOutdated = true);
+        }
     }
     
     private float calculateAggressionLevel() {
@@ -180,6 +201,9 @@ public class AIController {
         
         eventBus.publish(new GameEvent("AI_LOG", 
             faction.getName() + ": 检查 " + faction.getColonies().size() + " 个殖民地的建设需求"));
+
+        // 派系层面的短缺：库存按预测会在几回合内耗尽，即使每个殖民地当前都不是负产出
+        BuildingType forecastShortage = findForecastShortage();
         
         for (Colony colony : faction.getColonies()) {
             // 检查是否还有可用的建筑槽位
@@ -211,6 +235,13 @@ public class AIController {
                     eventBus.publish(new GameEvent("AI_LOG", 
                         faction.getName() + "的殖民地 " + colony.getName() + " 金属短缺，优先建造矿物生产建筑"));
                 }
+                // 预测中派系库存即将耗尽，由这个殖民地补充（每回合只安排一处）
+                else if (forecastShortage != null) {
+                    buildingToConstruct = forecastShortage;
+                    forecastShortage = null;
+                    eventBus.publish(new GameEvent("AI_LOG", 
+                        faction.getName() + "的殖民地 " + colony.getName() + " 预测派系资源即将耗尽，建造" + buildingToConstruct.getDisplayName()));
+                }
                 // 如果没有短缺，建造一些有用的建筑
                 else {
                     // 检查是否需要增加科研产出
@@ -255,6 +286,21 @@ public class AIController {
         }
     }
 
+    // 按食物、能量、金属的顺序找出预测期内会耗尽的资源对应的生产建筑
+    private BuildingType findForecastShortage() {
+        EconomyForecast forecast = faction.getEconomyForecast();
+        if (forecast.turnsUntilDepleted(ResourceType.FOOD, DEPLETION_HORIZON) > 0) {
+            return BuildingType.FOOD_PRODUCTION;
+        }
+        if (forecast.turnsUntilDepleted(ResourceType.ENERGY, DEPLETION_HORIZON) > 0) {
+            return BuildingType.ENERGY_PRODUCTION;
+        }
+        if (forecast.turnsUntilDepleted(ResourceType.METAL, DEPLETION_HORIZON) > 0) {
+            return BuildingType.MINERAL_PRODUCTION;
+        }
+        return null;
+    }
+
     private void decideResearch() {
         TechTree techTree = faction.getTechTree();
         
@@ -540,7 +586,7 @@ public class AIController {
             // 如果攻击性强，考虑宣战
             if (isPlayerFaction(otherFaction)) {
                 // 对玩家宣战的条件：攻击性 > 0.7 且 有明显军事优势
-                if (aggressionLevel > 0.7 && hasMilitaryAdvantageOver(otherFaction, 0.9f)) { // 提高军事优势要求到90%
+                if (aggressionLevel > 0.7 && hasMilitaryAdvantageOver(otherFaction, 0.5f)) { // 对玩家宣战要求预测胜率至少50%
                     faction.declareWarOn(otherFaction);
                     eventBus.publish(new GameEvent("AI_LOG", 
                         faction.getName() + "向 " + otherFaction.getName() + " 宣战"));
@@ -634,24 +680,19 @@ public class AIController {
     }
     
     private boolean hasMilitaryAdvantageOver(Faction otherFaction) {
-        // 简单的军事实力比较（使用默认阈值0.8）
-        return hasMilitaryAdvantageOver(otherFaction, 0.8f);
+        // 默认要求预测胜率至少30%：大致相当于原来“战斗力不低于对方80%”的宽松标准，
+        // 兵力相当时的胜率约为10%-50%，略强一方的胜率迅速接近100%
+        return hasMilitaryAdvantageOver(otherFaction, 0.3f);
     }
     
-    private boolean hasMilitaryAdvantageOver(Faction otherFaction, float threshold) {
-        // 简单的军事实力比较，使用可配置的阈值
-        int thisFleetCount = faction.getFleets().size();
-        int otherFleetCount = otherFaction.getFleets().size();
-        
-        float thisMilitaryPower = (float) faction.getFleets().stream()
-                .mapToDouble(Fleet::getTotalCombatPower)
-                .sum();
-        float otherMilitaryPower = (float) otherFaction.getFleets().stream()
-                .mapToDouble(Fleet::getTotalCombatPower)
-                .sum();
-        
-        // 如果舰队数量和实力都占优势，则认为有军事优势
-        return (thisFleetCount >= otherFleetCount * threshold) && (thisMilitaryPower >= otherMilitaryPower * threshold);
+    private boolean hasMilitaryAdvantageOver(Faction otherFaction, float minWinProbability) {
+        // 用战斗预测估算全部舰队交战的胜率，与所需的最低胜率比较
+        BattleEstimator.Composition ours = BattleEstimator.Composition.of(faction.getFleetsView());
+        BattleEstimator.Composition theirs = BattleEstimator.Composition.of(otherFaction.getFleetsView());
+        if (theirs.getShipCount() == 0) {
+            return true;
+        }
+        return BattleEstimator.shared().estimate(ours, theirs).getWinProbability() >= minWinProbability;
     }
     
     private void makeMilitaryDecisions() {
@@ -670,7 +711,7 @@ public class AIController {
         // 限制AI舰队数量不超过3个
         int maxFleetCount = 3;
         
-        if (faction.getFleets().size() < maxFleetCount) {
+        if (faction.getFleetCount() < maxFleetCount) {
             // 引入随机化，避免所有AI都生产到上限
             // 考虑整体AI舰队平衡，如果AI平均舰队数量较高，则降低建造概率
             double avgFleetCount = getAverageAIFleetCount();
@@ -730,7 +771,7 @@ public class AIController {
         // AI决定建造舰船的逻辑
         // 检查是否有足够的资源和殖民地来建造舰船
         // 首先检查舰队数量是否已达到上限
-        if (faction.getFleets().size() >= 3) {
+        if (faction.getFleetCount() >= 3) {
             // 舰队数量已达上限，不尝试建造新舰船
             return;
         }
@@ -784,6 +825,14 @@ public class AIController {
             return;
         }
         
+        // 只在资源足够的设计中选择
+        availableDesigns.removeIf(design -> !hasEnoughResourcesForShip(design));
+        if (availableDesigns.isEmpty()) {
+            eventBus.publish(new GameEvent("AI_LOG", 
+                faction.getName() + "的资源不足以建造任何舰船设计"));
+            return;
+        }
+        
         // 选择一个设计进行建造（根据AI的攻击性等参数选择）
         ShipDesign selectedDesign = selectBestShipDesign(availableDesigns);
         
@@ -807,24 +856,41 @@ public class AIController {
     
     private List<ShipDesign> getAvailableShipDesigns() {
         // 获取所有可用的舰船设计
-        // 为了简化AI，只提供最基础的舰船设计
         List<ShipDesign> availableDesigns = new ArrayList<>();
         
-        // 基础护卫舰设计
+        // 基础护卫舰设计，资源紧张时的保底选择
         ShipDesign basicCorvette = new ShipDesign("基础护卫舰", ShipClass.CORVETTE);
         availableDesigns.add(basicCorvette);
         
-        // 如果有研究基础科技，也可以添加基础护卫舰
+        // 每个已解锁舰船等级的自动设计
+        availableDesigns.addAll(getAutoDesigns());
+        
+        return availableDesigns;
+    }
+    
+    private List<ShipDesign> getAutoDesigns() {
+        if (!autoDesignsOutdated) {
+            return autoDesigns;
+        }
+        
         Set<String> researchedTechs = faction.getTechTree().getResearchedTechnologies().stream()
             .map(Technology::getId)
             .collect(Collectors.toSet());
         
-        if (researchedTechs.contains("BASIC_CONSTRUCTION")) {
-            ShipDesign basicFrigate = new ShipDesign("基础护卫舰", ShipClass.FRIGATE);
-            availableDesigns.add(basicFrigate);
-        }
+        // 攻击性强的AI追求战斗力，其他AI追求性价比
+        AutoDesigner.Objective objective = aggressionLevel > 0.7
+            ? AutoDesigner.Objective.COMBAT_POWER
+            : AutoDesigner.Objective.COST_EFFICIENCY;
         
-        return availableDesigns;
+        List<ShipDesign> designs = new ArrayList<>();
+        for (ShipClass shipClass : ShipClass.values()) {
+            if (ModuleLibrary.isShipClassUnlocked(shipClass, researchedTechs)) {
+                designs.add(AutoDesigner.shared().design(shipClass, researchedTechs, objective));
+            }
+        }
+        autoDesigns = designs;
+        autoDesignsOutdated = false;
+        return autoDesigns;
     }
     
     private ShipDesign selectBestShipDesign(List<ShipDesign> designs) {
@@ -868,22 +934,13 @@ public class AIController {
     
     private boolean hasEnoughResourcesForShip(ShipDesign design) {
         // 检查是否有足够的资源来建造指定的舰船设计
-        ResourceStockpile stockpile = faction.getResourceStockpile();
-        Map<ResourceType, Float> costs = design.getConstructionCost();
-        
-        for (Map.Entry<ResourceType, Float> entry : costs.entrySet()) {
-            if (stockpile.getResource(entry.getKey()) < entry.getValue()) {
-                return false; // 资源不足
-            }
-        }
-        
-        return true;
+        return faction.getResourceStockpile().canAfford(design.getConstructionCost());
     }
     
     private boolean createFleetWithShip(Colony colony, ShipDesign design) {
         // 在指定殖民地创建包含指定设计舰船的新舰队
         // 首先检查舰队数量是否已达到上限
-        if (faction.getFleets().size() >= 3) {
+        if (faction.getFleetCount() >= 3) {
             // 舰队数量已达上限，不创建新舰队
             return false;
         }
@@ -925,11 +982,7 @@ public class AIController {
             // 消耗建造资源
             consumeResourcesForShip(design);
             
-            // 将新舰队添加到派系
-            // 这里可能需要将舰队添加到六边形中，具体取决于游戏逻辑
-            if (colonyHex != null) {
-                colonyHex.addEntity(newFleet);
-            }
+            // 舰队在构造时已加入六边形并登记到派系
             
             return true;
         } catch (Exception e) {
@@ -941,12 +994,7 @@ public class AIController {
     
     private void consumeResourcesForShip(ShipDesign design) {
         // 消耗建造舰船所需的资源
-        ResourceStockpile stockpile = faction.getResourceStockpile();
-        Map<ResourceType, Float> costs = design.getConstructionCost();
-        
-        for (Map.Entry<ResourceType, Float> entry : costs.entrySet()) {
-            stockpile.consumeResource(entry.getKey(), entry.getValue());
-        }
+        faction.getResourceStockpile().consumeResources(design.getConstructionCost());
     }
     
     private void directFleets() {
@@ -1037,32 +1085,62 @@ public class AIController {
             return null;
         }
         
-        // 遍历所有星系寻找敌方目标
+        List<Faction> hostileFactions = faction.getHostileFactions();
+        StarSystem origin = findOriginSystem(fleet, galaxy);
+        Hex bestTarget = null;
+        int bestDistance = Integer.MAX_VALUE;
+        
+        // 遍历所有星系寻找敌方目标，选择离舰队所在（或最近）星系跳数最近的目标
         for (StarSystem system : galaxy.getStarSystems()) {
             Hex systemHex = galaxy.getHexForStarSystem(system);
-            if (systemHex != null) {
-                // 检查该星系是否有敌方单位
-                for (Faction enemyFaction : faction.getHostileFactions()) {
-                    for (Fleet enemyFleet : enemyFaction.getFleets()) {
-                        if (enemyFleet.getCurrentHex().equals(systemHex)) {
-                            return systemHex; // 找到敌方舰队
-                        }
-                    }
+            if (systemHex != null && isEnemyTarget(system, systemHex, hostileFactions)
+                    && canWinAt(fleet, systemHex, hostileFactions)) {
+                if (origin == null) {
+                    return systemHex;
                 }
-                
-                // 检查该星系是否有敌方殖民地
-                for (Planet planet : system.getPlanets()) {
-                    if (planet.getColony() != null) {
-                        Faction planetFaction = planet.getColony().getFaction();
-                        if (faction.getHostileFactions().contains(planetFaction)) {
-                            return systemHex; // 找到敌方殖民地
-                        }
-                    }
+                int distance = galaxy.getHopDistance(origin, system);
+                if (distance >= 0 && distance < bestDistance) {
+                    bestDistance = distance;
+                    bestTarget = systemHex;
                 }
             }
         }
         
-        return null; // 没有找到敌方目标
+        return bestTarget; // 没有找到敌方目标时为null
+    }
+    
+    private boolean canWinAt(Fleet fleet, Hex systemHex, List<Faction> hostileFactions) {
+        // 目标处的敌方舰队预计胜率不足一半时不主动进攻
+        List<Fleet> enemies = new ArrayList<>();
+        for (Fleet otherFleet : systemHex.getFleetsView()) {
+            if (hostileFactions.contains(otherFleet.getFaction())) {
+                enemies.add(otherFleet);
+            }
+        }
+        if (enemies.isEmpty()) {
+            return true;
+        }
+        return BattleEstimator.shared().estimate(List.of(fleet), enemies).getWinProbability() >= 0.5f;
+    }
+    
+    private boolean isEnemyTarget(StarSystem system, Hex systemHex, List<Faction> hostileFactions) {
+        // 检查该星系是否有敌方单位
+        for (Fleet otherFleet : systemHex.getFleetsView()) {
+            if (hostileFactions.contains(otherFleet.getFaction())) {
+                return true; // 找到敌方舰队
+            }
+        }
+        
+        // 检查该星系是否有敌方殖民地
+        for (Planet planet : system.getPlanets()) {
+            if (planet.getColony() != null) {
+                Faction planetFaction = planet.getColony().getFaction();
+                if (hostileFactions.contains(planetFaction)) {
+                    return true; // 找到敌方殖民地
+                }
+            }
+        }
+        return false;
     }
     
     private Hex findNearbyHex(Fleet fleet, int range) {
@@ -1078,95 +1156,64 @@ public class AIController {
             return null;
         }
         
-        // 使用广度优先搜索找到范围内所有可到达的六边形
-        List<Hex> reachableHexes = getReachableHexes(currentHex, range, galaxy);
-        
-        // 从可达的六边形中随机选择一个（排除当前位置）
-        List<Hex> validHexes = reachableHexes.stream()
-            .filter(hex -> !hex.equals(currentHex))
-            .collect(Collectors.toList());
+        // 使用广度优先搜索找到范围内所有可到达的六边形，结果第一个元素为当前位置
+        int reachableCount = galaxy.getReachability().findReachable(currentHex, range, reachableBuffer);
         
-        if (!validHexes.isEmpty()) {
-            // 随机选择一个可达的六边形
-            return validHexes.get(random.nextInt(validHexes.size()));
+        if (reachableCount > 1) {
+            // 从可达的六边形中随机选择一个（排除当前位置）
+            return reachableBuffer.get(1 + random.nextInt(reachableCount - 1));
         }
         
         // 如果没有其他可达的六边形，返回当前位置
         return currentHex;
     }
     
-    /**
-     * 获取在指定范围内可到达的六边形
-     * 使用广度优先搜索算法
-     */
-    private List<Hex> getReachableHexes(Hex startHex, int range, Galaxy galaxy) {
-        List<Hex> reachableHexes = new ArrayList<>();
-        
-        // 使用广度优先搜索(BFS)找到范围内所有可到达的六边形
-        Queue<Hex> queue = new LinkedList<>();
-        Set<Hex> visited = new HashSet<>();
-        Map<Hex, Integer> distances = new HashMap<>();
-        
-        queue.offer(startHex);
-        visited.add(startHex);
-        distances.put(startHex, 0);
-        reachableHexes.add(startHex);
-        
-        while (!queue.isEmpty()) {
-            Hex current = queue.poll();
-            int currentDistance = distances.get(current);
-            
-            if (currentDistance >= range) {
-                continue; // 如果已达到最大距离，不再扩展
-            }
-            
-            // 检查所有邻居六边形
-            List<Hex> neighbors = galaxy.getHexGrid().getNeighbors(current);
-            for (Hex neighbor : neighbors) {
-                // 检查银河系中是否有连接
-                if (!galaxy.getHexConnections().isEmpty()) {
-                    Set<Hex> connectedHexes = galaxy.getHexConnections().get(current);
-                    // 检查连接是否双向存在（确保两个六边形之间确实有连接）
-                    Set<Hex> neighborConnections = galaxy.getHexConnections().get(neighbor);
-                    boolean hasConnection = connectedHexes != null && connectedHexes.contains(neighbor);
-                    
-                    if (hasConnection && !visited.contains(neighbor)) {
-                        visited.add(neighbor);
-                        distances.put(neighbor, currentDistance + 1);
-                        reachableHexes.add(neighbor);
-                        queue.offer(neighbor);
-                    }
-                } else {
-                    // 如果没有连接信息，假设所有邻居都可到达
-                    if (!visited.contains(neighbor)) {
-                        visited.add(neighbor);
-                        distances.put(neighbor, currentDistance + 1);
-                        reachableHexes.add(neighbor);
-                        queue.offer(neighbor);
-                    }
-                }
+    private StarSystem findOriginSystem(Fleet fleet, Galaxy galaxy) {
+        // 舰队所在的星系；舰队在星系之间（航行途中或巡逻后）时按广度优先顺序取最近的星系
+        Hex currentHex = fleet.getCurrentHex();
+        if (currentHex == null) {
+            return null;
+        }
+        if (currentHex.getStarSystem() != null) {
+            return currentHex.getStarSystem();
+        }
+        int reachableCount = galaxy.getReachability().findReachable(currentHex, ORIGIN_SEARCH_RANGE, reachableBuffer);
+        for (int i = 1; i < reachableCount; i++) {
+            StarSystem system = reachableBuffer.get(i).getStarSystem();
+            if (system != null) {
+                return system;
             }
         }
-        
-        return reachableHexes;
+        return null; // 附近没有星系
     }
     
     private Hex findFriendlyColony(Fleet fleet) {
-        // 寻找最近的友好殖民地
+        // 寻找跳数最近的友好殖民地
+        Galaxy galaxy = faction.getGalaxy();
+        if (galaxy == null) {
+            return fleet.getCurrentHex();
+        }
+        StarSystem origin = findOriginSystem(fleet, galaxy);
+        StarSystem best = null;
+        int bestDistance = Integer.MAX_VALUE;
         for (Colony colony : faction.getColonies()) {
             Planet colonyPlanet = colony.getPlanet();
-            if (colonyPlanet != null && colonyPlanet.getStarSystem() != null) {
-                Galaxy galaxy = faction.getGalaxy();
-                if (galaxy != null) {
-                    Hex colonyHex = galaxy.getHexForStarSystem(colonyPlanet.getStarSystem());
-                    if (colonyHex != null) {
-                        return colonyHex;
-                    }
-                }
+            if (colonyPlanet == null || colonyPlanet.getStarSystem() == null) {
+                continue;
+            }
+            if (origin == null) {
+                best = colonyPlanet.getStarSystem(); // 附近没有星系时取第一个殖民地
+                break;
+            }
+            int distance = galaxy.getHopDistance(origin, colonyPlanet.getStarSystem());
+            if (distance >= 0 && distance < bestDistance) {
+                bestDistance = distance;
+                best = colonyPlanet.getStarSystem();
             }
         }
         
-        return fleet.getCurrentHex(); // 如果没有找到友好殖民地，返回当前位置
+        Hex colonyHex = best != null ? galaxy.getHexForStarSystem(best) : null;
+        return colonyHex != null ? colonyHex : fleet.getCurrentHex(); // 如果没有找到友好殖民地，返回当前位置
     }
     
     private double getAverageAIFleetCount() {
@@ -1177,7 +1224,6 @@ public class AIController {
         
         List<Faction> aiFactions = faction.getGalaxy().getFactions().stream()
             .filter(Faction::isAI)
-            .filter(f -> f.getFleets() != null) // 确保舰队列表不为null
             .collect(Collectors.toList());
         
         if (aiFactions.isEmpty()) {
@@ -1185,7 +1231,7 @@ public class AIController {
         }
         
         double totalFleets = aiFactions.stream()
-            .mapToDouble(f -> f.getFleets().size())
+            .mapToDouble(Faction::getFleetCount)
             .sum();
         
         return totalFleets / aiFactions.size();
@@ -1237,7 +1283,7 @@ public class AIController {
     private void logCurrentStatus() {
         // 记录AI当前状态
         int colonyCount = faction.getColonies().size();
-        int fleetCount = faction.getFleets().size();
+        int fleetCount = faction.getFleetCount();
         int hostileFactions = faction.getHostileFactions().size();
         int friendlyFactions = faction.getFriendlyFactions().size();
         int neutralFactions = faction.getNeutralFactions().size();
@@ -0,0 +1,109 @@
+package com.stellarcolonizer.model.service.event;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * 随机事件调度器
+ * 待触发的事件按触发回合放在优先队列中，每回合只取出到期的事件，开销与触发的事件数成正比，
+ * 而不是每回合为每个对象掷一次骰子。每回合概率为 p 的事件，下一次触发前等待的回合数服从几何分布，
+ * 安排事件时直接抽样，与逐回合掷骰的分布相同。
+ */
+public class EventScheduler {
+
+    private final PriorityQueue<ScheduledEvent> queue = new PriorityQueue<>();
+    private final Random random;
+    private long currentTurn = 0;
+    private long sequence = 0; // 同一回合的事件按安排顺序触发
+
+    public EventScheduler() {
+        this(new Random());
+    }
+
+    public EventScheduler(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * 在 delay 回合后触发（delay 至少为1，即下一次 advance() 时）
+     */
+    public ScheduledEvent schedule(long delay, Runnable action) {
+        ScheduledEvent event = new ScheduledEvent(currentTurn + Math.max(1, delay), sequence++, action);
+        queue.add(event);
+        return event;
+    }
+
+    /**
+     * 按每回合 chance 的概率安排下一次触发，等待回合数按几何分布抽样
+     */
+    public ScheduledEvent scheduleWithChance(double chance, Runnable action) {
+        return schedule(sampleDelay(chance), action);
+    }
+
+    // 几何分布：P(delay = k) = (1 - p)^(k - 1) * p
+    private long sampleDelay(double chance) {
+        if (chance >= 1.0) {
+            return 1;
+        }
+        if (chance <= 0.0) {
+            return Long.MAX_VALUE / 2; // 永不触发
+        }
+        double u = random.nextDouble();
+        return 1 + (long) Math.floor(Math.log1p(-u) / Math.log1p(-chance));
+    }
+
+    /**
+     * 推进一回合，按回合和安排顺序触发所有到期的事件；事件在触发时可以安排新的事件
+     * @return 本回合触发的事件数
+     */
+    public int advance() {
+        currentTurn++;
+        int fired = 0;
+        while (!queue.isEmpty() && queue.peek().turn <= currentTurn) {
+            ScheduledEvent event = queue.poll();
+            if (event.cancelled) {
+                continue;
+            }
+            event.cancelled = true; // 已触发，之后的 cancel() 不再有效果
+            event.action.run();
+            fired++;
+        }
+        return fired;
+    }
+
+    public long getCurrentTurn() { return currentTurn; }
+
+    public int getPendingCount() { return queue.size(); }
+
+    public Random getRandom() { return random; }
+
+    /**
+     * 已安排的事件，取消后留在队列中，到期时直接丢弃
+     */
+    public static final class ScheduledEvent implements Comparable<ScheduledEvent> {
+        private final long turn;
+        private final long sequence;
+        private final Runnable action;
+        private boolean cancelled;
+
+        private ScheduledEvent(long turn, long sequence, Runnable action) {
+            this.turn = turn;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        public void cancel() { cancelled = true; }
+
+        public boolean isPending() { return !cancelled; }
+
+        public long getTurn() { return turn; }
+
+        @Override
+        public int compareTo(ScheduledEvent other) {
+            if (turn != other.turn) {
+                return Long.compare(turn, other.turn);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+// JsonReader.java - 流式 JSON 读取器
+package com.stellarcolonizer.util.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 最小的流式（拉取式）JSON 读取器，用于读取 data 目录下的游戏数据。
+ * 逐个返回记号，不构建中间对象树；调用方按数据结构依次调用 beginObject / nextName / nextXxx。
+ * 对象成员和数组元素之间必须恰好有一个逗号，缺少、重复或结尾多余的逗号都报告行列位置。
+ */
+public class JsonReader implements Closeable {
+
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int pos;
+    private int limit;
+    private int line = 1;
+    private long bufferStart;   // 缓冲区第一个字符在文档中的偏移
+    private long lineStart;     // 当前行第一个字符在文档中的偏移
+
+    // 预读的记号
+    private Token peeked;
+    // 当前容器是否为对象，对象中下一个记号是否应为名称，以及容器中是否已经读过元素（之后需要逗号分隔）
+    private final boolean[] objectStack = new boolean[64];
+    private final boolean[] expectName = new boolean[64];
+    private final boolean[] hasElement = new boolean[64];
+    private int depth;
+
+    public JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        int c = nextNonWhitespace();
+        if (depth > 0 && (!objectStack[depth - 1] || expectName[depth - 1])) {
+            c = consumeSeparator(c);
+        } else if (c == ',') {
+            throw syntaxError("意外的 ','");
+        }
+        if (c == -1) {
+            peeked = Token.END_DOCUMENT;
+        } else if (c == '{') {
+            peeked = Token.BEGIN_OBJECT;
+        } else if (c == '}') {
+            peeked = Token.END_OBJECT;
+        } else if (c == '[') {
+            peeked = Token.BEGIN_ARRAY;
+        } else if (c == ']') {
+            peeked = Token.END_ARRAY;
+        } else if (c == '"') {
+            peeked = depth > 0 && objectStack[depth - 1] && expectName[depth - 1] ? Token.NAME : Token.STRING;
+        } else if (c == 't' || c == 'f') {
+            peeked = Token.BOOLEAN;
+        } else if (c == 'n') {
+            peeked = Token.NULL;
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            peeked = Token.NUMBER;
+        } else {
+            throw syntaxError("意外的字符 '" + (char) c + "'");
+        }
+        return peeked;
+    }
+
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        pos++;
+        push(true);
+    }
+
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        pos++;
+        pop();
+    }
+
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        pos++;
+        push(false);
+    }
+
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        pos++;
+        pop();
+    }
+
+    /**
+     * 当前对象或数组中是否还有元素
+     */
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        String name = readString();
+        int c = nextNonWhitespace();
+        if (c != ':') {
+            throw syntaxError("名称后缺少 ':'");
+        }
+        pos++;
+        expectName[depth - 1] = false;
+        return name;
+    }
+
+    public String nextString() throws IOException {
+        Token token = peek();
+        if (token == Token.NUMBER || token == Token.BOOLEAN) {
+            peeked = null;
+            String literal = readLiteral();
+            valueRead();
+            return literal;
+        }
+        expect(Token.STRING);
+        String value = readString();
+        valueRead();
+        return value;
+    }
+
+    /**
+     * 读取字符串，值为 null 时返回 null
+     */
+    public String nextStringOrNull() throws IOException {
+        if (peek() == Token.NULL) {
+            nextNull();
+            return null;
+        }
+        return nextString();
+    }
+
+    public double nextDouble() throws IOException {
+        expect(Token.NUMBER);
+        String literal = readLiteral();
+        valueRead();
+        try {
+            return Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            throw syntaxError("无效的数字 " + literal);
+        }
+    }
+
+    public int nextInt() throws IOException {
+        double value = nextDouble();
+        int result = (int) value;
+        if (result != value) {
+            throw syntaxError("期望整数，实际为 " + value);
+        }
+        return result;
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        String literal = readLiteral();
+        valueRead();
+        if (literal.equals("true")) return true;
+        if (literal.equals("false")) return false;
+        throw syntaxError("无效的布尔值 " + literal);
+    }
+
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+        String literal = readLiteral();
+        valueRead();
+        if (!literal.equals("null")) {
+            throw syntaxError("无效的字面量 " + literal);
+        }
+    }
+
+    /**
+     * 跳过下一个值（包括嵌套的对象和数组）
+     */
+    public void skipValue() throws IOException {
+        int skipDepth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    skipDepth++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    skipDepth++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    skipDepth--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    skipDepth--;
+                    break;
+                case NAME:
+                    nextName();
+                    break;
+                case STRING:
+                case NUMBER:
+                case BOOLEAN:
+                    nextString();
+                    break;
+                case NULL:
+                    nextNull();
+                    break;
+                case END_DOCUMENT:
+                    throw syntaxError("文档意外结束");
+            }
+        } while (skipDepth > 0);
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token actual = peek();
+        if (actual != expected) {
+            throw syntaxError("期望 " + expected + "，实际为 " + actual);
+        }
+        peeked = null;
+    }
+
+    private void push(boolean object) throws IOException {
+        if (depth == objectStack.length) {
+            throw syntaxError("嵌套层数过深");
+        }
+        objectStack[depth] = object;
+        expectName[depth] = object;
+        hasElement[depth] = false;
+        depth++;
+    }
+
+    private void pop() {
+        depth--;
+        valueRead();
+    }
+
+    // 值读取完毕：对象中下一个记号应为名称，之后的元素前需要逗号
+    private void valueRead() {
+        if (depth > 0) {
+            hasElement[depth - 1] = true;
+            if (objectStack[depth - 1]) {
+                expectName[depth - 1] = true;
+            }
+        }
+    }
+
+    // 在元素开始或容器结束的位置检查并消耗分隔逗号，c 为下一个非空白字符，返回逗号之后的字符
+    private int consumeSeparator(int c) throws IOException {
+        boolean closing = c == '}' || c == ']';
+        if (!hasElement[depth - 1]) {
+            if (c == ',') {
+                throw syntaxError("多余的 ','");
+            }
+            return c;
+        }
+        if (closing || c == -1) {
+            return c;
+        }
+        if (c != ',') {
+            throw syntaxError("元素之间缺少 ','");
+        }
+        pos++;
+        c = nextNonWhitespace();
+        if (c == ',') {
+            throw syntaxError("多余的 ','");
+        }
+        if (c == '}' || c == ']') {
+            throw syntaxError("结尾多余的 ','");
+        }
+        return c;
+    }
+
+    // 跳过空白，返回下一个字符但不消耗
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[pos];
+            if (c == '\n') {
+                line++;
+                pos++;
+                lineStart = bufferStart + pos;
+            } else if (c == ' ' || c == '\t' || c == '\r' || c == '\uFEFF') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        bufferStart += limit;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos++];
+    }
+
+    // 读取引号中的字符串，当前位置在起始引号上
+    private String readString() throws IOException {
+        pos++;
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw syntaxError("字符串未结束");
+            }
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c == '\\') {
+                int e = read();
+                switch (e) {
+                    case '"': sb.append('"'); break;
+                    case '\\': sb.append('\\'); break;
+                    case '/': sb.append('/'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int h = Character.digit(read(), 16);
+                            if (h < 0) {
+                                throw syntaxError("无效的转义序列");
+                            }
+                            code = code * 16 + h;
+                        }
+                        sb.append((char) code);
+                        break;
+                    default:
+                        throw syntaxError("无效的转义字符");
+                }
+            } else {
+                sb.append((char) c);
+            }
+        }
+    }
+
+    // 读取数字、布尔值或 null 字面量
+    private String readLiteral() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (pos == limit && !fill()) {
+                break;
+            }
+            char c = buffer[pos];
+            if (c == ',' || c == '}' || c == ']' || c == ':' || Character.isWhitespace(c)) {
+                break;
+            }
+            sb.append(c);
+            pos++;
+        }
+        return sb.toString();
+    }
+
+    private IOException syntaxError(String message) {
+        long column = bufferStart + pos - lineStart + 1;
+        return new IOException("JSON 格式错误（第 " + line + " 行第 " + column + " 列）: " + message);
+    }
+}
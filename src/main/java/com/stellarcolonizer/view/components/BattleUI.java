@@ -1,19 +1,25 @@
 package com.stellarcolonizer.view.components;
 
+import com.stellarcolonizer.model.battle.BattleEstimator;
+import com.stellarcolonizer.model.battle.BattleRecorder;
 import com.stellarcolonizer.model.battle.BattleResult;
 import com.stellarcolonizer.model.battle.BattleSystem;
+import com.stellarcolonizer.model.battle.HexBattle;
+import com.stellarcolonizer.model.fleet.Ship;
 import com.stellarcolonizer.model.fleet.Fleet;
 import com.stellarcolonizer.model.galaxy.Hex;
+import javafx.animation.AnimationTimer;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * 战斗UI组件
- * 提供战斗选择和结果显示功能
+ * 提供战斗选择和结果显示功能，战斗结束后可以逐次回放每一次攻击
  */
 public class BattleUI extends VBox {
     
@@ -24,6 +30,17 @@ public class BattleUI extends VBox {
     private Button cancelButton;
     private TextArea battleLog;
     
+    // 战斗回放
+    private final BattleRecorder recorder = new BattleRecorder();
+    private VBox replayBox;
+    private Slider replaySlider;
+    private Label replayEventLabel;
+    private Label replayStatusLabel;
+    private Button playButton;
+    private AnimationTimer playTimer;
+    private int replayCursor;          // 已回放的攻击次数
+    private int[] replayAlive;         // 回放到 replayCursor 时各派系的存活舰船数
+    
     public BattleUI(Hex hex) {
         this.hex = hex;
         this.fleets = hex.getFleets();
@@ -56,6 +73,21 @@ public class BattleUI extends VBox {
         // 设置按钮样式
         startBattleButton.getStyleClass().add("button-primary");
         cancelButton.getStyleClass().add("button-secondary");
+        
+        // 回放控件（战斗结束后显示）
+        replaySlider = new Slider(0, 0, 0);
+        replaySlider.setBlockIncrement(1);
+        replayEventLabel = new Label();
+        replayStatusLabel = new Label();
+        playButton = new Button("播放");
+        Button previousRoundButton = new Button("上一回合");
+        Button nextRoundButton = new Button("下一回合");
+        previousRoundButton.setOnAction(e -> stepRound(-1));
+        nextRoundButton.setOnAction(e -> stepRound(1));
+        HBox replayControls = new HBox(10, previousRoundButton, playButton, nextRoundButton);
+        replayBox = new VBox(5, new Label("战斗回放:"), replaySlider, replayControls, replayEventLabel, replayStatusLabel);
+        replayBox.setVisible(false);
+        replayBox.setManaged(false);
     }
     
     private void layoutComponents() {
@@ -75,6 +107,9 @@ public class BattleUI extends VBox {
         Label logLabel = new Label("战斗日志:");
         this.getChildren().addAll(logLabel, battleLog);
         
+        // 添加回放区域
+        this.getChildren().add(replayBox);
+        
         // 按钮区域
         HBox buttonBox = new HBox(10);
         buttonBox.getChildren().addAll(startBattleButton, cancelButton);
@@ -84,6 +119,34 @@ public class BattleUI extends VBox {
     private void setupEventHandlers() {
         startBattleButton.setOnAction(e -> startBattle());
         cancelButton.setOnAction(e -> cancelBattle());
+        replaySlider.valueProperty().addListener((obs, oldValue, newValue) -> showReplayPosition(newValue.intValue()));
+        playButton.setOnAction(e -> togglePlayback());
+        fleetListView.getSelectionModel().selectedItemProperty().addListener((obs, oldFleet, newFleet) -> {
+            if (newFleet != null) {
+                showPrediction(newFleet);
+            }
+        });
+    }
+    
+    /**
+     * 显示所选舰队所属派系在此六边形上与敌对舰队交战的预测结果
+     */
+    private void showPrediction(Fleet selected) {
+        List<Fleet> allies = new ArrayList<>();
+        List<Fleet> enemies = new ArrayList<>();
+        for (Fleet fleet : fleets) {
+            if (fleet.getFaction() == selected.getFaction()) {
+                allies.add(fleet);
+            } else if (BattleSystem.areHostile(selected.getFaction(), fleet.getFaction())) {
+                enemies.add(fleet);
+            }
+        }
+        if (enemies.isEmpty()) {
+            battleLog.appendText(selected.getFaction().getName() + " 在此没有敌对舰队\n");
+            return;
+        }
+        BattleEstimator.Estimate estimate = BattleEstimator.shared().estimate(allies, enemies);
+        battleLog.appendText("战斗预测 (" + selected.getFaction().getName() + "): " + estimate + "\n");
     }
     
     private void startBattle() {
@@ -92,16 +155,14 @@ public class BattleUI extends VBox {
             battleLog.appendText("开始战斗...\n");
             
             // 执行战斗
-            BattleResult result = BattleSystem.startBattle(hex);
+            BattleResult result = BattleSystem.startBattle(hex, HexBattle.Targeting.RANDOM, System.nanoTime(), recorder);
             
             if (result != null) {
-                // 显示战斗结果
+                // 显示战斗结果和回放
                 battleLog.appendText(result.getBattleSummary());
-                
-                // 通知父窗口更新
-                if (getScene() != null && getScene().getWindow() instanceof Stage) {
-                    ((Stage) getScene().getWindow()).close();
-                }
+                startBattleButton.setDisable(true);
+                cancelButton.setText("关闭");
+                showReplay();
             } else {
                 battleLog.appendText("无法开始战斗：没有敌对舰队\n");
             }
@@ -110,7 +171,101 @@ public class BattleUI extends VBox {
         }
     }
     
+    /**
+     * 显示回放控件，定位到战斗开始
+     */
+    private void showReplay() {
+        battleLog.appendText("回放记录: " + recorder.getEventCount() + " 次攻击，"
+                + recorder.getSizeInBytes() / 1024 + " KB\n");
+        replayCursor = 0;
+        replayAlive = recorder.aliveBySide(0);
+        replaySlider.setMax(recorder.getEventCount());
+        replaySlider.setValue(0);
+        replayBox.setVisible(true);
+        replayBox.setManaged(true);
+        showReplayPosition(0);
+    }
+    
+    /**
+     * 回放到第 position 次攻击之后：向后拖动时增量回放，向前拖动时从头重算
+     */
+    private void showReplayPosition(int position) {
+        if (replayAlive == null) {
+            return;
+        }
+        if (position < replayCursor) {
+            replayCursor = 0;
+            replayAlive = recorder.aliveBySide(0);
+        }
+        for (; replayCursor < position; replayCursor++) {
+            if (recorder.isKill(replayCursor)) {
+                replayAlive[recorder.getSide(recorder.getTarget(replayCursor))]--;
+            }
+        }
+        
+        if (position == 0) {
+            replayEventLabel.setText("战斗开始");
+        } else {
+            int event = position - 1;
+            Ship attacker = recorder.getShip(recorder.getAttacker(event));
+            Ship target = recorder.getShip(recorder.getTarget(event));
+            replayEventLabel.setText(String.format("第 %d 回合: %s 攻击 %s，造成 %.0f 伤害%s",
+                    recorder.getRound(event), attacker.getName(), target.getName(),
+                    recorder.getDamage(event), recorder.isKill(event) ? "，击毁" : ""));
+        }
+        
+        StringBuilder status = new StringBuilder("存活舰船: ");
+        for (int side = 0; side < replayAlive.length; side++) {
+            if (side > 0) status.append("，");
+            status.append(recorder.getFaction(side).getName()).append(" ").append(replayAlive[side]);
+        }
+        replayStatusLabel.setText(status.toString());
+    }
+    
+    // 跳到上一回合或下一回合的开始
+    private void stepRound(int direction) {
+        int position = (int) replaySlider.getValue();
+        int round = position < recorder.getEventCount() ? recorder.getRound(position) : recorder.getRounds() + 1;
+        if (direction < 0 && position > recorder.getRoundStart(round)) {
+            round++; // 回合中途时先回到本回合开始
+        }
+        replaySlider.setValue(recorder.getRoundStart(Math.max(1, round + direction)));
+    }
+    
+    private void togglePlayback() {
+        if (playTimer != null) {
+            stopPlayback();
+            return;
+        }
+        if (replaySlider.getValue() >= replaySlider.getMax()) {
+            replaySlider.setValue(0);
+        }
+        // 约5秒播放完整场战斗
+        int step = Math.max(1, recorder.getEventCount() / 300);
+        playTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                double next = Math.min(replaySlider.getMax(), replaySlider.getValue() + step);
+                replaySlider.setValue(next);
+                if (next >= replaySlider.getMax()) {
+                    stopPlayback();
+                }
+            }
+        };
+        playButton.setText("暂停");
+        playTimer.start();
+    }
+    
+    private void stopPlayback() {
+        if (playTimer != null) {
+            playTimer.stop();
+            playTimer = null;
+        }
+        playButton.setText("播放");
+    }
+    
     private void cancelBattle() {
+        stopPlayback();
         if (getScene() != null && getScene().getWindow() instanceof Stage) {
             ((Stage) getScene().getWindow()).close();
         }
@@ -450,6 +450,9 @@ public class ColonyManagerView extends VBox {
     private void updateColonyDetails() {
         if (selectedColony == null) return;
 
+        // 回合结算只更新经济数组，正在显示的殖民地才刷新产出和消耗属性
+        selectedColony.refreshRateProperties();
+
         // 更新基本信息
         colonyNameLabel.setText("殖民地: " + selectedColony.getName());
         planetInfoLabel.setText("行星: " + selectedColony.getPlanet().getName() +
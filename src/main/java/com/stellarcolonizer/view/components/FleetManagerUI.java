@@ -10,6 +10,7 @@ import com.stellarcolonizer.model.galaxy.Planet;
 import com.stellarcolonizer.model.galaxy.StarSystem;
 import com.stellarcolonizer.model.colony.Colony;
 import com.stellarcolonizer.model.galaxy.enums.ResourceType;
+import com.stellarcolonizer.model.battle.BattleEstimator;
 import com.stellarcolonizer.model.battle.BattleResult;
 import com.stellarcolonizer.model.battle.BattleSystem;
 import javafx.beans.binding.Bindings;
@@ -129,10 +130,11 @@ public class FleetManagerUI extends BorderPane {
                             int totalArmor = 0;
                             
                             if (selectedFleet.getShips() != null) {
-                                for (Ship ship : selectedFleet.getShips()) {
-                                    totalHitPoints += ship.getHitPoints();
-                                    totalDamage += ship.calculateDamageOutput();
-                                    totalArmor += ship.getCurrentArmor();
+                                for (Ship ship : selectedFleet.getShipEntries()) {
+                                    int count = selectedFleet.getStackSize(ship);
+                                    totalHitPoints += ship.getHitPoints() * count;
+                                    totalDamage += ship.calculateDamageOutput() * count;
+                                    totalArmor += ship.getCurrentArmor() * count;
                                 }
                             }
                             
@@ -619,10 +621,11 @@ public class FleetManagerUI extends BorderPane {
         int totalArmor = 0;
         
         if (selectedFleet != null && selectedFleet.getShips() != null) {
-            for (Ship ship : selectedFleet.getShips()) {
-                totalHitPoints += ship.getHitPoints();
-                totalDamage += ship.calculateDamageOutput();
-                totalArmor += ship.getCurrentArmor();
+            for (Ship ship : selectedFleet.getShipEntries()) {
+                int count = selectedFleet.getStackSize(ship);
+                totalHitPoints += ship.getHitPoints() * count;
+                totalDamage += ship.calculateDamageOutput() * count;
+                totalArmor += ship.getCurrentArmor() * count;
             }
         }
         
@@ -702,7 +705,7 @@ public class FleetManagerUI extends BorderPane {
 
     private void updateShipList() {
         if (selectedFleet != null) {
-            shipListView.setItems(FXCollections.observableArrayList(selectedFleet.getShips()));
+            shipListView.setItems(FXCollections.observableArrayList(selectedFleet.getShipEntries()));
         } else {
             shipListView.setItems(FXCollections.observableArrayList());
         }
@@ -853,7 +856,7 @@ public class FleetManagerUI extends BorderPane {
 
         // 创建舰船选择列表
         ListView<Ship> shipSelectionList = new ListView<>(
-                FXCollections.observableArrayList(selectedFleet.getShips())
+                FXCollections.observableArrayList(selectedFleet.getShipEntries())
         );
         shipSelectionList.setPrefHeight(300);
         shipSelectionList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
@@ -1151,14 +1154,14 @@ public class FleetManagerUI extends BorderPane {
                     Fleet newFleet = new Fleet(fleetName, selectedColony.getFaction(), colonyHex);
 
                     // 执行建造逻辑 - 为新舰队添加舰船
-                    for (int i = 0; i < quantity; i++) {
-                        // 创建新舰船实例
+                    if (quantity > 1) {
+                        // 批量建造的同设计舰船以编队保存
+                        newFleet.addShips(design, quantity);
+                    } else {
                         String shipName = newFleet.generateUniqueShipName(design);
-                        Ship newShip = new Ship(shipName, design, selectedColony.getFaction());
-
-                        // 将新舰船添加到新创建的舰队中
-                        newFleet.addShip(newShip);
-
+                        newFleet.addShip(new Ship(shipName, design, selectedColony.getFaction()));
+                    }
+                    for (int i = 0; i < quantity; i++) {
                         // 消耗资源
                         consumeResources(selectedColony.getFaction(), design);
                     }
@@ -1191,7 +1194,7 @@ public class FleetManagerUI extends BorderPane {
         }
 
         StringBuilder resourceText = new StringBuilder("\n");
-        Map<ResourceType, Float> costs = design.getConstructionCost();
+        Map<ResourceType, Float> costs = design.getConstructionCost().toMap();
 
         boolean hasRequirements = false;
         for (Map.Entry<ResourceType, Float> entry : costs.entrySet()) {
@@ -1226,7 +1229,7 @@ public class FleetManagerUI extends BorderPane {
     }
 
     private String getInsufficientResources(Faction faction, ShipDesign design, int quantity) {
-        Map<ResourceType, Float> costs = design.getConstructionCost();
+        Map<ResourceType, Float> costs = design.getConstructionCost().toMap();
         ResourceStockpile stockpile = playerFaction.getResourceStockpile();
 
         StringBuilder missingResources = new StringBuilder();
@@ -1249,12 +1252,7 @@ public class FleetManagerUI extends BorderPane {
     }
 
     private void consumeResources(Faction faction, ShipDesign design) {
-        Map<ResourceType, Float> costs = design.getConstructionCost();
-        ResourceStockpile stockpile = playerFaction.getResourceStockpile();
-
-        for (Map.Entry<ResourceType, Float> entry : costs.entrySet()) {
-            stockpile.consumeResource(entry.getKey(), entry.getValue());
-        }
+        playerFaction.getResourceStockpile().consumeResources(design.getConstructionCost());
     }
 
     private void showAlert(String title, String message) {
@@ -1349,8 +1347,9 @@ public class FleetManagerUI extends BorderPane {
 
                 VBox infoBox = new VBox(2);
 
-                // 舰船名称
-                Label nameLabel = new Label(ship.getName());
+                // 舰船名称，编队显示数量
+                int stackSize = selectedFleet != null ? selectedFleet.getStackSize(ship) : 1;
+                Label nameLabel = new Label(stackSize > 1 ? ship.getName() + " ×" + stackSize : ship.getName());
                 nameLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: white;");
 
                 // 舰船状态
@@ -1417,8 +1416,12 @@ public class FleetManagerUI extends BorderPane {
                 if (empty || item == null) {
                     setText(null);
                 } else {
+                    BattleEstimator.Estimate estimate =
+                            BattleEstimator.shared().estimate(List.of(selectedFleet), List.of(item));
                     setText(item.getName() + " (舰船: " + item.getShipCount() + 
-                           ", 派系: " + item.getFaction().getName() + ")");
+                           ", 派系: " + item.getFaction().getName() +
+                           String.format(", 预计胜率: %.0f%%, 预计损失: %.1f 艘)",
+                                   estimate.getWinProbability() * 100, estimate.getExpectedAttackerLosses()));
                 }
             }
         });
@@ -1451,8 +1454,8 @@ public class FleetManagerUI extends BorderPane {
     // 计算预期伤害
     private int calculateExpectedDamage(Fleet attacker, Fleet defender) {
         int totalDamage = 0;
-        for (Ship ship : attacker.getShips()) {
-            totalDamage += ship.calculateDamageOutput();
+        for (Ship ship : attacker.getShipEntries()) {
+            totalDamage += ship.calculateDamageOutput() * attacker.getStackSize(ship);
         }
         return totalDamage;
     }
@@ -43,6 +43,10 @@ public class HexMapView extends Pane {
     private Hex selectedHex;
     private Fleet selectedFleet; // 当前选中的舰队
     private Map<Hex, Color> highlightedHexes = new HashMap<>();
+    
+    // 可达性查询的复用缓冲区
+    private final List<Hex> reachableBuffer = new ArrayList<>();
+    private HexReachability gridReachability;
 
     // 交互状态
     private boolean isDragging = false;
@@ -182,7 +186,7 @@ public class HexMapView extends Pane {
         }
         
         Hex currentHex = fleet.getCurrentHex();
-        int moveRange = calculateFleetMoveRange(fleet);
+        int moveRange = fleet.getMovementRange(); // 按舰队速度和剩余移动点数计算
         
         // 计算在移动范围内的所有六边形
         List<Hex> movableHexes = getReachableHexes(currentHex, moveRange);
@@ -197,82 +201,25 @@ public class HexMapView extends Pane {
     }
     
     /**
-     * 计算舰队的移动范围
-     * 低级舰船(1-3级)可移动2格，高级舰船(4-6级)只能移动1格
+     * 获取在指定范围内可到达的六边形
+     * 只有有路径连接的六边形才能到达，结果写入复用的缓冲区
      */
-    private int calculateFleetMoveRange(Fleet fleet) {
-        if (fleet == null || fleet.getShips().isEmpty()) {
-            return 1; // 默认移动范围
-        }
-        
-        // 计算舰队中最高等级舰船的等级
-        int highestTechLevel = fleet.getShips().stream()
-            .mapToInt(ship -> ship.getDesign().getShipClass().getTechLevel())
-            .max()
-            .orElse(1);
-        
-        // 根据舰船等级确定移动范围
-        if (highestTechLevel <= 3) {
-            return 2; // 低级舰船可移动2格
-        } else {
-            return 1; // 高级舰船只能移动1格
-        }
+    private List<Hex> getReachableHexes(Hex startHex, int range) {
+        getReachability().findReachable(startHex, range, reachableBuffer);
+        return reachableBuffer;
     }
     
     /**
-     * 获取在指定范围内可到达的六边形
-     * 只有有路径连接的六边形才能到达
+     * 获取可达性搜索器：有银河系时使用其连接关系，否则按网格邻接处理
      */
-    private List<Hex> getReachableHexes(Hex startHex, int range) {
-        List<Hex> reachableHexes = new ArrayList<>();
-        
-        // 使用广度优先搜索(BFS)找到范围内所有可到达的六边形
-        Queue<Hex> queue = new LinkedList<>();
-        Set<Hex> visited = new HashSet<>();
-        Map<Hex, Integer> distances = new HashMap<>();
-        
-        queue.offer(startHex);
-        visited.add(startHex);
-        distances.put(startHex, 0);
-        reachableHexes.add(startHex);
-        
-        while (!queue.isEmpty()) {
-            Hex current = queue.poll();
-            int currentDistance = distances.get(current);
-            
-            if (currentDistance >= range) {
-                continue; // 如果已达到最大距离，不再扩展
-            }
-            
-            // 检查所有邻居六边形
-            List<Hex> neighbors = hexGrid.getNeighbors(current);
-            for (Hex neighbor : neighbors) {
-                // 检查银河系中是否有连接
-                if (galaxy != null && !galaxy.getHexConnections().isEmpty()) {
-                    Set<Hex> connectedHexes = galaxy.getHexConnections().get(current);
-                    // 检查连接是否双向存在（确保两个六边形之间确实有连接）
-                    Set<Hex> neighborConnections = galaxy.getHexConnections().get(neighbor);
-                    boolean hasConnection = connectedHexes != null && connectedHexes.contains(neighbor);
-                    
-                    if (hasConnection && !visited.contains(neighbor)) {
-                        visited.add(neighbor);
-                        distances.put(neighbor, currentDistance + 1);
-                        reachableHexes.add(neighbor);
-                        queue.offer(neighbor);
-                    }
-                } else {
-                    // 如果没有连接信息，假设所有邻居都可到达
-                    if (!visited.contains(neighbor)) {
-                        visited.add(neighbor);
-                        distances.put(neighbor, currentDistance + 1);
-                        reachableHexes.add(neighbor);
-                        queue.offer(neighbor);
-                    }
-                }
-            }
+    private HexReachability getReachability() {
+        if (galaxy != null && galaxy.getHexGrid() == hexGrid) {
+            return galaxy.getReachability();
         }
-        
-        return reachableHexes;
+        if (gridReachability == null || gridReachability.getHexGrid() != hexGrid) {
+            gridReachability = new HexReachability(hexGrid);
+        }
+        return gridReachability;
     }
 
     public void highlightHex(Hex hex, Color color) {
@@ -398,14 +345,16 @@ public class HexMapView extends Pane {
                     }
                     showAlert("移动限制", "该舰队本回合已移动过，无法再次移动");
                 } else {
-                    int moveRange = calculateFleetMoveRange(selectedFleet);
-                    List<Hex> reachableHexes = getReachableHexes(selectedFleet.getCurrentHex(), moveRange);
+                    int moveRange = selectedFleet.getMovementRange();
+                    getReachableHexes(selectedFleet.getCurrentHex(), moveRange);
+                    boolean reachable = getReachability().isReached(clickedHex);
 
-                    if (reachableHexes.contains(clickedHex) && !clickedHex.equals(selectedFleet.getCurrentHex())) {
+                    if (reachable && !clickedHex.equals(selectedFleet.getCurrentHex())) {
                         boolean moveSuccessful = selectedFleet.moveTo(clickedHex);
 
                         if (moveSuccessful) {
-                            System.out.println("舰队 " + selectedFleet.getName() + " 已移动到 " + clickedHex.getCoord());
+                            System.out.println("舰队 " + selectedFleet.getName() + " 将在移动阶段前往 " + clickedHex.getCoord()
+                                    + "，预计 " + selectedFleet.getEtaTurns() + " 回合到达");
 
                             setSelectedFleet(null);
                             clearHighlights();
@@ -414,7 +363,7 @@ public class HexMapView extends Pane {
                             HexSelectedEvent hexEvent = new HexSelectedEvent(HexSelectedEvent.HEX_SELECTED, clickedHex);
                             fireEvent(hexEvent);
                         }
-                    } else if (reachableHexes.contains(clickedHex)) {
+                    } else if (reachable) {
                         // 点击的是当前六边形，取消选择
                         setSelectedFleet(null);
                         clearHighlights();
@@ -63,6 +63,8 @@ public class ShipDesignerUI extends BorderPane {
     private Button saveDesignButton;
     private Button newDesignButton;
     private Button copyDesignButton;
+    private Button autoDesignButton;
+    private ComboBox<AutoDesigner.Objective> objectiveComboBox;
 
     // 舰船等级选择
     private ComboBox<ShipClass> shipClassComboBox;
@@ -224,10 +226,30 @@ public class ShipDesignerUI extends BorderPane {
         saveDesignButton = new Button("保存设计");
         saveDesignButton.setStyle("-fx-background-color: #FF9800; -fx-text-fill: white;");
 
+        // 自动设计
+        objectiveComboBox = new ComboBox<>();
+        objectiveComboBox.getItems().addAll(AutoDesigner.Objective.values());
+        objectiveComboBox.setValue(AutoDesigner.Objective.COMBAT_POWER);
+        objectiveComboBox.setConverter(new javafx.util.StringConverter<AutoDesigner.Objective>() {
+            @Override
+            public String toString(AutoDesigner.Objective objective) {
+                return objective == null ? "" : objective.getDisplayName();
+            }
+
+            @Override
+            public AutoDesigner.Objective fromString(String string) {
+                return null;
+            }
+        });
+
+        autoDesignButton = new Button("自动设计");
+        autoDesignButton.setStyle("-fx-background-color: #9C27B0; -fx-text-fill: white;");
+
         panel.getChildren().addAll(
                 new Label("舰船等级:"), shipClassComboBox,
                 new Label("现有设计:"), existingDesigns,
-                newDesignButton, copyDesignButton, saveDesignButton
+                newDesignButton, copyDesignButton, saveDesignButton,
+                objectiveComboBox, autoDesignButton
         );
 
         return panel;
@@ -550,6 +572,18 @@ public class ShipDesignerUI extends BorderPane {
             createNewDesign(selectedClass);
         });
 
+        // 自动设计按钮：按当前舰船等级和已研发科技搜索模块组合
+        autoDesignButton.setOnAction(e -> {
+            ShipClass selectedClass = shipClassComboBox.getValue();
+            if (selectedClass == null || !isShipClassUnlocked(selectedClass)) {
+                showAlert("无法自动设计", "请先选择已解锁的舰船等级。");
+                return;
+            }
+            currentDesign = AutoDesigner.shared().createDesign(selectedClass, researchedTechnologies,
+                    objectiveComboBox.getValue());
+            updateUIFromDesign();
+        });
+
         // 复制设计按钮
         copyDesignButton.setOnAction(e -> {
             if (currentDesign != null) {
@@ -761,28 +795,7 @@ public class ShipDesignerUI extends BorderPane {
     }
 
     private boolean isShipClassUnlocked(ShipClass shipClass) {
-        switch (shipClass) {
-            case CORVETTE:
-                // 护卫舰始终解锁
-                return true;
-            case FRIGATE:
-                // 驱逐舰由热力学科技解锁
-                return researchedTechnologies.contains("THERMODYNAMICS");
-            case DESTROYER:
-                // 巡洋舰由量子力学科技解锁
-                return researchedTechnologies.contains("QUANTUM_MECHANICS");
-            case CRUISER:
-                // 战列舰由核物理学科技解锁
-                return researchedTechnologies.contains("NUCLEAR_PHYSICS");
-            case BATTLESHIP:
-                // 航母由电磁学科技解锁
-                return researchedTechnologies.contains("ELECTROMAGNETISM");
-            case CARRIER:
-                // 无畏舰由粒子物理学科技解锁
-                return researchedTechnologies.contains("PARTICLE_PHYSICS");
-            default:
-                return false;
-        }
+        return ModuleLibrary.isShipClassUnlocked(shipClass, researchedTechnologies);
     }
     
     private String getRequiredTechnologyForShipClass(ShipClass shipClass) {
@@ -804,274 +817,7 @@ public class ShipDesignerUI extends BorderPane {
     
     private void loadDefaultModules() {
         // 加载所有可用的模块
-        availableModules.clear();
-
-        // 武器模块 - 基础级
-        WeaponModule basicLaser = createWeaponModule("小型激光炮", WeaponType.LASER, 50, 2, 100, 1);
-        // 小型激光炮是基础模块，不需要科技解锁
-        basicLaser.setRequiredTechnology("BASIC_MODULE");
-        availableModules.add(basicLaser);
-        
-        // 轻型等离子炮 - 需要等离子武器科技解锁
-        WeaponModule lightPlasma = createWeaponModule("轻型等离子炮", WeaponType.PLASMA, 100, 1, 150, 2);
-        lightPlasma.setRequiredTechnology("等离子武器");
-        availableModules.add(lightPlasma);
-        
-        WeaponModule basicMissile = createWeaponModule("基础导弹", WeaponType.MISSILE, 150, 0.3f, 180, 2);
-        // 基础导弹是基础模块，不需要科技解锁
-        basicMissile.setRequiredTechnology("BASIC_MODULE");
-        availableModules.add(basicMissile);
-
-        // 武器模块 - 中级（需要科技解锁）
-        // 标准磁轨炮 - 需要磁轨炮科技解锁
-        WeaponModule standardRailgun = createWeaponModule("标准磁轨炮", WeaponType.RAILGUN, 200, 0.5f, 200, 3);
-        standardRailgun.setRequiredTechnology("磁轨炮技术");
-        availableModules.add(standardRailgun);
-
-        // 武器模块 - 高级（需要科技解锁）
-        // 先进激光炮 - 需要高级激光科技解锁
-        WeaponModule advancedLaser = createWeaponModule("先进激光炮", WeaponType.LASER, 120, 3, 250, 4);
-        advancedLaser.setRequiredTechnology("高级激光技术");
-        availableModules.add(advancedLaser);
-        
-        // 重型轨道炮 - 需要重型火炮科技解锁
-        WeaponModule heavyCannon = createWeaponModule("重型轨道炮", WeaponType.RAILGUN, 350, 0.4f, 350, 5);
-        heavyCannon.setRequiredTechnology("重型火炮技术");
-        availableModules.add(heavyCannon);
-
-        // 防御模块 - 基础级
-        DefenseModule basicShield = createDefenseModule("基础能量护盾", DefenseType.SHIELD, 200, 120, 1);
-        // 基础能量护盾是基础模块，不需要科技解锁
-        basicShield.setRequiredTechnology("BASIC_MODULE");
-        availableModules.add(basicShield);
-        
-        // 复合装甲 - 需要复合装甲科技解锁
-        DefenseModule compositeArmor = createDefenseModule("复合装甲", DefenseType.ARMOR, 100, 100, 1);
-        compositeArmor.setRequiredTechnology("复合装甲技术");
-        availableModules.add(compositeArmor);
-        
-        DefenseModule basicECM = createDefenseModule("电子对抗系统", DefenseType.ECM, 30, 80, 3);
-        // 电子对抗系统是基础模块，不需要科技解锁
-        basicECM.setRequiredTechnology("BASIC_MODULE");
-        availableModules.add(basicECM);
-
-        // 防御模块 - 中级（需要科技解锁）
-        // 点防御系统 - 需要点防御系统科技解锁
-        DefenseModule pointDefenseSystem = createDefenseModule("点防御系统", DefenseType.POINT_DEFENSE, 50, 100, 2);
-        pointDefenseSystem.setRequiredTechnology("点防御系统");
-        availableModules.add(pointDefenseSystem);
-
-        // 防御模块 - 高级（需要科技解锁）
-        // 先进护盾 - 需要高级护盾科技解锁
-        DefenseModule advancedShield = createDefenseModule("先进护盾", DefenseType.SHIELD, 400, 250, 3);
-        advancedShield.setRequiredTechnology("高级护盾技术");
-        availableModules.add(advancedShield);
-
-        // 功能模块 - 基础级
-        UtilityModule basicSensor = createUtilityModule("基础传感器", UtilityType.SENSOR, 50, 80, 1);
-        // 基础传感器是基础模块，不需要科技解锁
-        availableModules.add(basicSensor);
-        
-        UtilityModule basicCargoBay = createUtilityModule("简易货舱", UtilityType.CARGO_BAY, 100, 100, 1);
-        // 简易货舱是基础模块，不需要科技解锁
-        availableModules.add(basicCargoBay);
-        
-        UtilityModule basicHangar = createUtilityModule("基础机库", UtilityType.HANGAR, 80, 200, 1);
-        // 基础机库是基础模块，不需要科技解锁
-        availableModules.add(basicHangar);
-
-        // 功能模块 - 高级（需要科技解锁）
-        UtilityModule advancedSensor = createUtilityModule("先进传感器", UtilityType.SENSOR, 120, 180, 3);
-        advancedSensor.setRequiredTechnology("ADVANCED_UTILITIES"); // 使用正确的高级功能模块科技ID
-        availableModules.add(advancedSensor);
-
-        // 引擎模块 - 基础级
-        EngineModule basicEngine = createEngineModule("基础引擎", 150, 300, 1);
-        // 基础引擎是基础模块，不需要科技解锁
-        basicEngine.setRequiredTechnology("BASIC_MODULE");
-        availableModules.add(basicEngine);
-
-        // 引擎模块 - 中级（需要科技解锁）
-        // 标准引擎 - 需要标准引擎科技解锁
-        EngineModule standardEngine = createEngineModule("标准引擎", 200, 320, 2);
-        standardEngine.setRequiredTechnology("标准引擎技术");
-        availableModules.add(standardEngine);
-        
-        // 高性能引擎 - 需要高性能引擎科技解锁
-        EngineModule highPerformanceEngine = createEngineModule("高性能引擎", 300, 350, 3);
-        highPerformanceEngine.setRequiredTechnology("高性能引擎技术");
-        availableModules.add(highPerformanceEngine);
-
-        // 引擎模块 - 高级（需要科技解锁）
-        EngineModule advancedEngine = createEngineModule("先进引擎", 500, 450, 5);
-        advancedEngine.setRequiredTechnology("先进引擎技术");
-        availableModules.add(advancedEngine);
-
-        // 电力模块 - 基础级
-        PowerModule basicPower = createPowerModule("基础发电机", 500, 250, 1);
-        // 基础发电机是基础模块，不需要科技解锁
-        basicPower.setRequiredTechnology("BASIC_MODULE");
-        availableModules.add(basicPower);
-        
-        // 电力模块 - 中级（需要科技解锁）
-        // 标准发电机 - 需要标准发电机科技解锁
-        PowerModule standardPower = createPowerModule("标准发电机", 1000, 280, 2);
-        standardPower.setRequiredTechnology("标准发电机技术");
-        availableModules.add(standardPower);
-
-        // 电力模块 - 高级（需要科技解锁）
-        // 性能发电机 - 需要高性能发电机科技解锁
-        PowerModule highEfficiencyPower = createPowerModule("性能发电机", 2000, 300, 3);
-        highEfficiencyPower.setRequiredTechnology("性能发电机技术");
-        availableModules.add(highEfficiencyPower);
-
-        // 电力模块 - 顶级（需要科技解锁）
-        PowerModule advancedPower = createPowerModule("先进发电机", 5000, 400, 5);
-        advancedPower.setRequiredTechnology("先进发电机技术");
-        availableModules.add(advancedPower);
-    }
-
-    // 创建防御模块的辅助方法
-    private DefenseModule createDefenseModule(String name, DefenseType type, float defenseValue, int size, int techLevel) {
-        DefenseModule module = new DefenseModule(name, type, defenseValue);
-        // 通过反射设置受保护字段
-        try {
-            java.lang.reflect.Field sizeField = ShipModule.class.getDeclaredField("size");
-            sizeField.setAccessible(true);
-            ((javafx.beans.property.IntegerProperty) sizeField.get(module)).set(size);
-            
-            java.lang.reflect.Field techLevelField = ShipModule.class.getDeclaredField("techLevel");
-            techLevelField.setAccessible(true);
-            ((javafx.beans.property.IntegerProperty) techLevelField.get(module)).set(techLevel);
-            
-            // 仅在未设置科技需求时才设置默认值
-            if (module.getRequiredTechnology().equals("BASIC_MODULE")) {
-                if (techLevel > 1) {
-                    module.setRequiredTechnology("advanced_defenses");
-                } else {
-                    module.setRequiredTechnology("BASIC_MODULE");
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return module;
-    }
-
-    // 创建功能模块的辅助方法
-    private UtilityModule createUtilityModule(String name, UtilityType type, float utilityValue, int size, int techLevel) {
-        UtilityModule module = new UtilityModule(name, type, utilityValue);
-        // 通过反射设置受保护字段
-        try {
-            java.lang.reflect.Field sizeField = ShipModule.class.getDeclaredField("size");
-            sizeField.setAccessible(true);
-            ((javafx.beans.property.IntegerProperty) sizeField.get(module)).set(size);
-            
-            java.lang.reflect.Field techLevelField = ShipModule.class.getDeclaredField("techLevel");
-            techLevelField.setAccessible(true);
-            ((javafx.beans.property.IntegerProperty) techLevelField.get(module)).set(techLevel);
-            
-            // 仅在未设置科技需求时才设置默认值
-            if (module.getRequiredTechnology().equals("BASIC_MODULE")) {
-                if (techLevel > 1) {
-                    module.setRequiredTechnology("advanced_utilities");
-                } else {
-                    module.setRequiredTechnology("BASIC_MODULE");
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return module;
-    }
-
-    // 创建武器模块的辅助方法
-    private WeaponModule createWeaponModule(String name, WeaponType type, float damage, float fireRate, int size, int techLevel) {
-        WeaponModule module = new WeaponModule(name, type, damage, fireRate);
-        // 通过反射设置受保护字段
-        try {
-            java.lang.reflect.Field sizeField = ShipModule.class.getDeclaredField("size");
-            sizeField.setAccessible(true);
-            ((javafx.beans.property.IntegerProperty) sizeField.get(module)).set(size);
-            
-            java.lang.reflect.Field techLevelField = ShipModule.class.getDeclaredField("techLevel");
-            techLevelField.setAccessible(true);
-            ((javafx.beans.property.IntegerProperty) techLevelField.get(module)).set(techLevel);
-            
-            // 仅在未设置科技需求时才设置默认值
-            if (module.getRequiredTechnology().equals("BASIC_MODULE")) {
-                if (techLevel > 1) {
-                    module.setRequiredTechnology("advanced_weapons");
-                } else {
-                    module.setRequiredTechnology("BASIC_MODULE");
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return module;
-    }
-
-    // 创建引擎模块的辅助方法
-    private EngineModule createEngineModule(String name, float thrust, int size, int techLevel) {
-        EngineModule module = new EngineModule(thrust);
-        // 通过反射设置受保护字段
-        try {
-            java.lang.reflect.Field nameField = ShipModule.class.getDeclaredField("name");
-            nameField.setAccessible(true);
-            ((StringProperty) nameField.get(module)).set(name);
-            
-            java.lang.reflect.Field sizeField = ShipModule.class.getDeclaredField("size");
-            sizeField.setAccessible(true);
-            ((javafx.beans.property.IntegerProperty) sizeField.get(module)).set(size);
-            
-            java.lang.reflect.Field techLevelField = ShipModule.class.getDeclaredField("techLevel");
-            techLevelField.setAccessible(true);
-            ((javafx.beans.property.IntegerProperty) techLevelField.get(module)).set(techLevel);
-            
-            // 仅在未设置科技需求时才设置默认值
-            if (module.getRequiredTechnology().equals("BASIC_MODULE")) {
-                if (techLevel > 1) {
-                    module.setRequiredTechnology("advanced_engines");
-                } else {
-                    module.setRequiredTechnology("BASIC_MODULE");
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return module;
-    }
-
-    // 创建电力模块的辅助方法
-    private PowerModule createPowerModule(String name, int powerOutput, int size, int techLevel) {
-        PowerModule module = new PowerModule(powerOutput);
-        // 通过反射设置受保护字段
-        try {
-            java.lang.reflect.Field nameField = ShipModule.class.getDeclaredField("name");
-            nameField.setAccessible(true);
-            ((StringProperty) nameField.get(module)).set(name);
-            
-            java.lang.reflect.Field sizeField = ShipModule.class.getDeclaredField("size");
-            sizeField.setAccessible(true);
-            ((javafx.beans.property.IntegerProperty) sizeField.get(module)).set(size);
-            
-            java.lang.reflect.Field techLevelField = ShipModule.class.getDeclaredField("techLevel");
-            techLevelField.setAccessible(true);
-            ((javafx.beans.property.IntegerProperty) techLevelField.get(module)).set(techLevel);
-            
-            // 仅在未设置科技需求时才设置默认值
-            if (module.getRequiredTechnology().equals("BASIC_MODULE")) {
-                if (techLevel > 1) {
-                    module.setRequiredTechnology("advanced_power");
-                } else {
-                    module.setRequiredTechnology("BASIC_MODULE");
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return module;
+        availableModules.setAll(ModuleLibrary.createDefaultModules());
     }
 
     private void createNewDesign(ShipClass shipClass) {
@@ -1079,75 +825,19 @@ public class ShipDesignerUI extends BorderPane {
         currentDesign = new ShipDesign(designName, shipClass);
         
         // 应用科技加成
-        float hullMultiplier = calculateHullSizeMultiplier(researchedTechnologies);
+        float hullMultiplier = ModuleLibrary.calculateHullSizeMultiplier(researchedTechnologies);
         currentDesign.setHullSizeMultiplier(hullMultiplier);
         
         // 确保初始设计是有效的
         // 移除所有模块并重新添加默认模块，确保符合设计规则
         currentDesign.getModules().clear();
-        addDefaultModulesForDesign(currentDesign, shipClass);
+        ModuleLibrary.addBaseModules(currentDesign, shipClass);
         
         updateUIFromDesign();
         
         // 不再自动添加到保存列表中，只在用户明确点击保存时才保存
     }
     
-    private void addDefaultModulesForDesign(ShipDesign design, ShipClass shipClass) {
-        // 根据舰船等级添加合适的默认模块
-        HullModule hullModule = null;
-        
-        switch (shipClass) {
-            case CORVETTE:
-                hullModule = new HullModule(900);
-                // 护卫舰船体默认解锁（通过设置为BASIC_MODULE）
-                hullModule.setRequiredTechnology("BASIC_MODULE");
-                design.addModule(hullModule);
-                design.addModule(new EngineModule(150));
-                design.addModule(new PowerModule(500));
-                break;
-            case FRIGATE:
-                hullModule = new HullModule(1800);
-                // 驱逐舰船体需要THERMODYNAMICS科技解锁
-                hullModule.setRequiredTechnology("THERMODYNAMICS");
-                design.addModule(hullModule);
-                design.addModule(new EngineModule(120));
-                design.addModule(new PowerModule(1200));
-                break;
-            case DESTROYER:
-                hullModule = new HullModule(3500);
-                // 巡洋舰船体需要QUANTUM_MECHANICS科技解锁
-                hullModule.setRequiredTechnology("QUANTUM_MECHANICS");
-                design.addModule(hullModule);
-                design.addModule(new EngineModule(100));
-                design.addModule(new PowerModule(2500));
-                break;
-            case CRUISER:
-                hullModule = new HullModule(8000);
-                // 巡洋舰船体需要QUANTUM_MECHANICS科技解锁
-                hullModule.setRequiredTechnology("QUANTUM_MECHANICS");
-                design.addModule(hullModule);
-                design.addModule(new EngineModule(80));
-                design.addModule(new PowerModule(5000));
-                break;
-            case BATTLESHIP:
-                hullModule = new HullModule(18000);
-                // 战列舰船体需要NUCLEAR_PHYSICS科技解锁
-                hullModule.setRequiredTechnology("NUCLEAR_PHYSICS");
-                design.addModule(hullModule);
-                design.addModule(new EngineModule(60));
-                design.addModule(new PowerModule(10000));
-                break;
-            case CARRIER:
-                hullModule = new HullModule(28000);
-                // 航母船体需要ELECTROMAGNETISM科技解锁
-                hullModule.setRequiredTechnology("ELECTROMAGNETISM");
-                design.addModule(hullModule);
-                design.addModule(new EngineModule(50));
-                design.addModule(new PowerModule(15000));
-                break;
-        }
-    }
-
     private void loadDesign(ShipDesign design) {
         currentDesign = design;
         updateUIFromDesign();
@@ -1310,7 +1000,7 @@ n     * @return 已研发的科技集合
 
         // 更新建造成本
         costPanel.getChildren().clear();
-        Map<ResourceType, Float> costs = currentDesign.getConstructionCost();
+        Map<ResourceType, Float> costs = currentDesign.getConstructionCost().toMap();
         for (Map.Entry<ResourceType, Float> entry : costs.entrySet()) {
             HBox costRow = createCostRow(entry.getKey(), entry.getValue(), Color.YELLOW);
             costPanel.getChildren().add(costRow);
@@ -1318,7 +1008,7 @@ n     * @return 已研发的科技集合
 
         // 更新维护成本
         maintenancePanel.getChildren().clear();
-        Map<ResourceType, Float> maintenance = currentDesign.getMaintenanceCost();
+        Map<ResourceType, Float> maintenance = currentDesign.getMaintenanceCost().toMap();
         for (Map.Entry<ResourceType, Float> entry : maintenance.entrySet()) {
             HBox costRow = createCostRow(entry.getKey(), entry.getValue(), Color.ORANGE);
             maintenancePanel.getChildren().add(costRow);
@@ -1666,27 +1356,6 @@ n     * @return 已研发的科技集合
         }
     }
     
-    /**
-     * 根据已研发的科技计算船体空间乘数
-     * @param researchedTechs 已研发的科技ID集合
-     * @return 船体空间乘数
-     */
-    private static float calculateHullSizeMultiplier(java.util.Set<String> researchedTechs) {
-        float multiplier = 1.0f;
-        
-        // 船体强化科技提供1.2倍加成
-        if (researchedTechs.contains("hull_reinforcement")) {
-            multiplier += 0.2f;
-        }
-        
-        // 高级船体强化科技额外提供0.3倍加成
-        if (researchedTechs.contains("advanced_hull_reinforcement")) {
-            multiplier += 0.3f;
-        }
-        
-        return multiplier;
-    }
-    
     /**
      * 当科技研究完成时的回调方法
      * @param techId 完成的科技ID
@@ -9,6 +9,7 @@ import com.stellarcolonizer.model.colony.Colony;
 import com.stellarcolonizer.model.colony.ResourceRequirement;
 import com.stellarcolonizer.model.colony.enums.BuildingType;
 import com.stellarcolonizer.model.faction.Faction;
+import com.stellarcolonizer.model.economy.ResourceVector;
 import com.stellarcolonizer.model.fleet.Fleet;
 import com.stellarcolonizer.model.galaxy.Planet;
 import com.stellarcolonizer.model.galaxy.StarSystem;
@@ -874,7 +875,7 @@ public class StarSystemInfoView extends VBox {
         }
         
         // 计算殖民成本
-        Map<ResourceType, Float> colonizationCost = planet.calculateColonizationCost();
+        ResourceVector colonizationCost = planet.calculateColonizationCost();
         int requiredPopulation = planet.calculateRequiredPopulation();
 
         // 检查是否有足够的殖民地来迁移人口
@@ -985,14 +986,12 @@ public class StarSystemInfoView extends VBox {
         double distanceCostMultiplier = 1.0 + (distance * 0.1); // 每格距离增加10%成本
 
         // 应用距离成本乘数
-        Map<ResourceType, Float> adjustedColonizationCost = new EnumMap<>(ResourceType.class);
-        for (Map.Entry<ResourceType, Float> costEntry : colonizationCost.entrySet()) {
-            adjustedColonizationCost.put(costEntry.getKey(), costEntry.getValue() * (float)distanceCostMultiplier);
-        }
+        ResourceVector adjustedColonizationCost = new ResourceVector(colonizationCost).scale((float)distanceCostMultiplier);
+        Map<ResourceType, Float> adjustedCostItems = adjustedColonizationCost.toMap();
 
         // 显示成本信息
         StringBuilder costInfo = new StringBuilder("殖民成本:\n");
-        for (Map.Entry<ResourceType, Float> costEntry : adjustedColonizationCost.entrySet()) {
+        for (Map.Entry<ResourceType, Float> costEntry : adjustedCostItems.entrySet()) {
             costInfo.append(costEntry.getKey().getDisplayName())
                     .append(": ").append(String.format("%.1f", costEntry.getValue()))
                     .append("\n");
@@ -1001,12 +1000,11 @@ public class StarSystemInfoView extends VBox {
                 .append(" (成本增加").append(String.format("%.0f%%", (distanceCostMultiplier - 1.0) * 100)).append(")");
 
         // 检查资源是否足够（使用调整后的成本）
-        boolean hasEnoughResources = true;
+        boolean hasEnoughResources = playerFaction.getResourceStockpile().canAfford(adjustedColonizationCost);
         StringBuilder insufficientResources = new StringBuilder("资源不足:\n");
-        for (Map.Entry<ResourceType, Float> costEntry : adjustedColonizationCost.entrySet()) {
+        for (Map.Entry<ResourceType, Float> costEntry : adjustedCostItems.entrySet()) {
             float available = playerFaction.getResourceStockpile().getResource(costEntry.getKey());
             if (available < costEntry.getValue()) {
-                hasEnoughResources = false;
                 insufficientResources.append(costEntry.getKey().getDisplayName())
                         .append(": 需要 ").append(String.format("%.1f", costEntry.getValue()))
                         .append(", 拥有 ").append(String.format("%.1f", available))
@@ -1087,9 +1085,7 @@ public class StarSystemInfoView extends VBox {
         colonizationCost = adjustedColonizationCost;
 
         // 扣除资源成本
-        for (Map.Entry<ResourceType, Float> costEntry : colonizationCost.entrySet()) {
-            playerFaction.getResourceStockpile().consumeResource(costEntry.getKey(), costEntry.getValue());
-        }
+        playerFaction.getResourceStockpile().consumeResources(colonizationCost);
         
         // 从源殖民地迁移人口
         int farmersToTransfer = (int) (populationToTransfer * 0.4); // 40% 农民
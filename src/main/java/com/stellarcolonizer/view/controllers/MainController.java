@@ -1,8 +1,8 @@
 package com.stellarcolonizer.view.controllers;
 
 import com.stellarcolonizer.core.GameEngine;
-import com.stellarcolonizer.model.colony.Building;
 import com.stellarcolonizer.model.colony.Colony;
+import com.stellarcolonizer.model.colony.EconomyForecast;
 import com.stellarcolonizer.model.colony.ResourceRequirement;
 import com.stellarcolonizer.model.economy.ResourceStockpile;
 import com.stellarcolonizer.model.fleet.Fleet;
@@ -38,7 +38,6 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.layout.HBox;
 
-import java.util.EnumMap;
 import java.util.List; // 添加List导入
 import java.util.Map;
 
@@ -346,48 +345,8 @@ public class MainController {
         // 获取玩家阵营的统一资源数据（现在所有资源都存储在派系层面）
         ResourceStockpile factionStockpile = gameEngine.getPlayerFaction().getResourceStockpile();
         
-        // 计算所有殖民地的净产量总和
-        Map<ResourceType, Float> totalNetProduction = new EnumMap<>(ResourceType.class);
-        
-        // 初始化所有资源类型的净产量
-        for (ResourceType type : ResourceType.values()) {
-            totalNetProduction.put(type, 0f);
-        }
-        
-        System.out.println("更新资源显示，殖民地数量: " + gameEngine.getPlayerFaction().getColonies().size());
-        
-        // 遍历所有殖民地计算总净产量
-        for (Colony colony : gameEngine.getPlayerFaction().getColonies()) {
-            Map<ResourceType, Float> netProduction = colony.getNetProduction();
-            
-            System.out.println("殖民地: " + colony.getName());
-            System.out.println("净产量: " + netProduction.size() + " 种");
-            
-            // 累加净产量
-            for (ResourceType type : ResourceType.values()) {
-                float netAmount = netProduction.getOrDefault(type, 0f);
-                totalNetProduction.put(type, totalNetProduction.get(type) + netAmount);
-                
-                if (netAmount != 0) {
-                    System.out.println("  " + type.getDisplayName() + 
-                        " 净产量: " + String.format("%.2f", netAmount));
-                }
-            }
-            
-            // 添加建筑维护成本的考虑
-            for (Building building : colony.getBuildings()) {
-                // 获取所有资源类型的维护成本
-                for (ResourceType type : ResourceType.values()) {
-                    float maintenanceCost = building.getMaintenanceCost(type);
-                    if (maintenanceCost > 0) {
-                        totalNetProduction.put(type, totalNetProduction.get(type) - maintenanceCost);
-                        
-                        System.out.println("  " + type.getDisplayName() + 
-                            " 维护成本: " + String.format("%.2f", maintenanceCost));
-                    }
-                }
-            }
-        }
+        // 净产量和耗尽回合都取自派系经济预测，库存和殖民地没有变化时不会重新计算
+        EconomyForecast forecast = gameEngine.getPlayerFaction().getEconomyForecast();
 
         // 清空资源容器
         resourcesContainer.getChildren().clear();
@@ -399,9 +358,10 @@ public class MainController {
             }
             
             float amount = factionStockpile.getResource(type);  // 从派系库存获取资源数量
-            float net = totalNetProduction.get(type); // 使用所有殖民地的净产量总和
+            float net = forecast.getNetPerTurn(type); // 所有殖民地的净产量减去建筑维护
+            int depletedIn = forecast.turnsUntilDepleted(type);
             
-            Label resourceLabel = new Label(formatResourceText(type, amount, net));
+            Label resourceLabel = new Label(formatResourceText(type, amount, net, depletedIn));
             resourceLabel.setTextFill(Color.web(type.getColor()));
             resourcesContainer.getChildren().add(resourceLabel);
         }
@@ -414,6 +374,12 @@ public class MainController {
             formatNumber(amount), 
             formatNumberWithSign(net));
     }
+
+    // 格式化资源显示文本，预测期内会耗尽时附加剩余回合数
+    private String formatResourceText(ResourceType type, float amount, float net, int depletedIn) {
+        String text = formatResourceText(type, amount, net);
+        return depletedIn > 0 ? text + " (" + depletedIn + "回合后耗尽)" : text;
+    }
     
     // 格式化简短资源显示文本
     private String formatResourceTextShort(ResourceType type, float amount, float net) {